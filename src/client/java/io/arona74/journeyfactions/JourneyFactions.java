@@ -6,6 +6,7 @@ import io.arona74.journeyfactions.network.ClientNetworkHandler;
 import me.shedaniel.autoconfig.AutoConfig;
 import me.shedaniel.autoconfig.serializer.JanksonConfigSerializer;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +31,9 @@ public class JourneyFactions implements ClientModInitializer {
         // Initialize client-side faction data manager
         factionManager = new ClientFactionManager();
         debugLog("ClientFactionManager initialized");
+
+        // Publish the changes of each tick for readers off the client thread
+        ClientTickEvents.END_CLIENT_TICK.register(client -> factionManager.publishSnapshot());
         
         // Initialize network handling
         ClientNetworkHandler.initialize();
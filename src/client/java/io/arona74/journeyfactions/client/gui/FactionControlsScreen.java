@@ -142,7 +142,7 @@ public class FactionControlsScreen extends Screen {
                 if (faction.getType() == ClientFaction.FactionType.PLAYER) {
                     factionCount++;
                 }
-                totalChunks += faction.getClaimedChunks().size();
+                totalChunks += faction.getClaimedChunkCount();
             }
         } catch (Exception e) {
             // JourneyFactions.LOGGER.warn("Error updating faction stats: {}", e.getMessage());
@@ -14,12 +14,20 @@ public class JourneyFactionsConfig implements ConfigData {
     @ConfigEntry.Gui.EnumHandler(option = ConfigEntry.Gui.EnumHandler.EnumDisplayOption.BUTTON)
     public LabelAnchorMode labelAnchorMode = LabelAnchorMode.HULL_CENTROID;
     
+    @ConfigEntry.Gui.Tooltip
+    @ConfigEntry.BoundedDiscrete(min = 0, max = 256)
+    public int viewMarginChunks = 32;
+    
+    @ConfigEntry.Gui.Tooltip
+    @ConfigEntry.BoundedDiscrete(min = 0, max = 1)
+    public boolean cacheClaims = true;
+    
     @ConfigEntry.Gui.Tooltip
     @ConfigEntry.BoundedDiscrete(min = 0, max = 1)
     public boolean debugMode = false;
     
     public enum LabelAnchorMode {
-        /** BFS from perimeter to find the chunk farthest from any edge/hole. */
+        /** Chunk deepest inside the region (distance transform from every edge and hole). */
         FARTHEST_INTERIOR_CHUNK,
         /** Area-weighted hull centroid (may fall in a hole for weird shapes). */
         HULL_CENTROID,
@@ -0,0 +1,197 @@
+package io.arona74.journeyfactions.data;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Mutable set of packed chunk keys as one 128-byte bitset per 32x32-chunk tile, the same
+ * tiles as {@link ClaimSet}. Used for the chunks each faction owns in the ownership index, so
+ * a faction update is diffed against its new {@link ClaimSet} a word at a time.
+ *
+ * Not thread-safe: callers mutate it from the client thread only.
+ */
+final class ChunkBitmap {
+
+    private final LongIntHashMap slotByTile = new LongIntHashMap();
+    // Slot -> tile key, bitset and number of set bits; slots are kept dense
+    private long[] tileKeys = new long[4];
+    private long[][] tiles = new long[4][];
+    private int[] counts = new int[4];
+    private int tileCount;
+    private int size;
+    // Immutable copy of the current contents, until the next change
+    private ClaimSet frozen = ClaimSet.EMPTY;
+
+    static ChunkBitmap of(ClaimSet claims) {
+        ChunkBitmap bitmap = new ChunkBitmap();
+        for (int i = 0; i < claims.getTileCount(); i++) {
+            long[] words = claims.words(i).clone();
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            int slot = bitmap.newSlot(claims.tileKeyAt(i));
+            bitmap.tiles[slot] = words;
+            bitmap.counts[slot] = count;
+            bitmap.size += count;
+        }
+        bitmap.frozen = claims;
+        return bitmap;
+    }
+
+    /**
+     * Immutable copy of the current contents; repeated calls without changes in between
+     * return the same set
+     */
+    ClaimSet toClaimSet() {
+        ClaimSet claims = frozen;
+        if (claims == null) {
+            long[][] words = new long[tileCount][];
+            for (int slot = 0; slot < tileCount; slot++) {
+                words[slot] = tiles[slot].clone();
+            }
+            claims = ClaimSet.ofTiles(tileKeys, words, tileCount);
+            frozen = claims;
+        }
+        return claims;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(long chunkKey) {
+        int slot = slotByTile.get(ClaimSet.tileOf(chunkKey), -1);
+        int bit = ClaimSet.bitOf(chunkKey);
+        return slot >= 0 && (tiles[slot][bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @return true if the chunk was not already present
+     */
+    boolean add(long chunkKey) {
+        long tileKey = ClaimSet.tileOf(chunkKey);
+        int slot = slotByTile.get(tileKey, -1);
+        if (slot < 0) {
+            slot = newSlot(tileKey);
+            tiles[slot] = new long[ClaimSet.TILE_WORDS];
+        }
+        int bit = ClaimSet.bitOf(chunkKey);
+        long mask = 1L << bit;
+        if ((tiles[slot][bit >>> 6] & mask) != 0) {
+            return false;
+        }
+        tiles[slot][bit >>> 6] |= mask;
+        frozen = null;
+        counts[slot]++;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return true if the chunk was present
+     */
+    boolean remove(long chunkKey) {
+        int slot = slotByTile.get(ClaimSet.tileOf(chunkKey), -1);
+        if (slot < 0) {
+            return false;
+        }
+        int bit = ClaimSet.bitOf(chunkKey);
+        long mask = 1L << bit;
+        if ((tiles[slot][bit >>> 6] & mask) == 0) {
+            return false;
+        }
+        tiles[slot][bit >>> 6] &= ~mask;
+        frozen = null;
+        size--;
+        if (--counts[slot] == 0) {
+            removeSlot(slot);
+        }
+        return true;
+    }
+
+    void clear() {
+        slotByTile.clear();
+        Arrays.fill(tiles, 0, tileCount, null);
+        tileCount = 0;
+        size = 0;
+        frozen = ClaimSet.EMPTY;
+    }
+
+    /**
+     * Visit every chunk key. The bitmap must not be modified during iteration.
+     */
+    void forEach(LongConsumer consumer) {
+        for (int slot = 0; slot < tileCount; slot++) {
+            visit(tileKeys[slot], tiles[slot], null, consumer);
+        }
+    }
+
+    /**
+     * Visit the chunks in this bitmap that are not in {@code claims}. The bitmap must not be
+     * modified during iteration.
+     */
+    void forEachNotIn(ClaimSet claims, LongConsumer consumer) {
+        for (int slot = 0; slot < tileCount; slot++) {
+            int other = claims.indexOfTile(tileKeys[slot]);
+            visit(tileKeys[slot], tiles[slot], other >= 0 ? claims.words(other) : null, consumer);
+        }
+    }
+
+    /**
+     * Visit the chunks in {@code claims} that are not in this bitmap. The bitmap must not be
+     * modified during iteration.
+     */
+    void forEachMissing(ClaimSet claims, LongConsumer consumer) {
+        for (int i = 0; i < claims.getTileCount(); i++) {
+            long tileKey = claims.tileKeyAt(i);
+            int slot = slotByTile.get(tileKey, -1);
+            visit(tileKey, claims.words(i), slot >= 0 ? tiles[slot] : null, consumer);
+        }
+    }
+
+    /**
+     * Visit the bits set in {@code words} and clear in {@code excluded} (null: none excluded)
+     */
+    private static void visit(long tileKey, long[] words, long[] excluded, LongConsumer consumer) {
+        for (int w = 0; w < ClaimSet.TILE_WORDS; w++) {
+            long word = excluded != null ? words[w] & ~excluded[w] : words[w];
+            while (word != 0) {
+                consumer.accept(ClaimSet.chunkAt(tileKey, (w << 6) | Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+    }
+
+    private int newSlot(long tileKey) {
+        if (tileCount == tileKeys.length) {
+            tileKeys = Arrays.copyOf(tileKeys, tileCount * 2);
+            tiles = Arrays.copyOf(tiles, tileCount * 2);
+            counts = Arrays.copyOf(counts, tileCount * 2);
+        }
+        int slot = tileCount++;
+        slotByTile.put(tileKey, slot);
+        tileKeys[slot] = tileKey;
+        counts[slot] = 0;
+        return slot;
+    }
+
+    /**
+     * Drop an empty tile, moving the last slot into its place
+     */
+    private void removeSlot(int slot) {
+        slotByTile.remove(tileKeys[slot]);
+        int last = --tileCount;
+        if (slot != last) {
+            tileKeys[slot] = tileKeys[last];
+            tiles[slot] = tiles[last];
+            counts[slot] = counts[last];
+            slotByTile.put(tileKeys[slot], slot);
+        }
+        tiles[last] = null;
+    }
+}
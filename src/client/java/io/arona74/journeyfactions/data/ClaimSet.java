@@ -0,0 +1,556 @@
+package io.arona74.journeyfactions.data;
+
+import io.arona74.journeyfactions.network.ClaimCodec;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Immutable set of packed chunk keys ({@link ChunkPos#toLong()}), stored as compressed
+ * bitmaps of 32x32-chunk tiles (the {@link ClaimCodec#REGION_SHIFT} regions). A tile is
+ * either a 128-byte bitset or, when that is smaller, a list of runs of set bits; sparse
+ * claims and solid territory both cost well under a byte per chunk. Set operations work a
+ * 64-bit word at a time and share the tiles they do not change.
+ * <p>
+ * Reads never copy and a set can be shared freely, including with worker threads; changes
+ * build a new set, so the only allocation happens when claims are replaced.
+ */
+public final class ClaimSet {
+
+    public static final ClaimSet EMPTY = new ClaimSet(new long[0], new long[0][], new char[0][], 0);
+
+    static final int TILE_SHIFT = ClaimCodec.REGION_SHIFT;
+    static final int TILE_SIZE = 1 << TILE_SHIFT;
+    static final int TILE_MASK = TILE_SIZE - 1;
+    static final int TILE_WORDS = TILE_SIZE * TILE_SIZE / 64;
+    // A run costs two chars; runs are only used while they take less room than the bitset
+    private static final int MAX_RUNS = TILE_WORDS * 8 / 4 - 1;
+
+    // Tile keys in ascending order; per tile either a bitset (bit index (z & 31) * 32 + (x & 31))
+    // or, when bitmaps[i] is null, runs[i] as (first bit, length - 1) pairs. Never modified.
+    private final long[] tileKeys;
+    private final long[][] bitmaps;
+    private final char[][] runs;
+    private final int size;
+    private Set<ChunkPos> chunkView;
+
+    private ClaimSet(long[] tileKeys, long[][] bitmaps, char[][] runs, int size) {
+        this.tileKeys = tileKeys;
+        this.bitmaps = bitmaps;
+        this.runs = runs;
+        this.size = size;
+    }
+
+    /**
+     * Set of the given chunk keys; the array is not kept and may hold duplicates
+     */
+    public static ClaimSet of(long[] chunkKeys) {
+        if (chunkKeys.length == 0) {
+            return EMPTY;
+        }
+        Builder builder = new Builder();
+        for (long chunkKey : chunkKeys) {
+            builder.add(chunkKey);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Set of the first {@code tileCount} tiles, given as keys and bitsets in any order. The
+     * bitsets may be kept and must not be modified afterwards.
+     */
+    static ClaimSet ofTiles(long[] tileKeys, long[][] words, int tileCount) {
+        Integer[] order = new Integer[tileCount];
+        for (int i = 0; i < tileCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(tileKeys[a], tileKeys[b]));
+        TileBuilder builder = new TileBuilder(tileCount);
+        for (int i : order) {
+            builder.add(tileKeys[i], words[i], false);
+        }
+        return builder.build();
+    }
+
+    public static ClaimSet of(Collection<ChunkPos> chunks) {
+        long[] chunkKeys = new long[chunks.size()];
+        int i = 0;
+        for (ChunkPos chunk : chunks) {
+            chunkKeys[i++] = chunk.toLong();
+        }
+        return of(chunkKeys);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long chunkKey) {
+        int tile = Arrays.binarySearch(tileKeys, tileOf(chunkKey));
+        if (tile < 0) {
+            return false;
+        }
+        return containsInTile(tile, bitOf(chunkKey));
+    }
+
+    /**
+     * Visit every chunk key, tile by tile
+     */
+    public void forEach(LongConsumer consumer) {
+        for (int tile = 0; tile < tileKeys.length; tile++) {
+            long tileKey = tileKeys[tile];
+            long[] bitmap = bitmaps[tile];
+            if (bitmap != null) {
+                for (int w = 0; w < TILE_WORDS; w++) {
+                    long word = bitmap[w];
+                    while (word != 0) {
+                        consumer.accept(chunkAt(tileKey, (w << 6) | Long.numberOfTrailingZeros(word)));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] tileRuns = runs[tile];
+                for (int r = 0; r < tileRuns.length; r += 2) {
+                    for (int bit = tileRuns[r], end = bit + tileRuns[r + 1]; bit <= end; bit++) {
+                        consumer.accept(chunkAt(tileKey, bit));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a new array holding every chunk key, grouped by tile, for callers that modify it
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int[] i = { 0 };
+        forEach(chunkKey -> result[i[0]++] = chunkKey);
+        return result;
+    }
+
+    /**
+     * Read-only {@link Set} view of the chunks; iterating creates the {@link ChunkPos} objects
+     */
+    public Set<ChunkPos> asChunkSet() {
+        Set<ChunkPos> view = chunkView;
+        if (view == null) {
+            view = new ChunkView();
+            chunkView = view;
+        }
+        return view;
+    }
+
+    public ClaimSet with(long chunkKey) {
+        return contains(chunkKey) ? this : union(of(new long[] { chunkKey }));
+    }
+
+    public ClaimSet without(long chunkKey) {
+        return contains(chunkKey) ? minus(of(new long[] { chunkKey })) : this;
+    }
+
+    /**
+     * Apply many additions and removals at once; {@code added} and {@code removed} must not overlap
+     * @return this set if nothing changed
+     */
+    public ClaimSet with(LongHashSet added, LongHashSet removed) {
+        return union(of(added.toArray())).minus(of(removed.toArray()));
+    }
+
+    /**
+     * Chunks in this set or the other
+     * @return this set if the other adds nothing
+     */
+    public ClaimSet union(ClaimSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        TileBuilder builder = new TileBuilder(tileKeys.length + other.tileKeys.length);
+        boolean changed = false;
+        int a = 0;
+        int b = 0;
+        while (a < tileKeys.length || b < other.tileKeys.length) {
+            if (b == other.tileKeys.length || (a < tileKeys.length && tileKeys[a] < other.tileKeys[b])) {
+                builder.share(this, a++);
+            } else if (a == tileKeys.length || other.tileKeys[b] < tileKeys[a]) {
+                builder.share(other, b++);
+                changed = true;
+            } else {
+                long[] mine = words(a);
+                long[] theirs = other.words(b);
+                long[] merged = new long[TILE_WORDS];
+                boolean tileChanged = false;
+                for (int w = 0; w < TILE_WORDS; w++) {
+                    merged[w] = mine[w] | theirs[w];
+                    tileChanged |= merged[w] != mine[w];
+                }
+                if (tileChanged) {
+                    builder.add(tileKeys[a], merged, false);
+                    changed = true;
+                } else {
+                    builder.share(this, a);
+                }
+                a++;
+                b++;
+            }
+        }
+        return changed ? builder.build() : this;
+    }
+
+    /**
+     * Chunks in this set and not in the other
+     * @return this set if the other removes nothing
+     */
+    public ClaimSet minus(ClaimSet other) {
+        if (other.isEmpty() || isEmpty()) {
+            return this;
+        }
+        TileBuilder builder = new TileBuilder(tileKeys.length);
+        boolean changed = false;
+        int b = 0;
+        for (int a = 0; a < tileKeys.length; a++) {
+            while (b < other.tileKeys.length && other.tileKeys[b] < tileKeys[a]) {
+                b++;
+            }
+            if (b == other.tileKeys.length || other.tileKeys[b] != tileKeys[a]) {
+                builder.share(this, a);
+                continue;
+            }
+            long[] mine = words(a);
+            long[] theirs = other.words(b);
+            long[] remaining = new long[TILE_WORDS];
+            boolean tileChanged = false;
+            for (int w = 0; w < TILE_WORDS; w++) {
+                remaining[w] = mine[w] & ~theirs[w];
+                tileChanged |= remaining[w] != mine[w];
+            }
+            if (tileChanged) {
+                builder.add(tileKeys[a], remaining, false);
+                changed = true;
+            } else {
+                builder.share(this, a);
+            }
+        }
+        return changed ? builder.build() : this;
+    }
+
+    /**
+     * Number of tiles holding at least one chunk
+     */
+    public int getTileCount() {
+        return tileKeys.length;
+    }
+
+    /**
+     * Key of the tile at {@code index} (0 to {@link #getTileCount()} - 1), in ascending order
+     */
+    long tileKeyAt(int index) {
+        return tileKeys[index];
+    }
+
+    /**
+     * Index of a tile, or a negative value if the set has no chunks in it
+     */
+    int indexOfTile(long tileKey) {
+        return Arrays.binarySearch(tileKeys, tileKey);
+    }
+
+    /**
+     * Whether {@code bit} (see {@link #bitOf}) is set in the tile at {@code index}
+     */
+    boolean containsInTile(int index, int bit) {
+        long[] bitmap = bitmaps[index];
+        if (bitmap != null) {
+            return (bitmap[bit >>> 6] & (1L << bit)) != 0;
+        }
+        char[] tileRuns = runs[index];
+        for (int r = 0; r < tileRuns.length; r += 2) {
+            if (bit < tileRuns[r]) {
+                return false;
+            }
+            if (bit <= tileRuns[r] + tileRuns[r + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bitset of the tile at {@code index}; a tile kept as a bitset is returned as is and must
+     * not be modified
+     */
+    long[] words(int index) {
+        long[] bitmap = bitmaps[index];
+        if (bitmap != null) {
+            return bitmap;
+        }
+        long[] words = new long[TILE_WORDS];
+        char[] tileRuns = runs[index];
+        for (int r = 0; r < tileRuns.length; r += 2) {
+            for (int bit = tileRuns[r], end = bit + tileRuns[r + 1]; bit <= end; bit++) {
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return words;
+    }
+
+    static long tileOf(long chunkKey) {
+        return ChunkPos.toLong(ChunkPos.getPackedX(chunkKey) >> TILE_SHIFT, ChunkPos.getPackedZ(chunkKey) >> TILE_SHIFT);
+    }
+
+    static int bitOf(long chunkKey) {
+        return ((ChunkPos.getPackedZ(chunkKey) & TILE_MASK) << TILE_SHIFT) | (ChunkPos.getPackedX(chunkKey) & TILE_MASK);
+    }
+
+    static long chunkAt(long tileKey, int bit) {
+        return ChunkPos.toLong(
+            (ChunkPos.getPackedX(tileKey) << TILE_SHIFT) | (bit & TILE_MASK),
+            (ChunkPos.getPackedZ(tileKey) << TILE_SHIFT) | (bit >>> TILE_SHIFT));
+    }
+
+    /**
+     * Collects chunks, one at a time or as horizontal spans, into a new set. The tile bitsets
+     * are reused from one {@link #build()} to the next, so a long-lived builder (one per
+     * decoding thread) allocates little beyond the finished sets. Not thread-safe.
+     */
+    public static final class Builder {
+        // Bitsets of at most this many tiles are kept for reuse between builds
+        private static final int MAX_POOLED_TILES = 4096;
+
+        private LongIntHashMap slotByTile = new LongIntHashMap();
+        private long[] tileKeys = new long[16];
+        private long[][] words = new long[16][];
+        private int tileCount;
+
+        public Builder add(long chunkKey) {
+            int bit = bitOf(chunkKey);
+            tile(tileOf(chunkKey))[bit >>> 6] |= 1L << bit;
+            return this;
+        }
+
+        /**
+         * Add the chunks {@code startX..endX} (inclusive) of row {@code z}, up to 32 at a time
+         */
+        public Builder addSpan(int z, int startX, int endX) {
+            int tileZ = z >> TILE_SHIFT;
+            int rowShift = (z & TILE_MASK) << TILE_SHIFT;
+            int x = startX;
+            while (x <= endX) {
+                int tileEnd = Math.min(endX, x | TILE_MASK);
+                int bit = rowShift | (x & TILE_MASK);
+                long mask = (-1L >>> (63 - (tileEnd - x))) << (bit & 63);
+                tile(ChunkPos.toLong(x >> TILE_SHIFT, tileZ))[bit >>> 6] |= mask;
+                if (tileEnd == Integer.MAX_VALUE) {
+                    break;
+                }
+                x = tileEnd + 1;
+            }
+            return this;
+        }
+
+        /**
+         * The set of everything added since the last build; the builder is empty again afterwards
+         */
+        public ClaimSet build() {
+            long[] sortedKeys = Arrays.copyOf(tileKeys, tileCount);
+            Arrays.sort(sortedKeys);
+            TileBuilder builder = new TileBuilder(tileCount);
+            for (long tileKey : sortedKeys) {
+                builder.add(tileKey, words[slotByTile.get(tileKey, -1)], true);
+            }
+            ClaimSet result = builder.build();
+            clear();
+            return result;
+        }
+
+        /**
+         * Drop everything added since the last build, e.g. after a failed decode
+         */
+        public Builder clear() {
+            if (tileCount == 0) {
+                return this;
+            }
+            if (words.length > MAX_POOLED_TILES) {
+                slotByTile = new LongIntHashMap();
+                tileKeys = new long[16];
+                words = new long[16][];
+            } else {
+                for (int slot = 0; slot < tileCount; slot++) {
+                    Arrays.fill(words[slot], 0L);
+                }
+                slotByTile.clear();
+            }
+            tileCount = 0;
+            return this;
+        }
+
+        private long[] tile(long tileKey) {
+            int slot = slotByTile.get(tileKey, -1);
+            if (slot < 0) {
+                if (tileCount == tileKeys.length) {
+                    tileKeys = Arrays.copyOf(tileKeys, tileCount * 2);
+                    words = Arrays.copyOf(words, tileCount * 2);
+                }
+                slot = tileCount++;
+                slotByTile.put(tileKey, slot);
+                tileKeys[slot] = tileKey;
+                if (words[slot] == null) {
+                    words[slot] = new long[TILE_WORDS];
+                }
+            }
+            return words[slot];
+        }
+    }
+
+    /**
+     * Collects tiles in ascending key order, compressing new ones and sharing unchanged ones
+     */
+    private static final class TileBuilder {
+        private final long[] tileKeys;
+        private final long[][] bitmaps;
+        private final char[][] runs;
+        private int tileCount;
+        private int size;
+
+        TileBuilder(int capacity) {
+            tileKeys = new long[capacity];
+            bitmaps = new long[capacity][];
+            runs = new char[capacity][];
+        }
+
+        void share(ClaimSet set, int index) {
+            tileKeys[tileCount] = set.tileKeys[index];
+            bitmaps[tileCount] = set.bitmaps[index];
+            runs[tileCount] = set.runs[index];
+            size += count(bitmaps[tileCount], runs[tileCount]);
+            tileCount++;
+        }
+
+        /**
+         * Add a tile from its bitset, which is kept if it stays a bitset unless {@code copy} is
+         * set; empty tiles are skipped
+         */
+        void add(long tileKey, long[] words, boolean copy) {
+            int bits = 0;
+            int runCount = 0;
+            long previousTop = 0;
+            for (long word : words) {
+                bits += Long.bitCount(word);
+                // A run starts at every set bit whose lower neighbour is clear
+                runCount += Long.bitCount(word & ~((word << 1) | previousTop));
+                previousTop = word >>> 63;
+            }
+            if (bits == 0) {
+                return;
+            }
+            tileKeys[tileCount] = tileKey;
+            if (runCount <= MAX_RUNS) {
+                runs[tileCount] = toRuns(words, runCount);
+            } else {
+                bitmaps[tileCount] = copy ? words.clone() : words;
+            }
+            size += bits;
+            tileCount++;
+        }
+
+        ClaimSet build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new ClaimSet(Arrays.copyOf(tileKeys, tileCount), Arrays.copyOf(bitmaps, tileCount),
+                    Arrays.copyOf(runs, tileCount), size);
+        }
+
+        private static int count(long[] bitmap, char[] tileRuns) {
+            int bits = 0;
+            if (bitmap != null) {
+                for (long word : bitmap) {
+                    bits += Long.bitCount(word);
+                }
+            } else {
+                for (int r = 1; r < tileRuns.length; r += 2) {
+                    bits += tileRuns[r] + 1;
+                }
+            }
+            return bits;
+        }
+
+        private static char[] toRuns(long[] words, int runCount) {
+            char[] result = new char[runCount * 2];
+            int r = 0;
+            int bit = 0;
+            int total = TILE_WORDS * 64;
+            while (bit < total) {
+                if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                    bit++;
+                    continue;
+                }
+                int start = bit;
+                while (bit < total && (words[bit >>> 6] & (1L << bit)) != 0) {
+                    bit++;
+                }
+                result[r++] = (char) start;
+                result[r++] = (char) (bit - start - 1);
+            }
+            return result;
+        }
+    }
+
+    private final class ChunkView extends AbstractSet<ChunkPos> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof ChunkPos && ClaimSet.this.contains(((ChunkPos) o).toLong());
+        }
+
+        @Override
+        public Iterator<ChunkPos> iterator() {
+            return new Iterator<ChunkPos>() {
+                private int tile = -1;
+                private long[] words;
+                private int word;
+                private long bits;
+
+                @Override
+                public boolean hasNext() {
+                    while (bits == 0) {
+                        if (words != null && word < TILE_WORDS - 1) {
+                            bits = words[++word];
+                        } else if (tile < tileKeys.length - 1) {
+                            words = words(++tile);
+                            word = 0;
+                            bits = words[0];
+                        } else {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                @Override
+                public ChunkPos next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int bit = (word << 6) | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    return new ChunkPos(chunkAt(tileKeys[tile], bit));
+                }
+            };
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package io.arona74.journeyfactions.data;
 
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 import java.awt.Color;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -13,10 +17,14 @@ public class ClientFaction {
     private final String id;
     private String name;
     private String displayName;
-    private final Set<ChunkPos> claimedChunks;
+    // Claimed chunks per dimension; dimensions without claims have no entry. Replaced as a
+    // whole on every change, so the map and its sets can be handed out without copying.
+    private volatile Map<RegistryKey<World>, ClaimSet> claims;
     private Color color;
     private FactionType type;
     private long lastUpdated;
+    private long version;
+    private int claimVersion; // Server-side claim version, for gap detection on claim deltas
 
     public enum FactionType {
         PLAYER,      // Regular player faction
@@ -29,65 +37,188 @@ public class ClientFaction {
         this.id = id;
         this.name = name;
         this.displayName = name;
-        this.claimedChunks = new HashSet<>();
+        this.claims = Collections.emptyMap();
         this.color = null; // Will be set from server data
         this.type = FactionType.PLAYER;
-        this.lastUpdated = System.currentTimeMillis();
+        markChanged();
     }
 
     // Getters
     public String getId() { return id; }
     public String getName() { return name; }
     public String getDisplayName() { return displayName; }
-    public Set<ChunkPos> getClaimedChunks() { return new HashSet<>(claimedChunks); }
     public Color getColor() { return color; }
     public FactionType getType() { return type; }
     public long getLastUpdated() { return lastUpdated; }
 
+    /**
+     * Monotonic change counter, bumped on every mutation. Consumers can remember the
+     * version they last processed and skip work when it has not moved.
+     */
+    public long getVersion() { return version; }
+    public int getClaimVersion() { return claimVersion; }
+
+    /**
+     * Chunks claimed in one dimension, immutable
+     */
+    public ClaimSet getClaims(RegistryKey<World> dimension) {
+        ClaimSet dimensionClaims = claims.get(dimension);
+        return dimensionClaims != null ? dimensionClaims : ClaimSet.EMPTY;
+    }
+
+    /**
+     * Claims of every dimension, immutable
+     */
+    public Map<RegistryKey<World>, ClaimSet> getAllClaims() {
+        return claims;
+    }
+
+    /**
+     * Read-only view of the chunks claimed in one dimension
+     */
+    public Set<ChunkPos> getClaimedChunks(RegistryKey<World> dimension) {
+        return getClaims(dimension).asChunkSet();
+    }
+
+    /**
+     * Dimensions this faction has claims in, read-only
+     */
+    public Set<RegistryKey<World>> getClaimedDimensions() {
+        return claims.keySet();
+    }
+
+    /**
+     * Copy of the chunks claimed in one dimension as packed keys ({@link ChunkPos#toLong()}),
+     * in ascending order
+     */
+    public long[] getClaimedChunkKeys(RegistryKey<World> dimension) {
+        return getClaims(dimension).toArray();
+    }
+
     // Setters
     public void setName(String name) {
         this.name = name;
-        this.lastUpdated = System.currentTimeMillis();
+        markChanged();
     }
 
     public void setDisplayName(String displayName) {
         this.displayName = displayName;
-        this.lastUpdated = System.currentTimeMillis();
+        markChanged();
     }
 
     public void setColor(Color color) {
         this.color = color;
-        this.lastUpdated = System.currentTimeMillis();
+        markChanged();
+    }
+
+    public void setClaimVersion(int claimVersion) {
+        this.claimVersion = claimVersion;
     }
 
     public void setType(FactionType type) {
         this.type = type;
-        this.lastUpdated = System.currentTimeMillis();
+        markChanged();
     }
 
     // Chunk management
-    public void addClaimedChunk(ChunkPos chunk) {
-        claimedChunks.add(chunk);
-        this.lastUpdated = System.currentTimeMillis();
+    public void addClaimedChunk(RegistryKey<World> dimension, ChunkPos chunk) {
+        setClaims(dimension, getClaims(dimension).with(chunk.toLong()));
     }
 
-    public void removeClaimedChunk(ChunkPos chunk) {
-        claimedChunks.remove(chunk);
-        this.lastUpdated = System.currentTimeMillis();
+    public void removeClaimedChunk(RegistryKey<World> dimension, ChunkPos chunk) {
+        setClaims(dimension, getClaims(dimension).without(chunk.toLong()));
+    }
+
+    /**
+     * Replace the claims in one dimension, leaving other dimensions alone
+     */
+    public void setClaimedChunks(RegistryKey<World> dimension, Set<ChunkPos> chunks) {
+        setClaims(dimension, ClaimSet.of(chunks));
+    }
+
+    /**
+     * Replace the claims in one dimension, leaving other dimensions alone
+     */
+    public void setClaims(RegistryKey<World> dimension, ClaimSet dimensionClaims) {
+        ClaimSet previous = claims.get(dimension);
+        if (dimensionClaims != previous && !(dimensionClaims.isEmpty() && previous == null)) {
+            Map<RegistryKey<World>, ClaimSet> updated = new HashMap<>(claims);
+            if (dimensionClaims.isEmpty()) {
+                updated.remove(dimension);
+            } else {
+                updated.put(dimension, dimensionClaims);
+            }
+            claims = Collections.unmodifiableMap(updated);
+        }
+        markChanged();
+    }
+
+    /**
+     * Replace the claims in every dimension; the sets are shared, not copied
+     */
+    public void setAllClaims(Map<RegistryKey<World>, ClaimSet> claimsByDimension) {
+        Map<RegistryKey<World>, ClaimSet> updated = new HashMap<>();
+        claimsByDimension.forEach((dimension, dimensionClaims) -> {
+            if (!dimensionClaims.isEmpty()) {
+                updated.put(dimension, dimensionClaims);
+            }
+        });
+        claims = Collections.unmodifiableMap(updated);
+        markChanged();
     }
 
-    public void setClaimedChunks(Set<ChunkPos> chunks) {
-        this.claimedChunks.clear();
-        this.claimedChunks.addAll(chunks);
+    /**
+     * Take over everything but the ID from a freshly decoded faction that is not used
+     * elsewhere; its claim sets are adopted as they are, not copied
+     */
+    void adopt(ClientFaction decoded) {
+        name = decoded.name;
+        displayName = decoded.displayName;
+        color = decoded.color;
+        type = decoded.type;
+        claimVersion = decoded.claimVersion;
+        claims = decoded.claims;
+        markChanged();
+    }
+
+    /**
+     * Detached copy for a {@link FactionSnapshot}, which never modifies it; the claim sets
+     * are immutable and shared
+     */
+    ClientFaction copy() {
+        ClientFaction copy = new ClientFaction(id, name);
+        copy.displayName = displayName;
+        copy.claims = claims;
+        copy.color = color;
+        copy.type = type;
+        copy.lastUpdated = lastUpdated;
+        copy.version = version;
+        copy.claimVersion = claimVersion;
+        return copy;
+    }
+
+    private void markChanged() {
         this.lastUpdated = System.currentTimeMillis();
+        this.version++;
     }
 
-    public boolean hasChunk(ChunkPos chunk) {
-        return claimedChunks.contains(chunk);
+    public boolean hasChunk(RegistryKey<World> dimension, ChunkPos chunk) {
+        return getClaims(dimension).contains(chunk.toLong());
     }
 
+    /**
+     * Claimed chunks across all dimensions
+     */
     public int getClaimedChunkCount() {
-        return claimedChunks.size();
+        int count = 0;
+        for (ClaimSet dimensionClaims : claims.values()) {
+            count += dimensionClaims.size();
+        }
+        return count;
+    }
+
+    public int getClaimedChunkCount(RegistryKey<World> dimension) {
+        return getClaims(dimension).size();
     }
 
     // Utility methods
@@ -107,7 +238,11 @@ public class ClientFaction {
     }
 
     public boolean isEmpty() {
-        return claimedChunks.isEmpty();
+        return claims.isEmpty();
+    }
+
+    public boolean isEmpty(RegistryKey<World> dimension) {
+        return !claims.containsKey(dimension);
     }
 
     @Override
@@ -128,7 +263,7 @@ public class ClientFaction {
         return "ClientFaction{" +
                 "id='" + id + '\'' +
                 ", name='" + name + '\'' +
-                ", chunks=" + claimedChunks.size() +
+                ", chunks=" + getClaimedChunkCount() +
                 ", type=" + type +
                 '}';
     }
@@ -1,29 +1,182 @@
 package io.arona74.journeyfactions.data;
 
 import io.arona74.journeyfactions.JourneyFactions;
+import io.arona74.journeyfactions.network.ClaimCodec;
+import io.arona74.journeyfactions.network.ClaimTreeHash;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Manages faction data on the client side
+ * Manages faction data on the client side.
+ * <p>
+ * The live data belongs to the client thread: packet handlers apply changes through
+ * {@code client.execute}, and listeners are notified there. {@link #getSnapshot()} is an
+ * immutable copy built from the client thread after changes, and only while someone reads it:
+ * the overlay manager reconciles against it and hands it to its geometry workers, which read
+ * claims from it off the client thread. Listeners can be added and removed from any thread.
  */
 public class ClientFactionManager {
     private final Map<String, ClientFaction> factions = new ConcurrentHashMap<>();
-    private final Map<ChunkPos, String> chunkToFaction = new ConcurrentHashMap<>();
-    private final Set<FactionUpdateListener> listeners = new HashSet<>();
+
+    // One chunk ownership index per dimension, so the same chunk coordinates can be owned
+    // by different factions in the overworld, the nether and the end.
+    // Faction IDs are interned once (shared by all dimensions) so each claim costs a long
+    // and an int, not a ChunkPos, a map node and a String reference.
+    private final Map<RegistryKey<World>, DimensionIndex> dimensionIndices = new HashMap<>();
+    private final Map<String, Integer> factionIndices = new HashMap<>();
+    private final List<String> factionIdsByIndex = new ArrayList<>();
+    // Server faction IDs are UUIDs, parsed once when interned; the built-in factions' are not
+    // and map to null
+    private final List<UUID> factionUuidsByIndex = new ArrayList<>();
+    private final List<ClientFaction> factionsByIndex = new ArrayList<>();
+    // Copy-on-write: replaced as a whole under the lock, notifications iterate the array they started with
+    private final Object listenerLock = new Object();
+    private volatile FactionUpdateListener[] listeners = new FactionUpdateListener[0];
+
+    // Change tracking for incremental consumers (overlay reconciliation)
+    private final Set<String> dirtyFactionIds = ConcurrentHashMap.newKeySet();
+    private volatile long dataVersion = 0;
+
+    // Latest published snapshot; live factions -> their copy in it, reused while unchanged
+    private volatile FactionSnapshot snapshot = FactionSnapshot.EMPTY;
+    private Map<ClientFaction, ClientFaction> snapshotCopies = new IdentityHashMap<>();
+    private boolean snapshotStale = true;
+    // Set by readers off the client thread, so the next tick publishes what changed meanwhile
+    private volatile boolean snapshotWanted = false;
+    // Thread the manager was created on and that calls publishSnapshot(), where a stale
+    // snapshot can be built right away
+    private volatile Thread clientThread = Thread.currentThread();
     
     // Special faction IDs
     public static final String WILDERNESS_ID = "wilderness";
     public static final String SAFEZONE_ID = "safezone";
     public static final String WARZONE_ID = "warzone";
 
+    /**
+     * Chunk ownership in one dimension
+     */
+    private static final class DimensionIndex {
+        // Packed chunk key (ChunkPos.toLong) -> interned faction index. Changed through
+        // put/remove only, which keep the hashes below current.
+        final LongIntHashMap chunkToFaction = new LongIntHashMap(1024);
+        // Reverse index: faction index -> tile bitmaps of the chunks it owns in chunkToFaction,
+        // so a faction update only touches that faction's chunks instead of the whole world
+        final List<ChunkBitmap> ownedChunksByIndex = new ArrayList<>();
+        // ClaimTreeHash of the chunks owned by server factions: region -> hash sum and number
+        // of such chunks (a region without any has no hash), sector -> hash sum (dropped at
+        // zero, like the server's)
+        final LongLongHashMap regionHashes = new LongLongHashMap();
+        final LongIntHashMap regionClaimCounts = new LongIntHashMap();
+        final LongLongHashMap sectorHashes = new LongLongHashMap();
+        // Shared with the manager: faction index -> server faction UUID, or null
+        private final List<UUID> factionUuids;
+
+        DimensionIndex(List<UUID> factionUuids) {
+            this.factionUuids = factionUuids;
+        }
+
+        ChunkBitmap owned(int factionIndex) {
+            while (ownedChunksByIndex.size() <= factionIndex) {
+                ownedChunksByIndex.add(new ChunkBitmap());
+            }
+            return ownedChunksByIndex.get(factionIndex);
+        }
+
+        boolean ownsAny(int factionIndex) {
+            return factionIndex < ownedChunksByIndex.size() && !ownedChunksByIndex.get(factionIndex).isEmpty();
+        }
+
+        /**
+         * @return the previous owner's index, or -1
+         */
+        int put(long chunkKey, int factionIndex) {
+            int previousIndex = chunkToFaction.put(chunkKey, factionIndex);
+            updateHashes(chunkKey, previousIndex, factionIndex);
+            return previousIndex;
+        }
+
+        /**
+         * @return the previous owner's index, or -1
+         */
+        int remove(long chunkKey) {
+            int previousIndex = chunkToFaction.remove(chunkKey);
+            updateHashes(chunkKey, previousIndex, -1);
+            return previousIndex;
+        }
+
+        private void updateHashes(long chunkKey, int previousIndex, int factionIndex) {
+            UUID previous = previousIndex >= 0 ? factionUuids.get(previousIndex) : null;
+            UUID current = factionIndex >= 0 ? factionUuids.get(factionIndex) : null;
+            if (previous == current) {
+                return; // Same owner, or neither is a server faction
+            }
+            long delta = (current != null ? ClaimTreeHash.entryHash(chunkKey, current) : 0)
+                    - (previous != null ? ClaimTreeHash.entryHash(chunkKey, previous) : 0);
+            long regionKey = ClaimTreeHash.regionOf(chunkKey);
+            int claims = regionClaimCounts.get(regionKey, 0) + (current != null ? 1 : 0) - (previous != null ? 1 : 0);
+            if (claims == 0) {
+                regionClaimCounts.remove(regionKey);
+                regionHashes.remove(regionKey);
+            } else {
+                regionClaimCounts.put(regionKey, claims);
+                regionHashes.put(regionKey, regionHashes.get(regionKey, 0) + delta);
+            }
+            long sectorKey = ClaimTreeHash.sectorOf(regionKey);
+            long sectorHash = sectorHashes.get(sectorKey, 0) + delta;
+            if (sectorHash == 0) {
+                sectorHashes.remove(sectorKey);
+            } else {
+                sectorHashes.put(sectorKey, sectorHash);
+            }
+        }
+    }
+
+    /**
+     * Claim changes of one bulk operation, merged into each faction's {@link ClaimSet} once at
+     * the end rather than copying the set for every chunk
+     */
+    private static final class ClaimEdits {
+        // Faction ID -> dimension -> { added, removed }
+        final Map<String, Map<RegistryKey<World>, LongHashSet[]>> byFaction = new LinkedHashMap<>();
+
+        void add(String factionId, RegistryKey<World> dimension, long chunkKey) {
+            LongHashSet[] edit = edit(factionId, dimension);
+            edit[1].remove(chunkKey);
+            edit[0].add(chunkKey);
+        }
+
+        void remove(String factionId, RegistryKey<World> dimension, long chunkKey) {
+            LongHashSet[] edit = edit(factionId, dimension);
+            edit[0].remove(chunkKey);
+            edit[1].add(chunkKey);
+        }
+
+        /**
+         * Count a faction as affected even if none of its chunks changed
+         */
+        void touch(String factionId) {
+            byFaction.computeIfAbsent(factionId, id -> new LinkedHashMap<>());
+        }
+
+        private LongHashSet[] edit(String factionId, RegistryKey<World> dimension) {
+            return byFaction.computeIfAbsent(factionId, id -> new LinkedHashMap<>())
+                    .computeIfAbsent(dimension, d -> new LongHashSet[] { new LongHashSet(), new LongHashSet() });
+        }
+    }
+
     public ClientFactionManager() {
         // Initialize default factions
         initializeDefaultFactions();
     }
 
+    private DimensionIndex dimensionIndex(RegistryKey<World> dimension) {
+        return dimensionIndices.computeIfAbsent(dimension, d -> new DimensionIndex(factionUuidsByIndex));
+    }
+
     private void initializeDefaultFactions() {
         // Create wilderness faction
         ClientFaction wilderness = new ClientFaction(WILDERNESS_ID, "Wilderness");
@@ -45,41 +198,276 @@ public class ClientFactionManager {
     }
 
     // Faction management
+
+    /**
+     * Add a faction, or update the one with the same ID from it. The given faction (typically
+     * just decoded) is kept or adopted as it is, so callers must not modify it afterwards.
+     */
     public void addOrUpdateFaction(ClientFaction faction) {
         String factionId = faction.getId();
         ClientFaction existing = factions.get(factionId);
         
+        int factionIndex = internFactionId(factionId);
+
         if (existing != null) {
-            // Update existing faction
-            existing.setName(faction.getName());
-            existing.setDisplayName(faction.getDisplayName());
-            existing.setColor(faction.getColor());
-            existing.setType(faction.getType());
-            existing.setClaimedChunks(faction.getClaimedChunks());
+            // Update existing faction, adopting the received claim sets
+            existing.adopt(faction);
             
             // Update chunk mapping
             updateChunkMapping(existing);
             
             JourneyFactions.debugLog("Updated faction: {}", factionId);
+            markDirty(factionId);
+
+            // Notify listeners with the instance we actually keep
+            notifyFactionUpdated(existing);
         } else {
             // Add new faction
             factions.put(factionId, faction);
+            factionsByIndex.set(factionIndex, faction);
             updateChunkMapping(faction);
             
             JourneyFactions.debugLog("Added new faction: {} ({})", faction.getName(), factionId);
+            markDirty(factionId);
+
+            // Notify listeners
+            notifyFactionUpdated(faction);
+        }
+    }
+
+    /**
+     * Apply a metadata-only update (name, display name, color, type) without touching claims.
+     * @return false if the faction is unknown, in which case nothing was applied
+     */
+    public boolean updateFactionMetadata(ClientFaction metadata) {
+        ClientFaction existing = factions.get(metadata.getId());
+        if (existing == null) {
+            return false;
+        }
+
+        existing.setName(metadata.getName());
+        existing.setDisplayName(metadata.getDisplayName());
+        existing.setColor(metadata.getColor());
+        existing.setType(metadata.getType());
+
+        JourneyFactions.debugLog("Updated faction metadata: {}", metadata.getId());
+        markDirty(existing.getId());
+        notifyFactionUpdated(existing);
+        return true;
+    }
+
+    /**
+     * One faction's net claim changes in a server claim batch: applied only on top of
+     * {@code baseVersion}, and bring the faction to {@code newVersion}. Added and removed
+     * chunks are packed keys per dimension.
+     */
+    public static final class ClaimChange {
+        public final String factionId;
+        public final int baseVersion;
+        public final int newVersion;
+        public final Map<RegistryKey<World>, long[]> added;
+        public final Map<RegistryKey<World>, long[]> removed;
+
+        public ClaimChange(String factionId, int baseVersion, int newVersion,
+                           Map<RegistryKey<World>, long[]> added, Map<RegistryKey<World>, long[]> removed) {
+            this.factionId = factionId;
+            this.baseVersion = baseVersion;
+            this.newVersion = newVersion;
+            this.added = added;
+            this.removed = removed;
+        }
+    }
+
+    /**
+     * Apply one tick's worth of server claim changes as a single bulk operation. Removals
+     * (including {@code orphanRemovals}, chunks unclaimed from an unknown owner) go first so
+     * a chunk that changed hands ends up with its new owner. Listeners get one faction update
+     * per affected faction, after the whole batch is in place.
+     * @return IDs of factions that were unknown or out of step and need a resync
+     */
+    public List<String> applyClaimBatch(List<ClaimChange> changes, Map<RegistryKey<World>, long[]> orphanRemovals) {
+        List<String> outOfStep = new ArrayList<>();
+        List<ClaimChange> applicable = new ArrayList<>(changes.size());
+        for (ClaimChange change : changes) {
+            ClientFaction faction = factions.get(change.factionId);
+            if (faction == null
+                    || (change.baseVersion != ClaimCodec.ANY_VERSION && faction.getClaimVersion() != change.baseVersion)) {
+                outOfStep.add(change.factionId);
+            } else {
+                applicable.add(change);
+            }
+        }
+
+        ClaimEdits edits = new ClaimEdits();
+
+        for (Map.Entry<RegistryKey<World>, long[]> entry : orphanRemovals.entrySet()) {
+            RegistryKey<World> dimension = entry.getKey();
+            DimensionIndex index = dimensionIndex(dimension);
+            for (long chunkKey : entry.getValue()) {
+                int previousIndex = index.remove(chunkKey);
+                if (previousIndex >= 0) {
+                    releaseChunk(dimension, index, chunkKey, previousIndex, edits);
+                }
+            }
+        }
+        for (ClaimChange change : applicable) {
+            int factionIndex = internFactionId(change.factionId);
+            for (Map.Entry<RegistryKey<World>, long[]> entry : change.removed.entrySet()) {
+                RegistryKey<World> dimension = entry.getKey();
+                DimensionIndex index = dimensionIndex(dimension);
+                for (long chunkKey : entry.getValue()) {
+                    if (index.chunkToFaction.get(chunkKey, -1) == factionIndex) {
+                        index.remove(chunkKey);
+                        releaseChunk(dimension, index, chunkKey, factionIndex, edits);
+                    }
+                }
+            }
+        }
+        for (ClaimChange change : applicable) {
+            int factionIndex = internFactionId(change.factionId);
+            ClientFaction faction = factionsByIndex.get(factionIndex);
+            for (Map.Entry<RegistryKey<World>, long[]> entry : change.added.entrySet()) {
+                RegistryKey<World> dimension = entry.getKey();
+                DimensionIndex index = dimensionIndex(dimension);
+                for (long chunkKey : entry.getValue()) {
+                    int previousIndex = index.put(chunkKey, factionIndex);
+                    if (previousIndex == factionIndex) {
+                        continue;
+                    }
+                    index.owned(factionIndex).add(chunkKey);
+                    ChunkPos chunk = new ChunkPos(chunkKey);
+                    String previousFactionId = null;
+                    if (previousIndex >= 0) {
+                        previousFactionId = factionIdsByIndex.get(previousIndex);
+                        index.owned(previousIndex).remove(chunkKey);
+                        if (factionsByIndex.get(previousIndex) != null) {
+                            edits.remove(previousFactionId, dimension, chunkKey);
+                        }
+                    }
+                    edits.add(change.factionId, dimension, chunkKey);
+                    notifyChunkChanged(dimension, chunk, previousFactionId, change.factionId);
+                }
+            }
+            faction.setClaimVersion(change.newVersion);
+            edits.touch(change.factionId);
+        }
+
+        // One claim merge and one notification per affected faction
+        applyEdits(edits);
+        return outOfStep;
+    }
+
+    /**
+     * Apply an area-of-interest region sync: every chunk of the unloaded regions is forgotten,
+     * and the loaded regions are replaced by the given claims (faction ID -> packed chunk
+     * keys, all in {@code loadDimension}). Listeners get one update per affected faction.
+     * @return IDs of factions with claims that are not known yet and need a resync
+     */
+    public List<String> applyRegionSync(RegistryKey<World> unloadDimension, long[] unloadRegions,
+                                        RegistryKey<World> loadDimension, long[] loadRegions,
+                                        Map<String, long[]> claims) {
+        ClaimEdits edits = new ClaimEdits();
+        clearRegions(unloadDimension, unloadRegions, edits);
+        clearRegions(loadDimension, loadRegions, edits);
+
+        List<String> unknown = new ArrayList<>();
+        DimensionIndex index = dimensionIndex(loadDimension);
+        for (Map.Entry<String, long[]> entry : claims.entrySet()) {
+            ClientFaction faction = factions.get(entry.getKey());
+            if (faction == null) {
+                unknown.add(entry.getKey());
+                continue;
+            }
+            int factionIndex = internFactionId(entry.getKey());
+            for (long chunkKey : entry.getValue()) {
+                int previousIndex = index.put(chunkKey, factionIndex);
+                if (previousIndex >= 0 && previousIndex != factionIndex) {
+                    // Regions were cleared above, so only a duplicate in the payload gets here
+                    releaseChunk(loadDimension, index, chunkKey, previousIndex, edits);
+                }
+                index.owned(factionIndex).add(chunkKey);
+                edits.add(entry.getKey(), loadDimension, chunkKey);
+                notifyChunkChanged(loadDimension, new ChunkPos(chunkKey), null, entry.getKey());
+            }
+            edits.touch(entry.getKey());
+        }
+
+        applyEdits(edits);
+        return unknown;
+    }
+
+    /**
+     * Forget every claimed chunk in the given regions (see {@link ClaimCodec#REGION_SHIFT})
+     */
+    private void clearRegions(RegistryKey<World> dimension, long[] regionKeys, ClaimEdits edits) {
+        DimensionIndex index = dimensionIndices.get(dimension);
+        if (index == null || regionKeys.length == 0) {
+            return;
+        }
+        int regionSize = 1 << ClaimCodec.REGION_SHIFT;
+        for (long regionKey : regionKeys) {
+            int minX = ChunkPos.getPackedX(regionKey) << ClaimCodec.REGION_SHIFT;
+            int minZ = ChunkPos.getPackedZ(regionKey) << ClaimCodec.REGION_SHIFT;
+            for (int x = minX; x < minX + regionSize; x++) {
+                for (int z = minZ; z < minZ + regionSize; z++) {
+                    long chunkKey = ChunkPos.toLong(x, z);
+                    int previousIndex = index.remove(chunkKey);
+                    if (previousIndex >= 0) {
+                        releaseChunk(dimension, index, chunkKey, previousIndex, edits);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop a chunk already removed from the dimension's chunkToFaction from its previous
+     * owner's claims
+     */
+    private void releaseChunk(RegistryKey<World> dimension, DimensionIndex index, long chunkKey, int previousIndex, ClaimEdits edits) {
+        index.owned(previousIndex).remove(chunkKey);
+        String previousFactionId = factionIdsByIndex.get(previousIndex);
+        if (factionsByIndex.get(previousIndex) != null) {
+            edits.remove(previousFactionId, dimension, chunkKey);
         }
+        notifyChunkChanged(dimension, new ChunkPos(chunkKey), previousFactionId, null);
+    }
 
-        // Notify listeners
-        notifyFactionUpdated(faction);
+    /**
+     * Merge a bulk operation's claim changes into the factions' claim sets, then notify once
+     * per affected faction
+     */
+    private void applyEdits(ClaimEdits edits) {
+        for (Map.Entry<String, Map<RegistryKey<World>, LongHashSet[]>> entry : edits.byFaction.entrySet()) {
+            ClientFaction faction = factions.get(entry.getKey());
+            if (faction == null) {
+                continue;
+            }
+            for (Map.Entry<RegistryKey<World>, LongHashSet[]> edit : entry.getValue().entrySet()) {
+                RegistryKey<World> dimension = edit.getKey();
+                faction.setClaims(dimension, faction.getClaims(dimension).with(edit.getValue()[0], edit.getValue()[1]));
+            }
+            markDirty(entry.getKey());
+            notifyFactionUpdated(faction);
+        }
     }
 
     public void removeFaction(String factionId) {
         ClientFaction faction = factions.remove(factionId);
         if (faction != null) {
-            // Remove chunk mappings
-            faction.getClaimedChunks().forEach(chunkToFaction::remove);
+            // Remove chunk mappings; the interned index stays reserved for this ID
+            Integer factionIndex = factionIndices.get(factionId);
+            if (factionIndex != null) {
+                factionsByIndex.set(factionIndex, null);
+                for (DimensionIndex index : dimensionIndices.values()) {
+                    ChunkBitmap owned = index.owned(factionIndex);
+                    owned.forEach(chunkKey -> index.remove(chunkKey));
+                    owned.clear();
+                }
+            }
             
             JourneyFactions.debugLog("Removed faction: {}", factionId);
+            markDirty(factionId);
             notifyFactionRemoved(faction);
         }
     }
@@ -99,54 +487,267 @@ public class ClientFactionManager {
     }
 
     // Chunk-based queries
-    public ClientFaction getFactionAt(ChunkPos chunk) {
-        String factionId = chunkToFaction.get(chunk);
-        return factionId != null ? factions.get(factionId) : getFaction(WILDERNESS_ID);
+    public ClientFaction getFactionAt(RegistryKey<World> dimension, ChunkPos chunk) {
+        return getFactionAt(dimension, chunk.x, chunk.z);
+    }
+
+    /**
+     * Allocation-free ownership lookup by dimension and chunk coordinates.
+     */
+    public ClientFaction getFactionAt(RegistryKey<World> dimension, int chunkX, int chunkZ) {
+        DimensionIndex index = dimensionIndices.get(dimension);
+        int factionIndex = index != null ? index.chunkToFaction.get(ChunkPos.toLong(chunkX, chunkZ), -1) : -1;
+        return factionIndex >= 0 ? factionsByIndex.get(factionIndex) : getFaction(WILDERNESS_ID);
     }
 
-    public void setChunkOwner(ChunkPos chunk, String factionId) {
+    public void setChunkOwner(RegistryKey<World> dimension, ChunkPos chunk, String factionId) {
+        long chunkKey = chunk.toLong();
+        DimensionIndex index = dimensionIndex(dimension);
+
         // Remove from previous owner
-        String previousFactionId = chunkToFaction.get(chunk);
+        int previousIndex = index.chunkToFaction.get(chunkKey, -1);
+        String previousFactionId = previousIndex >= 0 ? factionIdsByIndex.get(previousIndex) : null;
         if (previousFactionId != null) {
+            index.owned(previousIndex).remove(chunkKey);
             ClientFaction previousFaction = factions.get(previousFactionId);
             if (previousFaction != null) {
-                previousFaction.removeClaimedChunk(chunk);
+                previousFaction.removeClaimedChunk(dimension, chunk);
+                markDirty(previousFactionId);
                 notifyFactionUpdated(previousFaction);
             }
         }
 
         // Add to new owner
         if (factionId != null && !factionId.equals(WILDERNESS_ID)) {
-            chunkToFaction.put(chunk, factionId);
+            int factionIndex = internFactionId(factionId);
+            index.put(chunkKey, factionIndex);
+            index.owned(factionIndex).add(chunkKey);
             ClientFaction newFaction = factions.get(factionId);
             if (newFaction != null) {
-                newFaction.addClaimedChunk(chunk);
+                newFaction.addClaimedChunk(dimension, chunk);
+                markDirty(factionId);
                 notifyFactionUpdated(newFaction);
             }
         } else {
-            chunkToFaction.remove(chunk);
+            index.remove(chunkKey);
         }
 
         // Notify about chunk change
-        notifyChunkChanged(chunk, previousFactionId, factionId);
+        notifyChunkChanged(dimension, chunk, previousFactionId, factionId);
     }
 
+    /**
+     * Apply a faction's claim sets to the chunk indices as a diff against the chunks it
+     * owned before, a bitmap word at a time: only chunks that actually changed owner touch
+     * the chunk map. Only dimensions the faction has or had claims in are touched.
+     */
     private void updateChunkMapping(ClientFaction faction) {
-        // Remove old mappings for this faction
-        chunkToFaction.entrySet().removeIf(entry -> 
-            entry.getValue().equals(faction.getId()));
-        
-        // Add new mappings
-        for (ChunkPos chunk : faction.getClaimedChunks()) {
-            chunkToFaction.put(chunk, faction.getId());
+        int factionIndex = internFactionId(faction.getId());
+
+        Set<RegistryKey<World>> dimensions = new HashSet<>(faction.getClaimedDimensions());
+        for (Map.Entry<RegistryKey<World>, DimensionIndex> entry : dimensionIndices.entrySet()) {
+            if (entry.getValue().ownsAny(factionIndex)) {
+                dimensions.add(entry.getKey());
+            }
+        }
+        for (RegistryKey<World> dimension : dimensions) {
+            updateChunkMapping(faction, factionIndex, dimension);
         }
     }
 
+    private void updateChunkMapping(ClientFaction faction, int factionIndex, RegistryKey<World> dimension) {
+        DimensionIndex index = dimensionIndex(dimension);
+        ChunkBitmap previouslyOwned = index.owned(factionIndex);
+        ClaimSet claims = faction.getClaims(dimension);
+
+        // Remove chunks this faction no longer owns
+        previouslyOwned.forEachNotIn(claims, chunkKey -> index.remove(chunkKey));
+
+        // Map chunks it did not own yet, taking them over from any other owner; the rest
+        // already map to this faction
+        previouslyOwned.forEachMissing(claims, chunkKey -> {
+            int previousIndex = index.put(chunkKey, factionIndex);
+            if (previousIndex >= 0 && previousIndex != factionIndex) {
+                index.owned(previousIndex).remove(chunkKey);
+            }
+        });
+
+        index.ownedChunksByIndex.set(factionIndex, ChunkBitmap.of(claims));
+    }
+
+    /**
+     * {@link ClaimTreeHash} sector hashes of a dimension's chunk ownership
+     */
+    public Map<Long, Long> getSectorHashes(RegistryKey<World> dimension) {
+        Map<Long, Long> hashes = new HashMap<>();
+        DimensionIndex index = dimensionIndices.get(dimension);
+        if (index != null) {
+            index.sectorHashes.forEach(hashes::put);
+        }
+        return hashes;
+    }
+
+    /**
+     * {@link ClaimTreeHash} hashes of the claimed regions of a dimension inside the given sectors
+     */
+    public Map<Long, Long> getRegionHashes(RegistryKey<World> dimension, long[] sectorKeys) {
+        Map<Long, Long> hashes = new HashMap<>();
+        DimensionIndex index = dimensionIndices.get(dimension);
+        if (index == null || index.regionHashes.isEmpty()) {
+            return hashes;
+        }
+        int sectorSize = 1 << ClaimTreeHash.SECTOR_SHIFT;
+        for (long sectorKey : sectorKeys) {
+            int minX = ChunkPos.getPackedX(sectorKey) << ClaimTreeHash.SECTOR_SHIFT;
+            int minZ = ChunkPos.getPackedZ(sectorKey) << ClaimTreeHash.SECTOR_SHIFT;
+            for (int x = minX; x < minX + sectorSize; x++) {
+                for (int z = minZ; z < minZ + sectorSize; z++) {
+                    long regionKey = ChunkPos.toLong(x, z);
+                    if (index.regionClaimCounts.containsKey(regionKey)) {
+                        hashes.put(regionKey, index.regionHashes.get(regionKey, 0));
+                    }
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Return the compact index for a faction ID, assigning one on first use.
+     * Indices are stable until {@link #clear()}.
+     */
+    private int internFactionId(String factionId) {
+        Integer existing = factionIndices.get(factionId);
+        if (existing != null) {
+            return existing;
+        }
+        int factionIndex = factionIdsByIndex.size();
+        factionIndices.put(factionId, factionIndex);
+        factionIdsByIndex.add(factionId);
+        factionUuidsByIndex.add(parseUuid(factionId));
+        factionsByIndex.add(factions.get(factionId));
+        return factionIndex;
+    }
+
+    private static UUID parseUuid(String factionId) {
+        try {
+            return UUID.fromString(factionId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Change tracking
+    private void markDirty(String factionId) {
+        dirtyFactionIds.add(factionId);
+        dataVersion++;
+        snapshotStale = true;
+    }
+
+    /**
+     * Global change counter, bumped whenever any faction or chunk mapping changes.
+     * A consumer that saw the same value last time has nothing to do.
+     */
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Current snapshot, safe to read from any thread. On the client thread it is built right
+     * away if the data changed. Elsewhere it is the last one published; the next tick then
+     * publishes a fresh one, so a reader that keeps polling lags the live data by up to a tick.
+     */
+    public FactionSnapshot getSnapshot() {
+        if (Thread.currentThread() == clientThread && snapshotStale) {
+            buildSnapshot();
+        } else {
+            snapshotWanted = true;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Publish a new snapshot if anything changed since the last one and it was read off the
+     * client thread since. Client thread only; called once per tick so a burst of packets
+     * costs at most one snapshot, and none while nothing reads them.
+     */
+    public void publishSnapshot() {
+        clientThread = Thread.currentThread();
+        if (snapshotStale && snapshotWanted) {
+            snapshotWanted = false;
+            buildSnapshot();
+        }
+    }
+
+    /**
+     * Build the snapshot from the live data. Factions and per-dimension ownership that did not
+     * change are shared with the previous snapshot.
+     */
+    private void buildSnapshot() {
+        snapshotStale = false;
+        FactionSnapshot previous = snapshot;
+
+        Map<ClientFaction, ClientFaction> copies = new IdentityHashMap<>();
+        Map<String, ClientFaction> factionsById = new HashMap<>();
+        for (ClientFaction faction : factions.values()) {
+            ClientFaction copy = snapshotCopies.get(faction);
+            if (copy == null || copy.getVersion() != faction.getVersion()
+                    || copy.getClaimVersion() != faction.getClaimVersion()) {
+                copy = faction.copy();
+            }
+            copies.put(faction, copy);
+            factionsById.put(faction.getId(), copy);
+        }
+        snapshotCopies = copies;
+
+        ClientFaction[] copiesByIndex = new ClientFaction[factionIdsByIndex.size()];
+        for (int i = 0; i < copiesByIndex.length; i++) {
+            ClientFaction faction = factionsByIndex.get(i);
+            copiesByIndex[i] = faction != null ? copies.get(faction) : null;
+        }
+
+        Map<RegistryKey<World>, FactionSnapshot.DimensionClaims> dimensions = new HashMap<>();
+        for (Map.Entry<RegistryKey<World>, DimensionIndex> entry : dimensionIndices.entrySet()) {
+            DimensionIndex index = entry.getValue();
+            ClaimSet[] owned = new ClaimSet[copiesByIndex.length];
+            for (int i = 0; i < owned.length; i++) {
+                owned[i] = i < index.ownedChunksByIndex.size() ? index.ownedChunksByIndex.get(i).toClaimSet() : ClaimSet.EMPTY;
+            }
+            // ClaimSet compares by identity, and unchanged owners keep the same set
+            FactionSnapshot.DimensionClaims unchanged = previous.getDimensions().get(entry.getKey());
+            dimensions.put(entry.getKey(), unchanged != null && Arrays.equals(unchanged.ownedByIndex, owned)
+                    ? unchanged : new FactionSnapshot.DimensionClaims(owned));
+        }
+
+        snapshot = new FactionSnapshot(dataVersion, factionsById, copiesByIndex, dimensions, factionsById.get(WILDERNESS_ID));
+    }
+
+    /**
+     * Returns and resets the IDs of factions changed (added, updated or removed)
+     * since the last call.
+     */
+    public Set<String> drainDirtyFactions() {
+        Set<String> drained = new HashSet<>();
+        Iterator<String> it = dirtyFactionIds.iterator();
+        while (it.hasNext()) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
     // Data management
     public void clear() {
         factions.clear();
-        chunkToFaction.clear();
+        dimensionIndices.clear();
+        factionIndices.clear();
+        factionIdsByIndex.clear();
+        factionUuidsByIndex.clear();
+        factionsByIndex.clear();
         initializeDefaultFactions();
+        dirtyFactionIds.clear();
+        dataVersion++;
+        snapshotStale = true;
         
         JourneyFactions.debugLog("Cleared all faction data");
         notifyDataCleared();
@@ -154,7 +755,9 @@ public class ClientFactionManager {
 
     public void cleanup() {
         clear();
-        listeners.clear();
+        synchronized (listenerLock) {
+            listeners = new FactionUpdateListener[0];
+        }
     }
 
     // Statistics
@@ -174,55 +777,78 @@ public class ClientFactionManager {
     public interface FactionUpdateListener {
         void onFactionUpdated(ClientFaction faction);
         void onFactionRemoved(ClientFaction faction);
-        void onChunkChanged(ChunkPos chunk, String oldFactionId, String newFactionId);
+        void onChunkChanged(RegistryKey<World> dimension, ChunkPos chunk, String oldFactionId, String newFactionId);
         void onDataCleared();
     }
 
     public void addListener(FactionUpdateListener listener) {
-        listeners.add(listener);
+        synchronized (listenerLock) {
+            FactionUpdateListener[] current = listeners;
+            for (FactionUpdateListener existing : current) {
+                if (existing == listener) {
+                    return;
+                }
+            }
+            FactionUpdateListener[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = listener;
+            listeners = updated;
+        }
     }
 
     public void removeListener(FactionUpdateListener listener) {
-        listeners.remove(listener);
+        synchronized (listenerLock) {
+            FactionUpdateListener[] current = listeners;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == listener) {
+                    FactionUpdateListener[] updated = new FactionUpdateListener[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    listeners = updated;
+                    return;
+                }
+            }
+        }
     }
 
     private void notifyFactionUpdated(ClientFaction faction) {
-        listeners.forEach(listener -> {
+        for (FactionUpdateListener listener : listeners) {
             try {
                 listener.onFactionUpdated(faction);
             } catch (Exception e) {
                 JourneyFactions.LOGGER.error("Error notifying faction update listener", e);
             }
-        });
+        }
     }
 
     private void notifyFactionRemoved(ClientFaction faction) {
-        listeners.forEach(listener -> {
+        for (FactionUpdateListener listener : listeners) {
             try {
                 listener.onFactionRemoved(faction);
             } catch (Exception e) {
                 JourneyFactions.LOGGER.error("Error notifying faction removal listener", e);
             }
-        });
+        }
     }
 
-    private void notifyChunkChanged(ChunkPos chunk, String oldFactionId, String newFactionId) {
-        listeners.forEach(listener -> {
+    private void notifyChunkChanged(RegistryKey<World> dimension, ChunkPos chunk, String oldFactionId, String newFactionId) {
+        // Every ownership change passes here, including chunks of unknown factions
+        snapshotStale = true;
+        for (FactionUpdateListener listener : listeners) {
             try {
-                listener.onChunkChanged(chunk, oldFactionId, newFactionId);
+                listener.onChunkChanged(dimension, chunk, oldFactionId, newFactionId);
             } catch (Exception e) {
                 JourneyFactions.LOGGER.error("Error notifying chunk change listener", e);
             }
-        });
+        }
     }
 
     private void notifyDataCleared() {
-        listeners.forEach(listener -> {
+        for (FactionUpdateListener listener : listeners) {
             try {
                 listener.onDataCleared();
             } catch (Exception e) {
                 JourneyFactions.LOGGER.error("Error notifying data clear listener", e);
             }
-        });
+        }
     }
 }
\ No newline at end of file
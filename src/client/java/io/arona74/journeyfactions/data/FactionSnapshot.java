@@ -0,0 +1,140 @@
+package io.arona74.journeyfactions.data;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable picture of the client faction data at one point: every faction and who owns each
+ * chunk. {@link ClientFactionManager} publishes a new one from the client thread after changes;
+ * any thread can read it without locking, and keeps a consistent view for as long as it holds
+ * on to the same snapshot. The chunk ownership lookup of a dimension is only indexed when it
+ * is first used, so snapshots taken for their factions alone stay cheap.
+ */
+public final class FactionSnapshot {
+
+    static final FactionSnapshot EMPTY = new FactionSnapshot(-1, Collections.emptyMap(),
+            new ClientFaction[0], Collections.emptyMap(), null);
+
+    private final long version;
+    private final Map<String, ClientFaction> factions;
+    // Interned faction index (see ClientFactionManager) -> faction, null for removed factions
+    private final ClientFaction[] factionsByIndex;
+    private final Map<RegistryKey<World>, DimensionClaims> dimensions;
+    private final ClientFaction wilderness;
+
+    FactionSnapshot(long version, Map<String, ClientFaction> factions, ClientFaction[] factionsByIndex,
+                    Map<RegistryKey<World>, DimensionClaims> dimensions, ClientFaction wilderness) {
+        this.version = version;
+        this.factions = Collections.unmodifiableMap(factions);
+        this.factionsByIndex = factionsByIndex;
+        this.dimensions = Collections.unmodifiableMap(dimensions);
+        this.wilderness = wilderness;
+    }
+
+    /**
+     * {@link ClientFactionManager#getDataVersion()} when the snapshot was taken
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public ClientFaction getFaction(String factionId) {
+        return factions.get(factionId);
+    }
+
+    public Collection<ClientFaction> getAllFactions() {
+        return factions.values();
+    }
+
+    /**
+     * Owner of a chunk, or the wilderness faction
+     */
+    public ClientFaction getFactionAt(RegistryKey<World> dimension, int chunkX, int chunkZ) {
+        DimensionClaims claims = dimensions.get(dimension);
+        int factionIndex = claims != null ? claims.ownerAt(ChunkPos.toLong(chunkX, chunkZ)) : -1;
+        return factionIndex >= 0 ? factionsByIndex[factionIndex] : wilderness;
+    }
+
+    Map<RegistryKey<World>, DimensionClaims> getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Chunk ownership in one dimension: the chunks each faction index owns (disjoint), and
+     * for every tile the factions with chunks in it, so a lookup checks one or two tiles
+     */
+    static final class DimensionClaims {
+        final ClaimSet[] ownedByIndex;
+        // Built on the first lookup; racing readers may each build one, all equal
+        private volatile TileOwners tileOwners;
+
+        DimensionClaims(ClaimSet[] ownedByIndex) {
+            this.ownedByIndex = ownedByIndex;
+        }
+
+        /**
+         * Faction index owning a chunk, or -1
+         */
+        int ownerAt(long chunkKey) {
+            TileOwners owners = tileOwners;
+            if (owners == null) {
+                owners = new TileOwners(ownedByIndex);
+                tileOwners = owners;
+            }
+            return owners.ownerAt(ownedByIndex, chunkKey);
+        }
+    }
+
+    /**
+     * For every tile, the faction indices with chunks in it. Not modified once built.
+     */
+    private static final class TileOwners {
+        private final LongIntHashMap slotByTile = new LongIntHashMap();
+        // Slot -> (faction index, tile index in that faction's set) pairs
+        private int[][] ownersBySlot = new int[16][];
+
+        TileOwners(ClaimSet[] ownedByIndex) {
+            int slots = 0;
+            for (int factionIndex = 0; factionIndex < ownedByIndex.length; factionIndex++) {
+                ClaimSet owned = ownedByIndex[factionIndex];
+                for (int tile = 0; tile < owned.getTileCount(); tile++) {
+                    int slot = slotByTile.get(owned.tileKeyAt(tile), -1);
+                    if (slot < 0) {
+                        if (slots == ownersBySlot.length) {
+                            ownersBySlot = Arrays.copyOf(ownersBySlot, slots * 2);
+                        }
+                        slot = slots++;
+                        slotByTile.put(owned.tileKeyAt(tile), slot);
+                        ownersBySlot[slot] = new int[] { factionIndex, tile };
+                    } else {
+                        int[] owners = Arrays.copyOf(ownersBySlot[slot], ownersBySlot[slot].length + 2);
+                        owners[owners.length - 2] = factionIndex;
+                        owners[owners.length - 1] = tile;
+                        ownersBySlot[slot] = owners;
+                    }
+                }
+            }
+        }
+
+        int ownerAt(ClaimSet[] ownedByIndex, long chunkKey) {
+            int slot = slotByTile.get(ClaimSet.tileOf(chunkKey), -1);
+            if (slot < 0) {
+                return -1;
+            }
+            int bit = ClaimSet.bitOf(chunkKey);
+            int[] owners = ownersBySlot[slot];
+            for (int i = 0; i < owners.length; i += 2) {
+                if (ownedByIndex[owners[i]].containsInTile(owners[i + 1], bit)) {
+                    return owners[i];
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package io.arona74.journeyfactions.data;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to non-negative {@code int} values.
+ * Used to index packed chunk coordinates ({@link net.minecraft.util.math.ChunkPos#toLong}) without
+ * boxing or allocating a node per entry. Linear probing with backward-shift deletion keeps
+ * lookups allocation-free and avoids tombstones.
+ *
+ * Not thread-safe: each instance must be confined to one thread (the client thread for the
+ * chunk index, a geometry worker for region labeling).
+ */
+public class LongIntHashMap {
+    private static final int EMPTY = 0; // values are stored +1 so that 0 marks a free slot
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the value mapped to {@code key}, or {@code missing} if there is none
+     */
+    public int get(long key, int missing) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missing;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key, -1) != -1;
+    }
+
+    /**
+     * Map {@code key} to {@code value} (which must be {@code >= 0}).
+     * @return the previous value, or {@code -1} if the key was absent
+     */
+    public int put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int previous = values[slot] - 1;
+                values[slot] = value + 1;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return -1;
+    }
+
+    /**
+     * @return the removed value, or {@code -1} if the key was absent
+     */
+    public int remove(long key) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int previous = values[slot] - 1;
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        Arrays.fill(values, EMPTY);
+        size = 0;
+    }
+
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    /**
+     * Visit every entry. The map must not be modified during iteration.
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != EMPTY) {
+                consumer.accept(keys[i], values[i] - 1);
+            }
+        }
+    }
+
+    private void shiftBack(int slot) {
+        // Move later entries of the same probe chain into the freed slot
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (values[next] != EMPTY) {
+            int home = slot(keys[next]);
+            boolean movable = free <= next
+                    ? home <= free || home > next
+                    : home <= free && home > next;
+            if (movable) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[free] = EMPTY;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,96 @@
+package io.arona74.journeyfactions.journeymap;
+
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Immutable axis-aligned rectangle in chunk coordinates, bounds inclusive
+ */
+public final class ChunkBounds {
+
+    public final int minX;
+    public final int minZ;
+    public final int maxX;
+    public final int maxZ;
+
+    public ChunkBounds(int minX, int minZ, int maxX, int maxZ) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Bounding rectangle of packed chunk keys ({@link ChunkPos#toLong()}); the array must not be empty
+     */
+    public static ChunkBounds of(long[] chunkKeys) {
+        int minX = Integer.MAX_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+        for (long chunkKey : chunkKeys) {
+            int x = ChunkPos.getPackedX(chunkKey);
+            int z = ChunkPos.getPackedZ(chunkKey);
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (z < minZ) minZ = z;
+            if (z > maxZ) maxZ = z;
+        }
+        return new ChunkBounds(minX, minZ, maxX, maxZ);
+    }
+
+    /**
+     * Chunks covered by a block-coordinate rectangle
+     */
+    public static ChunkBounds ofBlocks(double minBlockX, double minBlockZ, double maxBlockX, double maxBlockZ) {
+        return new ChunkBounds(
+            (int) Math.floor(minBlockX) >> 4,
+            (int) Math.floor(minBlockZ) >> 4,
+            (int) Math.floor(maxBlockX) >> 4,
+            (int) Math.floor(maxBlockZ) >> 4);
+    }
+
+    public boolean intersects(ChunkBounds other) {
+        return minX <= other.maxX && other.minX <= maxX && minZ <= other.maxZ && other.minZ <= maxZ;
+    }
+
+    public boolean contains(ChunkBounds other) {
+        return minX <= other.minX && other.maxX <= maxX && minZ <= other.minZ && other.maxZ <= maxZ;
+    }
+
+    public ChunkBounds expand(int chunks) {
+        return new ChunkBounds(minX - chunks, minZ - chunks, maxX + chunks, maxZ + chunks);
+    }
+
+    public ChunkBounds union(ChunkBounds other) {
+        return new ChunkBounds(
+            Math.min(minX, other.minX), Math.min(minZ, other.minZ),
+            Math.max(maxX, other.maxX), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Grow to whole buckets of {@code 1 << bucketShift} chunks, so small moves inside a
+     * bucket give equal bounds
+     */
+    public ChunkBounds alignToBuckets(int bucketShift) {
+        int mask = (1 << bucketShift) - 1;
+        return new ChunkBounds(minX & ~mask, minZ & ~mask, maxX | mask, maxZ | mask);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ChunkBounds)) return false;
+        ChunkBounds that = (ChunkBounds) obj;
+        return minX == that.minX && minZ == that.minZ && maxX == that.maxX && maxZ == that.maxZ;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((minX * 31 + minZ) * 31 + maxX) * 31 + maxZ;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkBounds{" + minX + "," + minZ + " -> " + maxX + "," + maxZ + '}';
+    }
+}
@@ -0,0 +1,287 @@
+package io.arona74.journeyfactions.journeymap;
+
+import journeymap.client.api.model.MapPolygon;
+import journeymap.client.api.model.MapPolygonWithHoles;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Traces the outlines of a set of claimed chunks on a bitset raster of their bounding box.
+ * Every boundary edge is walked exactly once, so outer rings and holes come out of a single
+ * pass; only corners are emitted, so each ring has the fewest possible vertices.
+ * <p>
+ * Chunks are 4-connected: two claims touching only at a corner are separate polygons.
+ * Rings use block coordinates; with z growing southwards, outer rings run clockwise on the
+ * map and holes counter-clockwise. Pure function of its input, safe on any thread.
+ */
+public final class ClaimContourTracer {
+
+    // Walking directions: east (+x), south (+z), west (-x), north (-z)
+    private static final int EAST = 0;
+    private static final int SOUTH = 1;
+    private static final int WEST = 2;
+    private static final int NORTH = 3;
+
+    private final int minX;
+    private final int minZ;
+    private final int width;
+    private final int height;
+    private final BitSet cells;
+    // One bit per cell side (cell index * 4 + side), set once that boundary edge is traced
+    private final BitSet tracedEdges;
+
+    private ClaimContourTracer(long[] chunkKeys) {
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        int minZ = Integer.MAX_VALUE, maxZ = Integer.MIN_VALUE;
+        for (long key : chunkKeys) {
+            int x = ChunkPos.getPackedX(key);
+            int z = ChunkPos.getPackedZ(key);
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (z < minZ) minZ = z;
+            if (z > maxZ) maxZ = z;
+        }
+        this.minX = minX;
+        this.minZ = minZ;
+        this.width = maxX - minX + 1;
+        this.height = maxZ - minZ + 1;
+        if ((long) width * height * 4 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Claim area too large to rasterize: " + width + "x" + height + " chunks");
+        }
+
+        this.cells = new BitSet(width * height);
+        for (long key : chunkKeys) {
+            cells.set(index(ChunkPos.getPackedX(key) - minX, ChunkPos.getPackedZ(key) - minZ));
+        }
+        this.tracedEdges = new BitSet(width * height * 4);
+    }
+
+    /**
+     * Trace the polygons of a set of chunks, largest first
+     * @param chunkKeys packed chunk keys ({@link ChunkPos#toLong()}), duplicates allowed
+     * @param y block height of the returned points
+     */
+    public static List<MapPolygonWithHoles> trace(long[] chunkKeys, int y) {
+        if (chunkKeys.length == 0) {
+            return Collections.emptyList();
+        }
+        return new ClaimContourTracer(chunkKeys).traceAll(y);
+    }
+
+    private List<MapPolygonWithHoles> traceAll(int y) {
+        List<Ring> outers = new ArrayList<>();
+        List<Ring> holes = new ArrayList<>();
+
+        // Every boundary edge belongs to exactly one ring; start a ring at each untraced one
+        for (int cz = 0; cz < height; cz++) {
+            for (int cx = 0; cx < width; cx++) {
+                if (!cells.get(index(cx, cz))) {
+                    continue;
+                }
+                if (!filled(cx, cz - 1) && !isTraced(cx, cz, NORTH)) {
+                    addRing(traceRing(cx, cz, EAST), outers, holes);
+                }
+                if (!filled(cx + 1, cz) && !isTraced(cx, cz, EAST)) {
+                    addRing(traceRing(cx + 1, cz, SOUTH), outers, holes);
+                }
+                if (!filled(cx, cz + 1) && !isTraced(cx, cz, SOUTH)) {
+                    addRing(traceRing(cx + 1, cz + 1, WEST), outers, holes);
+                }
+                if (!filled(cx - 1, cz) && !isTraced(cx, cz, WEST)) {
+                    addRing(traceRing(cx, cz + 1, NORTH), outers, holes);
+                }
+            }
+        }
+
+        // Each hole belongs to the smallest outer ring around it
+        List<List<Ring>> holesByOuter = new ArrayList<>(outers.size());
+        long[] chunkCounts = new long[outers.size()];
+        for (int i = 0; i < outers.size(); i++) {
+            holesByOuter.add(new ArrayList<>());
+            chunkCounts[i] = outers.get(i).area;
+        }
+        for (Ring hole : holes) {
+            int owner = -1;
+            for (int i = 0; i < outers.size(); i++) {
+                Ring outer = outers.get(i);
+                if ((owner < 0 || outer.area < outers.get(owner).area) && outer.contains(hole.probeX2, hole.probeZ2)) {
+                    owner = i;
+                }
+            }
+            if (owner >= 0) {
+                holesByOuter.get(owner).add(hole);
+                chunkCounts[owner] += hole.area; // Hole areas are negative
+            }
+        }
+
+        Integer[] order = new Integer[outers.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(chunkCounts[b], chunkCounts[a]));
+
+        List<MapPolygonWithHoles> polygons = new ArrayList<>(outers.size());
+        for (int i : order) {
+            List<MapPolygon> holePolygons = new ArrayList<>(holesByOuter.get(i).size());
+            for (Ring hole : holesByOuter.get(i)) {
+                holePolygons.add(hole.toPolygon(y));
+            }
+            polygons.add(new MapPolygonWithHoles(outers.get(i).toPolygon(y), holePolygons));
+        }
+        return polygons;
+    }
+
+    private static void addRing(Ring ring, List<Ring> outers, List<Ring> holes) {
+        (ring.area > 0 ? outers : holes).add(ring);
+    }
+
+    /**
+     * Walk one boundary ring with the claimed cells on the right-hand side, starting at
+     * grid vertex (vx, vz) in direction {@code startDir}. Records a vertex at every turn.
+     */
+    private Ring traceRing(int vx, int vz, int startDir) {
+        Ring ring = new Ring();
+        int x = vx;
+        int z = vz;
+        int dir = startDir;
+        // Probe point (doubled coordinates): centre of the unclaimed cell left of the first edge
+        ring.probeX2 = 2 * (minX + leftCellX(x, dir)) + 1;
+        ring.probeZ2 = 2 * (minZ + leftCellZ(z, dir)) + 1;
+
+        do {
+            markTraced(x, z, dir);
+            x += dx(dir);
+            z += dz(dir);
+
+            // Cells ahead of us, right and left of the edge we would walk next
+            boolean aheadRight = filled(rightCellX(x, dir), rightCellZ(z, dir));
+            boolean aheadLeft = filled(leftCellX(x, dir), leftCellZ(z, dir));
+            int next;
+            if (!aheadRight) {
+                next = (dir + 1) & 3;  // Convex corner (or diagonal touch - keep them apart)
+            } else if (aheadLeft) {
+                next = (dir + 3) & 3;  // Concave corner
+            } else {
+                next = dir;            // Straight on - collinear, no vertex
+            }
+            if (next != dir) {
+                ring.add(minX + x, minZ + z);
+            }
+            dir = next;
+        } while (x != vx || z != vz || dir != startDir);
+
+        ring.close();
+        return ring;
+    }
+
+    private boolean filled(int cx, int cz) {
+        return cx >= 0 && cz >= 0 && cx < width && cz < height && cells.get(index(cx, cz));
+    }
+
+    private int index(int cx, int cz) {
+        return cz * width + cx;
+    }
+
+    private boolean isTraced(int cx, int cz, int side) {
+        return tracedEdges.get(index(cx, cz) * 4 + side);
+    }
+
+    /**
+     * Mark the edge leaving (x, z) in direction {@code dir}, stored as a side of the cell on its right
+     */
+    private void markTraced(int x, int z, int dir) {
+        // Walking east we follow a cell's north side, south its east side, and so on
+        int side = (dir + 3) & 3;
+        tracedEdges.set(index(rightCellX(x, dir), rightCellZ(z, dir)) * 4 + side);
+    }
+
+    private static int dx(int dir) {
+        return dir == EAST ? 1 : dir == WEST ? -1 : 0;
+    }
+
+    private static int dz(int dir) {
+        return dir == SOUTH ? 1 : dir == NORTH ? -1 : 0;
+    }
+
+    // Cell on the right of the edge leaving vertex (x, z) in direction dir
+    private static int rightCellX(int x, int dir) {
+        return dir == SOUTH || dir == WEST ? x - 1 : x;
+    }
+
+    private static int rightCellZ(int z, int dir) {
+        return dir == WEST || dir == NORTH ? z - 1 : z;
+    }
+
+    // Cell on the left of the edge leaving vertex (x, z) in direction dir
+    private static int leftCellX(int x, int dir) {
+        return dir == WEST || dir == NORTH ? x - 1 : x;
+    }
+
+    private static int leftCellZ(int z, int dir) {
+        return dir == EAST || dir == NORTH ? z - 1 : z;
+    }
+
+    /**
+     * Corner vertices of one ring, in chunk coordinates
+     */
+    private static final class Ring {
+        int[] xs = new int[8];
+        int[] zs = new int[8];
+        int size;
+        long area;  // Signed, in chunks: positive for outer rings, negative for holes
+        int probeX2;
+        int probeZ2;
+
+        void add(int x, int z) {
+            if (size == xs.length) {
+                xs = Arrays.copyOf(xs, size << 1);
+                zs = Arrays.copyOf(zs, size << 1);
+            }
+            if (size > 0) {
+                area += (long) xs[size - 1] * z - (long) x * zs[size - 1];
+            }
+            xs[size] = x;
+            zs[size] = z;
+            size++;
+        }
+
+        void close() {
+            // Shoelace closing term; the sum is twice the area
+            area += (long) xs[size - 1] * zs[0] - (long) xs[0] * zs[size - 1];
+            area /= 2;
+        }
+
+        /**
+         * Even-odd test for a point given in doubled coordinates; points are always cell
+         * centres, so they never lie on an edge
+         */
+        boolean contains(int px2, int pz2) {
+            boolean inside = false;
+            for (int i = 0, j = size - 1; i < size; j = i++) {
+                // Only vertical edges can cross a horizontal ray
+                if (xs[i] == xs[j] && 2 * xs[i] > px2) {
+                    int z1 = 2 * Math.min(zs[i], zs[j]);
+                    int z2 = 2 * Math.max(zs[i], zs[j]);
+                    if (pz2 > z1 && pz2 < z2) {
+                        inside = !inside;
+                    }
+                }
+            }
+            return inside;
+        }
+
+        MapPolygon toPolygon(int y) {
+            List<BlockPos> points = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                points.add(new BlockPos(xs[i] * 16, y, zs[i] * 16));
+            }
+            return new MapPolygon(points);
+        }
+    }
+}
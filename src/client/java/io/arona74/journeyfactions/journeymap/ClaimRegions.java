@@ -0,0 +1,118 @@
+package io.arona74.journeyfactions.journeymap;
+
+import io.arona74.journeyfactions.data.LongIntHashMap;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The 4-connected regions of a faction's claims, as packed chunk keys, largest first.
+ * Labeled with union-find over the keys: no recursion and no {@link ChunkPos} per chunk, so
+ * long snake-shaped territories cost the same as compact ones. Built once per faction
+ * version and shared by polygon tracing and label anchoring.
+ */
+public final class ClaimRegions {
+
+    private final long factionVersion;
+    private final List<long[]> regions;
+
+    private ClaimRegions(long factionVersion, List<long[]> regions) {
+        this.factionVersion = factionVersion;
+        this.regions = regions;
+    }
+
+    public long getFactionVersion() {
+        return factionVersion;
+    }
+
+    /**
+     * Chunk keys of each connected region, largest region first
+     */
+    public List<long[]> getRegions() {
+        return regions;
+    }
+
+    /**
+     * Split claims into connected regions
+     * @param chunkKeys packed chunk keys ({@link ChunkPos#toLong()}), no duplicates
+     */
+    public static ClaimRegions label(long[] chunkKeys, long factionVersion) {
+        int count = chunkKeys.length;
+        if (count == 0) {
+            return new ClaimRegions(factionVersion, Collections.emptyList());
+        }
+
+        LongIntHashMap indexByKey = new LongIntHashMap(count);
+        for (int i = 0; i < count; i++) {
+            indexByKey.put(chunkKeys[i], i);
+        }
+
+        // Union each chunk with its east and south neighbours; that covers every 4-adjacency
+        int[] parent = new int[count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            int x = ChunkPos.getPackedX(chunkKeys[i]);
+            int z = ChunkPos.getPackedZ(chunkKeys[i]);
+            int east = indexByKey.get(ChunkPos.toLong(x + 1, z), -1);
+            if (east >= 0) {
+                union(parent, i, east);
+            }
+            int south = indexByKey.get(ChunkPos.toLong(x, z + 1), -1);
+            if (south >= 0) {
+                union(parent, i, south);
+            }
+        }
+
+        // Bucket chunks by root: count, then fill
+        int[] sizeByRoot = new int[count];
+        int regionCount = 0;
+        for (int i = 0; i < count; i++) {
+            int root = find(parent, i);
+            parent[i] = root;
+            if (sizeByRoot[root]++ == 0) {
+                regionCount++;
+            }
+        }
+        List<long[]> regions = new ArrayList<>(regionCount);
+        int[] regionByRoot = new int[count];
+        int[] filled = new int[regionCount];
+        for (int i = 0; i < count; i++) {
+            if (parent[i] == i) {
+                regionByRoot[i] = regions.size();
+                regions.add(new long[sizeByRoot[i]]);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int region = regionByRoot[parent[i]];
+            regions.get(region)[filled[region]++] = chunkKeys[i];
+        }
+
+        regions.sort((a, b) -> Integer.compare(b.length, a.length)); // largest first
+        return new ClaimRegions(factionVersion, regions);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // Path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            // Smaller index wins, so roots stay in first-seen order
+            if (rootA < rootB) {
+                parent[rootB] = rootA;
+            } else {
+                parent[rootA] = rootB;
+            }
+        }
+    }
+}
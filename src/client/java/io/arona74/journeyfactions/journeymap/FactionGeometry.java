@@ -0,0 +1,137 @@
+package io.arona74.journeyfactions.journeymap;
+
+import io.arona74.journeyfactions.config.JourneyFactionsConfig;
+import journeymap.client.api.model.MapPolygonWithHoles;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Territory geometry for one faction: polygons with holes and label anchors computed from
+ * the faction's labeled claim regions. Pure functions of their input, so they can run on
+ * any thread.
+ */
+public final class FactionGeometry {
+
+    static final int LABEL_Y = 70;
+
+    /**
+     * One territory polygon, the chunks it spans and, when labels are drawn separately,
+     * where to put its label. {@code index} is the claim region it belongs to and {@code part}
+     * its number among that region's polygons, both stable while the region is unchanged.
+     */
+    public static final class Region {
+        public final MapPolygonWithHoles polygon;
+        public final ChunkBounds bounds;
+        public final BlockPos labelAnchor;
+        public final int index;
+        public final int part;
+
+        Region(MapPolygonWithHoles polygon, ChunkBounds bounds, BlockPos labelAnchor, int index, int part) {
+            this.polygon = polygon;
+            this.bounds = bounds;
+            this.labelAnchor = labelAnchor;
+            this.index = index;
+            this.part = part;
+        }
+    }
+
+    private FactionGeometry() {
+    }
+
+    /**
+     * Compute all territory polygons of a faction's claims, largest region first. Label
+     * anchors are only computed when {@code anchorMode} is not null.
+     * @throws InterruptedException if the calling thread was interrupted (stale job)
+     */
+    public static List<Region> compute(ClaimRegions claimRegions, JourneyFactionsConfig.LabelAnchorMode anchorMode) throws InterruptedException {
+        return compute(claimRegions, anchorMode, null, null);
+    }
+
+    /**
+     * Same, with label anchors already computed for every region (see {@link LabelAnchors});
+     * null computes them from {@code anchorMode}. Only regions intersecting {@code area} are
+     * traced, or all of them when it is null.
+     * @throws InterruptedException if the calling thread was interrupted (stale job)
+     */
+    public static List<Region> compute(ClaimRegions claimRegions, JourneyFactionsConfig.LabelAnchorMode anchorMode,
+                                       BlockPos[] anchors, ChunkBounds area) throws InterruptedException {
+        List<Region> result = new ArrayList<>();
+
+        List<long[]> regions = claimRegions.getRegions();
+        for (int i = 0; i < regions.size(); i++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long[] region = regions.get(i);
+            ChunkBounds bounds = ChunkBounds.of(region);
+            if (area != null && !area.intersects(bounds)) {
+                continue;
+            }
+            BlockPos anchor;
+            if (anchors != null) {
+                anchor = anchors[i];
+            } else {
+                anchor = anchorMode != null ? computeLabelAnchor(region, anchorMode) : null;
+            }
+            List<MapPolygonWithHoles> polygons = ClaimContourTracer.trace(region, LABEL_Y);
+            for (int part = 0; part < polygons.size(); part++) {
+                result.add(new Region(polygons.get(part), bounds, anchor, i, part));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Label anchor of one connected region
+     */
+    public static BlockPos computeLabelAnchor(long[] region, JourneyFactionsConfig.LabelAnchorMode anchorMode) {
+        switch (anchorMode) {
+            case HULL_CENTROID:
+                return computeHullCentroid(region);
+            case FIRST_CHUNK_CENTER:
+                return chunkCenter(region[0]);
+            case FARTHEST_INTERIOR_CHUNK:
+            default:
+                return LabelAnchors.farthestInterior(region);
+        }
+    }
+
+    static BlockPos chunkCenter(long chunkKey) {
+        return new BlockPos(ChunkPos.getPackedX(chunkKey) * 16 + 8, LABEL_Y, ChunkPos.getPackedZ(chunkKey) * 16 + 8);
+    }
+
+    private static BlockPos computeHullCentroid(long[] region) {
+        if (region.length == 0) {
+            return new BlockPos(0, LABEL_Y, 0);
+        }
+
+        int minChunkX = Integer.MAX_VALUE;
+        int maxChunkX = Integer.MIN_VALUE;
+        int minChunkZ = Integer.MAX_VALUE;
+        int maxChunkZ = Integer.MIN_VALUE;
+
+        for (long chunkKey : region) {
+            int x = ChunkPos.getPackedX(chunkKey);
+            int z = ChunkPos.getPackedZ(chunkKey);
+            if (x < minChunkX) minChunkX = x;
+            if (x > maxChunkX) maxChunkX = x;
+            if (z < minChunkZ) minChunkZ = z;
+            if (z > maxChunkZ) maxChunkZ = z;
+        }
+
+        // Convert chunks to block coords for edges
+        int minBlockX = minChunkX * 16;
+        int maxBlockX = (maxChunkX * 16) + 15; // last block in chunk
+        int minBlockZ = minChunkZ * 16;
+        int maxBlockZ = (maxChunkZ * 16) + 15;
+
+        // Perfect geometric center
+        int centerX = (minBlockX + maxBlockX) / 2;
+        int centerZ = (minBlockZ + maxBlockZ) / 2;
+
+        return new BlockPos(centerX, LABEL_Y, centerZ);
+    }
+}
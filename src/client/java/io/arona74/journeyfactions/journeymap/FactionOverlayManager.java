@@ -4,14 +4,15 @@ import io.arona74.journeyfactions.JourneyFactions;
 import io.arona74.journeyfactions.config.JourneyFactionsConfig;
 import io.arona74.journeyfactions.data.ClientFaction;
 import io.arona74.journeyfactions.data.ClientFactionManager;
+import io.arona74.journeyfactions.data.FactionSnapshot;
 import journeymap.client.api.IClientAPI;
 import journeymap.client.api.display.Context;
 import journeymap.client.api.display.PolygonOverlay;
 import journeymap.client.api.model.MapPolygon;
-import journeymap.client.api.model.MapPolygonWithHoles;
 import journeymap.client.api.model.ShapeProperties;
 import journeymap.client.api.model.TextProperties;
-import journeymap.client.api.util.PolygonHelper;
+import journeymap.client.api.util.UIState;
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.registry.RegistryKey;
@@ -25,7 +26,42 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
     
     private final IClientAPI jmAPI;
     private final Map<String, PolygonOverlay> factionOverlays;
-    private static final int LABEL_Y = 70;
+    private static final int LABEL_Y = FactionGeometry.LABEL_Y;
+
+    // Reconciliation state: which overlays belong to which faction, which faction
+    // version they were built from, and which ones JourneyMap is currently showing
+    private final Map<String, Set<String>> overlayIdsByFaction = new HashMap<>();
+    private final Map<String, Long> renderedVersions = new HashMap<>();
+    private final Set<String> shownOverlayIds = new HashSet<>();
+    private long lastReconciledDataVersion = -1;
+
+    // Dimension the player is in; only its claims get overlays
+    private RegistryKey<World> currentDimension;
+
+    // Spatial culling: only factions with claims near the map view get geometry, only their
+    // regions near the view get overlays, and of those only the ones intersecting the view
+    // are shown
+    private final FactionSpatialIndex spatialIndex = new FactionSpatialIndex();
+    private final MapViewport viewport = new MapViewport();
+    private final Map<String, ChunkBounds> overlayBounds = new HashMap<>();
+    // Area each faction's overlays were built for; regions outside it have none
+    private final Map<String, ChunkBounds> renderedAreas = new HashMap<>();
+    // Bucket-aligned map view plus margin that overlays are currently materialized for, and
+    // that view with one extra bucket of slack (the area geometry is requested for), updated
+    // each tick by updateView()
+    private ChunkBounds materializedView;
+    private ChunkBounds materializedArea;
+
+    // Factions updated since the last tick. Several updates of the same faction before
+    // then collapse into one geometry job.
+    private final Set<String> pendingRefreshes = new LinkedHashSet<>();
+    // Polygons and label anchors are computed off the main thread
+    private final GeometryWorker geometryWorker = new GeometryWorker();
+    // Main thread time one tick may spend on queued factions and overlays; the rest waits
+    // for the next tick
+    static final long REFRESH_BUDGET_NANOS = 4_000_000L;
+    private final OverlayBuildQueue buildQueue = new OverlayBuildQueue(geometryWorker::poll, new OverlayApplier(), System::nanoTime);
+    private long slowestRefreshPassNanos = 0;
 
     private PolygonOverlay createLabelOnlyOverlay(
             String overlayId,
@@ -70,63 +106,6 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
         return labelOverlay;
     }
 
-    private BlockPos computeInteriorLabelAnchor(Set<ChunkPos> region) {
-        if (region.isEmpty()) return null;
-
-        // Edge detection: any missing 4-neighbor => edge
-        Deque<ChunkPos> q = new ArrayDeque<>();
-        Map<ChunkPos, Integer> dist = new HashMap<>(region.size() * 2);
-        for (ChunkPos c : region) {
-            if (isEdgeChunk(c, region)) {
-                dist.put(c, 0);
-                q.add(c);
-            }
-        }
-        // Single chunk or fully solid region with no detected edge: just use it
-        if (dist.isEmpty()) {
-            ChunkPos any = region.iterator().next();
-            return new BlockPos(any.x * 16 + 8, LABEL_Y, any.z * 16 + 8);
-        }
-
-        // BFS into the interior
-        while (!q.isEmpty()) {
-            ChunkPos cur = q.removeFirst();
-            int d = dist.get(cur);
-            for (ChunkPos n : neighbors(cur)) {
-                if (region.contains(n) && !dist.containsKey(n)) {
-                    dist.put(n, d + 1);
-                    q.addLast(n);
-                }
-            }
-        }
-
-        // Choose the chunk with max distance from the perimeter (keeps out of holes)
-        ChunkPos best = null;
-        int bestD = -1;
-        for (Map.Entry<ChunkPos, Integer> e : dist.entrySet()) {
-            if (e.getValue() > bestD) { bestD = e.getValue(); best = e.getKey(); }
-        }
-        if (best == null) best = region.iterator().next();
-
-        return new BlockPos(best.x * 16 + 8, LABEL_Y, best.z * 16 + 8);
-    }
-
-    private boolean isEdgeChunk(ChunkPos c, Set<ChunkPos> set) {
-        return !(set.contains(new ChunkPos(c.x + 1, c.z)) &&
-                set.contains(new ChunkPos(c.x - 1, c.z)) &&
-                set.contains(new ChunkPos(c.x, c.z + 1)) &&
-                set.contains(new ChunkPos(c.x, c.z - 1)));
-    }
-
-    private ChunkPos[] neighbors(ChunkPos c) {
-        return new ChunkPos[] {
-            new ChunkPos(c.x + 1, c.z),
-            new ChunkPos(c.x - 1, c.z),
-            new ChunkPos(c.x, c.z + 1),
-            new ChunkPos(c.x, c.z - 1)
-        };
-    }
-    
     public FactionOverlayManager(IClientAPI jmAPI) {
         this.jmAPI = jmAPI;
         this.factionOverlays = new HashMap<>();
@@ -137,7 +116,31 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
     
     public void onMappingStarted() {
         JourneyFactions.debugLog("JourneyMap mapping started - loading faction overlays");
+        if (!syncDimension()) {
+            loadAllFactionOverlays();
+        }
+    }
+
+    /**
+     * Follow the player into another dimension: drop the previous dimension's overlays and
+     * build the new one's from scratch.
+     * @return true if the dimension changed (and overlays were reloaded)
+     */
+    private boolean syncDimension() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        RegistryKey<World> dimension = client.world != null ? client.world.getRegistryKey() : null;
+        if (dimension == null || dimension.equals(currentDimension)) {
+            return false;
+        }
+        JourneyFactions.debugLog("Dimension changed from {} to {} - reloading faction overlays", currentDimension, dimension);
+        clearAllOverlays();
+        geometryWorker.forgetAll(); // Cached geometry of the previous dimension is not kept
+        currentDimension = dimension;
+        viewport.clear();
+        materializedView = null;
+        materializedArea = null;
         loadAllFactionOverlays();
+        return true;
     }
     
     public void onMappingStopped() {
@@ -145,9 +148,81 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
         clearAllOverlays();
     }
     
-    public void updateDisplay() {
-        // Refresh overlays periodically
-        loadAllFactionOverlays();
+    public void updateDisplay(UIState uiState) {
+        // The view is applied on the next tick; only rebuild what changed since the last pass
+        viewport.update(uiState, currentDimension);
+        reconcileOverlays(false);
+    }
+
+    // Until the first tick in a world sets a view, nothing is in view; that tick queues
+    // every faction near it
+    private boolean isFactionInView(String factionId) {
+        return materializedView != null && spatialIndex.touches(factionId, materializedView);
+    }
+
+    private boolean isOverlayInView(String overlayId) {
+        ChunkBounds bounds = overlayBounds.get(overlayId);
+        return materializedView != null && (bounds == null || materializedView.intersects(bounds));
+    }
+
+    /**
+     * Whether a faction's overlays are built from its current version for every region in view
+     */
+    private boolean isRendered(String factionId, long version) {
+        Long rendered = renderedVersions.get(factionId);
+        ChunkBounds area = renderedAreas.get(factionId);
+        return rendered != null && rendered == version && area != null && area.contains(materializedView);
+    }
+
+    /**
+     * Follow the map view: evict factions that are well outside it, queue the ones that came
+     * into it or whose overlays do not reach as far as it, and show or hide overlays of the
+     * remaining factions. Nothing happens until the view crosses a bucket boundary.
+     */
+    private void updateView() {
+        ChunkBounds view = viewport.getView(JourneyFactions.CONFIG.viewMarginChunks);
+        if (view == null || view.equals(materializedView)) {
+            return;
+        }
+        materializedView = view;
+        // One extra bucket of slack, so moving back and forth over a boundary does not rebuild
+        materializedArea = view.expand(1 << FactionSpatialIndex.BUCKET_SHIFT);
+
+        int evicted = 0;
+        Set<String> materialized = new HashSet<>(overlayIdsByFaction.keySet());
+        materialized.addAll(renderedVersions.keySet());
+        for (String factionId : materialized) {
+            if (!spatialIndex.touches(factionId, materializedArea)) {
+                geometryWorker.evict(currentDimension, factionId);
+                completelyRemoveFactionOverlays(factionId);
+                evicted++;
+            }
+        }
+
+        int queued = 0;
+        for (String factionId : spatialIndex.factionsIn(view)) {
+            ChunkBounds area = renderedAreas.get(factionId);
+            if ((area == null || !area.contains(view)) && pendingRefreshes.add(factionId)) {
+                queued++;
+            }
+        }
+
+        if (FactionDisplayManager.isFactionDisplayEnabled()) {
+            for (Map.Entry<String, PolygonOverlay> entry : factionOverlays.entrySet()) {
+                try {
+                    if (isOverlayInView(entry.getKey())) {
+                        showOverlay(entry.getKey(), entry.getValue());
+                    } else if (shownOverlayIds.remove(entry.getKey())) {
+                        jmAPI.remove(entry.getValue());
+                    }
+                } catch (Exception e) {
+                    JourneyFactions.LOGGER.error("Failed to update overlay visibility: " + entry.getKey(), e);
+                }
+            }
+        }
+
+        JourneyFactions.debugLog("Map view now {}: {} factions evicted, {} queued, {} overlays shown of {}",
+            view, evicted, queued, shownOverlayIds.size(), factionOverlays.size());
     }
     
     /**
@@ -156,16 +231,20 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
     public void updateAllOverlayVisibility(boolean visible) {
         try {
             if (visible) {
-                // Show all overlays by adding them to JourneyMap
-                for (PolygonOverlay overlay : factionOverlays.values()) {
-                    jmAPI.show(overlay);
+                // Show all overlays in view that JourneyMap is not already displaying
+                int shown = 0;
+                for (Map.Entry<String, PolygonOverlay> entry : factionOverlays.entrySet()) {
+                    if (isOverlayInView(entry.getKey()) && showOverlay(entry.getKey(), entry.getValue())) {
+                        shown++;
+                    }
                 }
-                JourneyFactions.debugLog("Showed {} faction overlays", factionOverlays.size());
+                JourneyFactions.debugLog("Showed {} faction overlays", shown);
             } else {
                 // Hide all overlays by removing them from JourneyMap
                 for (PolygonOverlay overlay : factionOverlays.values()) {
                     jmAPI.remove(overlay);
                 }
+                shownOverlayIds.clear();
                 JourneyFactions.debugLog("Hid {} faction overlays", factionOverlays.size());
             }
         } catch (Exception e) {
@@ -181,87 +260,161 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
     }
     
     private void loadAllFactionOverlays() {
+        JourneyFactions.debugLog("Loading faction overlays...");
+        reconcileOverlays(true);
+    }
+
+    /**
+     * Bring overlays in line with the faction data, as of the manager's current snapshot. A
+     * full pass looks at every known faction; otherwise only factions flagged dirty by the
+     * manager are examined, and nothing at all happens if the manager's data version has not
+     * moved. Factions whose version matches the one their overlays were built from are left
+     * untouched.
+     */
+    private void reconcileOverlays(boolean fullPass) {
         try {
-            JourneyFactions.debugLog("Loading faction overlays...");
-            Collection<ClientFaction> factions = JourneyFactions.getFactionManager().getAllFactions();
-            JourneyFactions.debugLog("Found {} factions to process", factions.size());
-            
-            for (ClientFaction faction : factions) {
-                JourneyFactions.debugLog("Processing faction: {} (type: {}, chunks: {})",faction.getName(), faction.getType(), faction.getClaimedChunks().size());
-                
-                // Only display factions that have claimed territory
-                if (!faction.getClaimedChunks().isEmpty()) {
-                    createOrUpdateFactionOverlay(faction, faction.getClaimedChunks());
-                } else {
-                    JourneyFactions.debugLog("Skipping faction {} - no claimed chunks", faction.getName());
+            ClientFactionManager manager = JourneyFactions.getFactionManager();
+            long dataVersion = manager.getDataVersion();
+            if (!fullPass && dataVersion == lastReconciledDataVersion) {
+                return;
+            }
+
+            FactionSnapshot snapshot = manager.getSnapshot();
+            Set<String> candidates = manager.drainDirtyFactions();
+            if (fullPass) {
+                for (ClientFaction faction : snapshot.getAllFactions()) {
+                    candidates.add(faction.getId());
                 }
+                candidates.addAll(renderedVersions.keySet());
             }
-            
+            JourneyFactions.debugLog("Reconciling {} factions (full pass: {})", candidates.size(), fullPass);
+
+            for (String factionId : candidates) {
+                reconcileFaction(snapshot, factionId);
+            }
+            lastReconciledDataVersion = dataVersion;
+
         } catch (Exception e) {
             // JourneyFactions.LOGGER.error("Error loading faction overlays", e);
         }
     }
-    
-    private BlockPos computeHullCentroid(Set<ChunkPos> region) {
-        if (region.isEmpty()) {
-            return new BlockPos(0, LABEL_Y, 0);
-        }
-
-        int minChunkX = Integer.MAX_VALUE;
-        int maxChunkX = Integer.MIN_VALUE;
-        int minChunkZ = Integer.MAX_VALUE;
-        int maxChunkZ = Integer.MIN_VALUE;
 
-        for (ChunkPos c : region) {
-            if (c.x < minChunkX) minChunkX = c.x;
-            if (c.x > maxChunkX) maxChunkX = c.x;
-            if (c.z < minChunkZ) minChunkZ = c.z;
-            if (c.z > maxChunkZ) maxChunkZ = c.z;
+    private void reconcileFaction(FactionSnapshot snapshot, String factionId) {
+        ClientFaction faction = snapshot.getFaction(factionId);
+        // Only display factions that have claimed territory in this dimension
+        if (faction == null || currentDimension == null || faction.isEmpty(currentDimension)) {
+            spatialIndex.remove(factionId);
+            geometryWorker.evict(currentDimension, factionId);
+            if (renderedVersions.containsKey(factionId) || overlayIdsByFaction.containsKey(factionId)) {
+                completelyRemoveFactionOverlays(factionId);
+            }
+            return;
         }
 
-        // Convert chunks to block coords for edges
-        int minBlockX = minChunkX * 16;
-        int maxBlockX = (maxChunkX * 16) + 15; // last block in chunk
-        int minBlockZ = minChunkZ * 16;
-        int maxBlockZ = (maxChunkZ * 16) + 15;
+        if (!spatialIndex.isCurrent(factionId, faction.getVersion())) {
+            spatialIndex.update(factionId, faction.getVersion(), faction.getClaims(currentDimension));
+        }
+        // ... and that are near the map view; the rest is built when the view gets there
+        if (!isFactionInView(factionId)) {
+            geometryWorker.evict(currentDimension, factionId);
+            if (renderedVersions.containsKey(factionId) || overlayIdsByFaction.containsKey(factionId)) {
+                completelyRemoveFactionOverlays(factionId);
+            }
+            return;
+        }
 
-        // Perfect geometric center
-        int centerX = (minBlockX + maxBlockX) / 2;
-        int centerZ = (minBlockZ + maxBlockZ) / 2;
+        if (isRendered(factionId, faction.getVersion())) {
+            geometryWorker.cancel(factionId); // Drop any older job still running
+            return; // Overlays are already up to date
+        }
+        if (geometryWorker.isPending(factionId, currentDimension, faction.getVersion(), materializedView)
+                || buildQueue.isApplying(factionId, faction.getVersion(), materializedView)) {
+            return; // Geometry for this version and view is on its way
+        }
 
-        return new BlockPos(centerX, LABEL_Y, centerZ);
+        JourneyFactions.debugLog("Processing faction: {} (type: {}, chunks: {})", faction.getName(), faction.getType(), faction.getClaimedChunkCount(currentDimension));
+        // Current overlays stay up until the new geometry replaces them
+        geometryWorker.submit(factionId, currentDimension, faction.getVersion(), materializedArea, snapshot,
+            JourneyFactions.CONFIG.separateLabelOverlay ? JourneyFactions.CONFIG.labelAnchorMode : null);
     }
 
+    /**
+     * Show an overlay unless JourneyMap is already displaying it.
+     * @return true if {@code jmAPI.show} was actually called
+     */
+    private boolean showOverlay(String overlayId, PolygonOverlay overlay) throws Exception {
+        if (!shownOverlayIds.add(overlayId)) {
+            return false;
+        }
+        jmAPI.show(overlay);
+        return true;
+    }
 
+    private void trackOverlay(String factionId, String overlayId, PolygonOverlay overlay, ChunkBounds bounds) {
+        factionOverlays.put(overlayId, overlay);
+        overlayBounds.put(overlayId, bounds);
+        overlayIdsByFaction.computeIfAbsent(factionId, id -> new LinkedHashSet<>()).add(overlayId);
+    }
 
-    private void createOrUpdateFactionOverlay(ClientFaction faction, Set<ChunkPos> claimedChunks) {
-        if (faction == null || claimedChunks.isEmpty()) {
-            return;
+    private void untrackOverlay(String factionId, String overlayId) {
+        PolygonOverlay overlay = factionOverlays.remove(overlayId);
+        overlayBounds.remove(overlayId);
+        Set<String> overlayIds = overlayIdsByFaction.get(factionId);
+        if (overlayIds != null) {
+            overlayIds.remove(overlayId);
         }
-        
-        String factionId = faction.getId();
-        RegistryKey<World> worldKey = World.OVERWORLD;
-        
-        JourneyFactions.debugLog("Creating overlay for faction: {} with {} chunks", faction.getDisplayName(), claimedChunks.size());
-        
-        // Sort connected regions by size so overlays match
-        List<Set<ChunkPos>> regions = findConnectedRegions(claimedChunks);
-        regions.sort((a, b) -> Integer.compare(b.size(), a.size()));
-        
-        JourneyFactions.debugLog("Found {} connected regions for faction {}", regions.size(), faction.getDisplayName());
-        
-        try {
-            // Build polygons with holes preserved
-            List<MapPolygonWithHoles> polygons = buildPolygonsUsingJourneyMapHelper(claimedChunks);
-            if (polygons.isEmpty()) {
-                JourneyFactions.debugLog("No polygons generated for faction {}", faction.getDisplayName());
-                return;
+        if (overlay != null && shownOverlayIds.remove(overlayId)) {
+            try {
+                jmAPI.remove(overlay);
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Failed to remove overlay from JourneyMap: {} - {}", overlayId, e.getMessage());
             }
-            
-            JourneyFactions.debugLog("Generated {} polygons for faction {}", polygons.size(), faction.getDisplayName());
-            
-            for (int i = 0; i < polygons.size(); i++) {
-                String overlayId = polygons.size() > 1 ? factionId + "_region_" + i : factionId;
+        }
+    }
+
+    /**
+     * Replaces a faction's overlays with ones built from finished geometry, one region per
+     * step (main thread). The geometry must match the faction's current version and the
+     * current dimension, and cover the current view. Each new overlay takes the place of the
+     * old one with the same id; old overlays no region replaced go once the last region is
+     * built.
+     */
+    private final class OverlayApplier implements OverlayBuildQueue.Target {
+        private ClientFaction faction;
+        // Overlays the faction had before this result that nothing replaced yet
+        private Set<String> leftoverIds;
+
+        @Override
+        public boolean begin(GeometryWorker.Result geometry) {
+            ClientFaction faction = JourneyFactions.getFactionManager().getSnapshot().getFaction(geometry.factionId);
+            if (faction == null || faction.getVersion() != geometry.factionVersion
+                    || !geometry.dimension.equals(currentDimension) || !isFactionInView(geometry.factionId)
+                    || !geometry.area.contains(materializedView)) {
+                // Changed while the job ran - have a look again next tick
+                pendingRefreshes.add(geometry.factionId);
+                return false;
+            }
+            this.faction = faction;
+            Set<String> existing = overlayIdsByFaction.get(geometry.factionId);
+            leftoverIds = existing != null ? new HashSet<>(existing) : new HashSet<>();
+            JourneyFactions.debugLog("Creating overlays for faction: {} with {} chunks in {}: {} polygons near the view, {} regions in all",
+                faction.getDisplayName(), faction.getClaimedChunkCount(geometry.dimension), geometry.dimension.getValue(),
+                geometry.regions.size(), geometry.regionCount);
+            return true;
+        }
+
+        @Override
+        public void build(GeometryWorker.Result geometry, FactionGeometry.Region region) {
+            String factionId = geometry.factionId;
+            RegistryKey<World> worldKey = geometry.dimension;
+            try {
+                // Named after the claim region, so ids and labels stay put as the view moves
+                String overlayId = geometry.regionCount == 1 && region.part == 0
+                    ? factionId
+                    : factionId + "_region_" + region.index + (region.part > 0 ? "_" + region.part : "");
+                String label = geometry.regionCount > 1
+                    ? faction.getDisplayName() + " #" + (region.index + 1)
+                    : faction.getDisplayName();
                 
                 JourneyFactions.debugLog("Creating polygon overlay {} for faction {}", overlayId, faction.getDisplayName());
                 
@@ -271,7 +424,7 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
                     overlayId,
                     worldKey,
                     createShapeProperties(faction),
-                    polygons.get(i)
+                    region.polygon
                 );
                 overlay.setActiveUIs(EnumSet.of(Context.UI.Any));
                 overlay.setActiveMapTypes(EnumSet.of(Context.MapType.Any));
@@ -281,46 +434,18 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
                     overlay.setLabel(null); // no built-in label
                     JourneyFactions.debugLog("Using separate label overlay for {}", overlayId);
                 } else {
-                    overlay.setLabel(polygons.size() > 1
-                        ? faction.getDisplayName() + " #" + (i + 1)
-                        : faction.getDisplayName());
+                    overlay.setLabel(label);
                     JourneyFactions.debugLog("Using built-in label for {}: {}", overlayId, overlay.getLabel());
                 }
                 
                 overlay.setOverlayGroupName("faction_territories");
                 overlay.setTitle(faction.getDisplayName() + " Territory");
-                
-                if (FactionDisplayManager.isFactionDisplayEnabled()) {
-                    jmAPI.show(overlay);
-                    JourneyFactions.debugLog("Displayed polygon overlay: {}", overlayId);
-                } else {
-                    JourneyFactions.debugLog("Faction display disabled - overlay {} created but not shown", overlayId);
-                }
-                
-                factionOverlays.put(overlayId, overlay);
+                place(factionId, overlayId, overlay, region.bounds);
                 
                 // --- 2) Optional: separate label-only overlay ---
-                if (JourneyFactions.CONFIG.separateLabelOverlay) {
-                    Set<ChunkPos> region = (i < regions.size()) ? regions.get(i) : claimedChunks;
-                    BlockPos anchor;
-                    
-                                        JourneyFactions.debugLog("Computing label anchor using mode: {}", JourneyFactions.CONFIG.labelAnchorMode);
-                    
-                    switch (JourneyFactions.CONFIG.labelAnchorMode) {
-                        case HULL_CENTROID:
-                            anchor = computeHullCentroid(region);
-                            JourneyFactions.debugLog("Hull centroid anchor: {}", anchor);
-                            break;
-                        case FIRST_CHUNK_CENTER:
-                            ChunkPos first = region.iterator().next();
-                            anchor = new BlockPos(first.x * 16 + 8, LABEL_Y, first.z * 16 + 8);
-                            JourneyFactions.debugLog("First chunk center anchor: {}", anchor);
-                            break;
-                        case FARTHEST_INTERIOR_CHUNK:
-                        default:
-                            anchor = computeInteriorLabelAnchor(region);
-                            JourneyFactions.debugLog("Farthest interior anchor: {}", anchor);
-                    }
+                if (JourneyFactions.CONFIG.separateLabelOverlay && region.labelAnchor != null && region.part == 0) {
+                    BlockPos anchor = region.labelAnchor;
+                    JourneyFactions.debugLog("Label anchor ({}): {}", JourneyFactions.CONFIG.labelAnchorMode, anchor);
                     
                     String labelId = overlayId + "_label";
                     PolygonOverlay labelOverlay = createLabelOnlyOverlay(
@@ -328,182 +453,44 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
                         worldKey,
                         anchor,
                         createTextProperties(faction),
-                        polygons.size() > 1
-                            ? faction.getDisplayName() + " #" + (i + 1)
-                            : faction.getDisplayName()
+                        label
                     );
-                    
-                    if (FactionDisplayManager.isFactionDisplayEnabled()) {
-                        jmAPI.show(labelOverlay);
-                        JourneyFactions.debugLog("Displayed label overlay: {}", labelId);
-                    } else {
-                        JourneyFactions.debugLog("Faction display disabled - label overlay {} created but not shown", labelId);
-                    }
-                    
-                    factionOverlays.put(labelId, labelOverlay);
+                    place(factionId, labelId, labelOverlay, region.bounds);
                 }
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error creating overlay for faction {}: {}", faction.getDisplayName(), e.getMessage(), e);
+                JourneyFactions.debugLog("Exception details: {}", e.toString());
             }
-            
-            JourneyFactions.debugLog("=== OVERLAY CREATION COMPLETE FOR FACTION: {} ===", faction.getDisplayName());
-            
-        } catch (Exception e) {
-            JourneyFactions.LOGGER.error("Error creating overlay for faction {}: {}", faction.getDisplayName(), e.getMessage(), e);
-            JourneyFactions.debugLog("Exception details: {}", e.toString());
         }
-    }
-    
-    /**
-     * Build polygons using JourneyMap's official PolygonHelper for proper rendering,
-     * preserving holes when present.
-     */
-    private List<MapPolygonWithHoles> buildPolygonsUsingJourneyMapHelper(Set<ChunkPos> chunks) {
-        List<MapPolygonWithHoles> polygons = new ArrayList<>();
 
-        try {
-            // Split into connected regions first
-            List<Set<ChunkPos>> regions = findConnectedRegions(chunks);
-            regions.sort((a, b) -> Integer.compare(b.size(), a.size())); // largest first
-
-            for (Set<ChunkPos> region : regions) {
-                try {
-                    // Let JourneyMap do the heavy lifting
-                    List<MapPolygonWithHoles> polysWithHoles = PolygonHelper.createChunksPolygon(region, 70);
-
-                    if (polysWithHoles != null && !polysWithHoles.isEmpty()) {
-                        polygons.addAll(polysWithHoles); // ✅ Keep holes
-                    } else {
-                        // Fallback: create simple bounding or chunk polygon
-                        MapPolygon fallback = createFallbackPolygon(region);
-                        if (fallback != null) {
-                            polygons.add(new MapPolygonWithHoles(fallback, Collections.emptyList()));
-                        }
-                    }
-                } catch (Exception e) {
-                    // If helper fails, still make something visible
-                    MapPolygon fallback = createFallbackPolygon(region);
-                    if (fallback != null) {
-                        polygons.add(new MapPolygonWithHoles(fallback, Collections.emptyList()));
-                    }
-                }
+        private void place(String factionId, String overlayId, PolygonOverlay overlay, ChunkBounds bounds) throws Exception {
+            leftoverIds.remove(overlayId);
+            untrackOverlay(factionId, overlayId); // The overlay this one replaces, if any
+            trackOverlay(factionId, overlayId, overlay, bounds);
+            if (!FactionDisplayManager.isFactionDisplayEnabled()) {
+                JourneyFactions.debugLog("Faction display disabled - overlay {} created but not shown", overlayId);
+            } else if (isOverlayInView(overlayId)) {
+                showOverlay(overlayId, overlay);
+                JourneyFactions.debugLog("Displayed overlay: {}", overlayId);
+            } else {
+                JourneyFactions.debugLog("Overlay {} is outside the map view - created but not shown", overlayId);
             }
-        } catch (Exception e) {
-            // No polygons at all if something fatal happens
-            return Collections.emptyList();
         }
 
-        return polygons;
-    }
-
-    /**
-     * Create a fallback polygon when PolygonHelper fails
-     */
-    private MapPolygon createFallbackPolygon(Set<ChunkPos> region) {
-        if (region.isEmpty()) {
-            return null;
-        }
-        
-        if (region.size() == 1) {
-            // Single chunk - create simple rectangle
-            ChunkPos chunk = region.iterator().next();
-            List<BlockPos> boundary = createChunkRectangle(chunk);
-            return new MapPolygon(boundary);
-        } else {
-            // Multiple chunks - create bounding rectangle
-            List<BlockPos> boundary = createBoundingRectangle(region);
-            return new MapPolygon(boundary);
-        }
-    }
-    
-    /**
-     * Find connected regions of chunks using flood fill
-     */
-    private List<Set<ChunkPos>> findConnectedRegions(Set<ChunkPos> chunks) {
-        List<Set<ChunkPos>> regions = new ArrayList<>();
-        Set<ChunkPos> visited = new HashSet<>();
-        
-        for (ChunkPos chunk : chunks) {
-            if (!visited.contains(chunk)) {
-                Set<ChunkPos> region = new HashSet<>();
-                floodFill(chunk, chunks, visited, region);
-                if (!region.isEmpty()) {
-                    regions.add(region);
-                }
+        @Override
+        public void finish(GeometryWorker.Result geometry) {
+            for (String overlayId : leftoverIds) {
+                untrackOverlay(geometry.factionId, overlayId);
             }
-        }
-        
-        return regions;
-    }
-    
-    /**
-     * Flood fill to find connected chunks
-     */
-    private void floodFill(ChunkPos start, Set<ChunkPos> allChunks, Set<ChunkPos> visited, Set<ChunkPos> region) {
-        if (visited.contains(start) || !allChunks.contains(start)) {
-            return;
-        }
-        
-        visited.add(start);
-        region.add(start);
-        
-        // Check 4 adjacent chunks
-        ChunkPos[] neighbors = {
-            new ChunkPos(start.x + 1, start.z),     // East
-            new ChunkPos(start.x - 1, start.z),     // West
-            new ChunkPos(start.x, start.z + 1),     // South
-            new ChunkPos(start.x, start.z - 1)      // North
-        };
-        
-        for (ChunkPos neighbor : neighbors) {
-            floodFill(neighbor, allChunks, visited, region);
+            // Recorded even without polygons, so the faction is not requeued until the view moves
+            renderedVersions.put(geometry.factionId, geometry.factionVersion);
+            renderedAreas.put(geometry.factionId, geometry.area);
+            JourneyFactions.debugLog("=== OVERLAY CREATION COMPLETE FOR FACTION: {} ===", faction.getDisplayName());
+            faction = null;
+            leftoverIds = null;
         }
     }
     
-    /**
-     * Create a rectangle for a single chunk
-     */
-    private List<BlockPos> createChunkRectangle(ChunkPos chunk) {
-        List<BlockPos> points = new ArrayList<>();
-        int worldX = chunk.x * 16;
-        int worldZ = chunk.z * 16;
-        
-        // Create rectangle (clockwise)
-        points.add(new BlockPos(worldX, 70, worldZ));           // Top-left
-        points.add(new BlockPos(worldX + 16, 70, worldZ));      // Top-right
-        points.add(new BlockPos(worldX + 16, 70, worldZ + 16)); // Bottom-right
-        points.add(new BlockPos(worldX, 70, worldZ + 16));      // Bottom-left
-        points.add(new BlockPos(worldX, 70, worldZ));           // Close polygon
-        
-        return points;
-    }
-    
-    /**
-     * Create a bounding rectangle for multiple chunks
-     */
-    private List<BlockPos> createBoundingRectangle(Set<ChunkPos> chunks) {
-        // Find bounds
-        int minX = chunks.stream().mapToInt(c -> c.x).min().orElse(0);
-        int maxX = chunks.stream().mapToInt(c -> c.x).max().orElse(0);
-        int minZ = chunks.stream().mapToInt(c -> c.z).min().orElse(0);
-        int maxZ = chunks.stream().mapToInt(c -> c.z).max().orElse(0);
-        
-        // Convert to world coordinates
-        int worldMinX = minX * 16;
-        int worldMaxX = (maxX + 1) * 16;
-        int worldMinZ = minZ * 16;
-        int worldMaxZ = (maxZ + 1) * 16;
-        
-        List<BlockPos> points = new ArrayList<>();
-        points.add(new BlockPos(worldMinX, 70, worldMinZ));     // Top-left
-        points.add(new BlockPos(worldMaxX, 70, worldMinZ));     // Top-right
-        points.add(new BlockPos(worldMaxX, 70, worldMaxZ));     // Bottom-right
-        points.add(new BlockPos(worldMinX, 70, worldMaxZ));     // Bottom-left
-        points.add(new BlockPos(worldMinX, 70, worldMinZ));     // Close polygon
-        
-        JourneyFactions.debugLog("Created bounding rectangle: ({},{}) to ({},{}) covering {}x{} chunks",worldMinX, worldMinZ, worldMaxX, worldMaxZ, maxX - minX + 1, maxZ - minZ + 1);
-        
-        return points;
-    }
-    
     private ShapeProperties createShapeProperties(ClientFaction faction) {
         Color factionColor = faction.getEffectiveColor();
         
@@ -563,14 +550,25 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
             }
         }
         factionOverlays.clear();
+        overlayBounds.clear();
+        spatialIndex.clear();
+        overlayIdsByFaction.clear();
+        renderedVersions.clear();
+        renderedAreas.clear();
+        shownOverlayIds.clear();
+        pendingRefreshes.clear();
+        buildQueue.clear();
+        geometryWorker.cancelAll();
+        lastReconciledDataVersion = -1;
     }
     
     // FactionUpdateListener implementation
     @Override
     public void onFactionUpdated(ClientFaction faction) {
         // Check if faction is being disbanded (has no chunks but still exists)
-        if (faction.getClaimedChunks().isEmpty()) {
+        if (faction.isEmpty()) {
             JourneyFactions.debugLog("Faction {} appears to be disbanded - just cleaning overlays", faction.getName());
+            geometryWorker.forget(faction.getId());
             completelyRemoveFactionOverlays(faction.getId());
             return;
         }
@@ -583,38 +581,37 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
     @Override
     public void onFactionRemoved(ClientFaction faction) {
         JourneyFactions.debugLog("Faction removed: {} - cleaning up all overlays", faction.getName());
+        geometryWorker.forget(faction.getId());
         completelyRemoveFactionOverlays(faction.getId());
     }
     
     @Override
-    public void onChunkChanged(ChunkPos chunk, String oldFactionId, String newFactionId) {
+    public void onChunkChanged(RegistryKey<World> dimension, ChunkPos chunk, String oldFactionId, String newFactionId) {
         // Only log chunk changes, don't automatically refresh
         // The onFactionUpdated events will handle the refreshing
-        JourneyFactions.LOGGER.debug("Chunk changed: {} from {} to {} (will be handled by faction updates)", 
-            chunk, oldFactionId, newFactionId);
+        JourneyFactions.LOGGER.debug("Chunk changed: {} in {} from {} to {} (will be handled by faction updates)", 
+            chunk, dimension.getValue(), oldFactionId, newFactionId);
     }
 
     private void completelyRemoveFactionOverlays(String factionId) {
         JourneyFactions.debugLog("=== COMPLETELY REMOVING ALL OVERLAYS FOR FACTION: {} ===", factionId);
         
-        // Find ALL overlay IDs that could possibly belong to this faction
-        Set<String> overlaysToRemove = new HashSet<>();
-        
-        for (String overlayId : factionOverlays.keySet()) {
-            // Match exact faction ID or anything starting with faction ID + underscore
-            if (overlayId.equals(factionId) || 
-                overlayId.startsWith(factionId + "_") ||
-                overlayId.contains(factionId)) {
-                overlaysToRemove.add(overlayId);
-            }
+        // Look up exactly the overlays created for this faction
+        Set<String> overlaysToRemove = overlayIdsByFaction.remove(factionId);
+        renderedVersions.remove(factionId);
+        renderedAreas.remove(factionId);
+        buildQueue.cancel(factionId);
+        if (overlaysToRemove == null) {
+            overlaysToRemove = Collections.emptySet();
         }
         
         JourneyFactions.debugLog("Found {} overlays to remove: {}", overlaysToRemove.size(), overlaysToRemove);
         
         // Remove each overlay from both JourneyMap and our tracking
         for (String overlayId : overlaysToRemove) {
-            PolygonOverlay overlay = factionOverlays.get(overlayId);
-            if (overlay != null) {
+            PolygonOverlay overlay = factionOverlays.remove(overlayId);
+            overlayBounds.remove(overlayId);
+            if (overlay != null && shownOverlayIds.remove(overlayId)) {
                 try {
                     // Remove from JourneyMap
                     jmAPI.remove(overlay);
@@ -622,63 +619,66 @@ public class FactionOverlayManager implements ClientFactionManager.FactionUpdate
                 } catch (Exception e) {
                     JourneyFactions.LOGGER.error("Failed to remove overlay from JourneyMap: {} - {}", overlayId, e.getMessage());
                 }
-                
-                // Remove from our tracking
-                factionOverlays.remove(overlayId);
-                JourneyFactions.debugLog("Removed from tracking: {}", overlayId);
-            }
-        }
-        
-        // Double-check: force remove any remaining overlays that might have been missed
-        Iterator<Map.Entry<String, PolygonOverlay>> iterator = factionOverlays.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, PolygonOverlay> entry = iterator.next();
-            if (entry.getKey().contains(factionId)) {
-                try {
-                    jmAPI.remove(entry.getValue());
-                    JourneyFactions.LOGGER.warn("Force removed missed overlay: {}", entry.getKey());
-                } catch (Exception e) {
-                    JourneyFactions.LOGGER.error("Failed to force remove overlay: {}", entry.getKey());
-                }
-                iterator.remove();
             }
+            JourneyFactions.debugLog("Removed from tracking: {}", overlayId);
         }
         
         JourneyFactions.debugLog("=== COMPLETE REMOVAL FINISHED FOR FACTION: {} ===", factionId);
     }
 
     /**
-     * Complete clean and redraw for a faction
+     * Complete redraw for a faction. The faction is queued here; on the next tick
+     * {@link #processPendingRefreshes()} snapshots its claims for the geometry worker, and
+     * its overlays are swapped once the new geometry is ready.
      */
     private void completelyRefreshFaction(ClientFaction faction) {
-        String factionId = faction.getId();
-        JourneyFactions.debugLog("=== COMPLETE REFRESH STARTING FOR FACTION: {} ===", faction.getName());
+        if (!pendingRefreshes.add(faction.getId())) {
+            JourneyFactions.debugLog("Refresh already pending for faction: {}", faction.getName());
+            return;
+        }
+        JourneyFactions.debugLog("=== COMPLETE REFRESH QUEUED FOR FACTION: {} ===", faction.getName());
+    }
+
+    /**
+     * Called once per client tick: reloads overlays if the player changed dimension, follows
+     * the map view, hands queued factions to the geometry worker, then turns finished
+     * geometry into overlays.
+     * Both stop when the tick's time budget is spent: queued factions wait, and a faction
+     * whose overlays are half built gets the rest of its regions on the next tick.
+     */
+    public void processPendingRefreshes() {
+        syncDimension();
+        updateView();
+        if (pendingRefreshes.isEmpty() && geometryWorker.getPendingCount() == 0 && buildQueue.isIdle()) {
+            return;
+        }
         
-        // Step 1: Nuclear removal of all overlays
-        completelyRemoveFactionOverlays(factionId);
+        long start = System.nanoTime();
+        long deadline = start + REFRESH_BUDGET_NANOS;
+        FactionSnapshot snapshot = JourneyFactions.getFactionManager().getSnapshot();
         
-        // Step 2: Short delay to ensure cleanup is processed
-        try {
-            Thread.sleep(100); // 100ms delay
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        // Only recreate if faction still exists and has chunks
+        Iterator<String> queued = pendingRefreshes.iterator();
+        while (queued.hasNext() && System.nanoTime() - deadline < 0) {
+            String factionId = queued.next();
+            queued.remove();
+            reconcileFaction(snapshot, factionId);
         }
         
-        // Step 3: Only recreate if faction has chunks
-        if (!faction.getClaimedChunks().isEmpty()) {
-            JourneyFactions.debugLog("Recreating overlays for faction: {} with {} chunks", 
-                faction.getName(), faction.getClaimedChunks().size());
-            createOrUpdateFactionOverlay(faction, faction.getClaimedChunks());
-        } else {
-            JourneyFactions.debugLog("Faction {} has no chunks, not recreating overlays", faction.getName());
-        }
+        int applied = buildQueue.run(deadline);
         
-        JourneyFactions.debugLog("=== COMPLETE REFRESH FINISHED FOR FACTION: {} ===", faction.getName());
+        long elapsed = System.nanoTime() - start;
+        slowestRefreshPassNanos = Math.max(slowestRefreshPassNanos, elapsed);
+        if (applied > 0) {
+            JourneyFactions.debugLog("Applied geometry for {} factions in {} us ({} jobs pending, slowest pass {} us)",
+                applied, elapsed / 1000, geometryWorker.getPendingCount(), slowestRefreshPassNanos / 1000);
+        }
     }
     
     @Override
     public void onDataCleared() {
         JourneyFactions.debugLog("Data cleared - removing all faction overlays");
         clearAllOverlays();
+        geometryWorker.forgetAll();
     }
 }
\ No newline at end of file
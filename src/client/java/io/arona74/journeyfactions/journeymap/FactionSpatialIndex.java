@@ -0,0 +1,151 @@
+package io.arona74.journeyfactions.journeymap;
+
+import io.arona74.journeyfactions.data.ClaimSet;
+import io.arona74.journeyfactions.data.LongHashSet;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which 32x32-chunk buckets each faction's claims touch in the current dimension. Lets the
+ * overlay manager find the factions near the map view without looking at their claims, so
+ * only those get geometry and overlays. Main thread only.
+ */
+public class FactionSpatialIndex {
+
+    /** Buckets are {@code 1 << BUCKET_SHIFT} chunks on a side */
+    public static final int BUCKET_SHIFT = 5;
+
+    // Per faction: the faction version its buckets were computed from, and the buckets
+    private final Map<String, Entry> entries = new HashMap<>();
+    // Bucket key (ChunkPos.toLong of bucket coordinates) -> factions with claims in it
+    private final Map<Long, Set<String>> factionsByBucket = new HashMap<>();
+
+    private static final class Entry {
+        final long factionVersion;
+        final long[] buckets;
+
+        Entry(long factionVersion, long[] buckets) {
+            this.factionVersion = factionVersion;
+            this.buckets = buckets;
+        }
+    }
+
+    /**
+     * @return true if the faction's buckets were computed from this faction version
+     */
+    public boolean isCurrent(String factionId, long factionVersion) {
+        Entry entry = entries.get(factionId);
+        return entry != null && entry.factionVersion == factionVersion;
+    }
+
+    /**
+     * Replace a faction's buckets with the ones its claims touch
+     * @param claims the faction's claims in the current dimension
+     */
+    public void update(String factionId, long factionVersion, ClaimSet claims) {
+        remove(factionId);
+        if (claims.isEmpty()) {
+            return;
+        }
+
+        LongHashSet buckets = new LongHashSet();
+        claims.forEach(chunkKey -> buckets.add(ChunkPos.toLong(
+            ChunkPos.getPackedX(chunkKey) >> BUCKET_SHIFT,
+            ChunkPos.getPackedZ(chunkKey) >> BUCKET_SHIFT)));
+        long[] bucketKeys = buckets.toArray();
+        for (long bucketKey : bucketKeys) {
+            factionsByBucket.computeIfAbsent(bucketKey, key -> new HashSet<>()).add(factionId);
+        }
+        entries.put(factionId, new Entry(factionVersion, bucketKeys));
+    }
+
+    public void remove(String factionId) {
+        Entry entry = entries.remove(factionId);
+        if (entry == null) {
+            return;
+        }
+        for (long bucketKey : entry.buckets) {
+            Set<String> factions = factionsByBucket.get(bucketKey);
+            if (factions != null) {
+                factions.remove(factionId);
+                if (factions.isEmpty()) {
+                    factionsByBucket.remove(bucketKey);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        factionsByBucket.clear();
+    }
+
+    /**
+     * @return true if any of the faction's claims lies in a bucket that intersects {@code view}
+     */
+    public boolean touches(String factionId, ChunkBounds view) {
+        Entry entry = entries.get(factionId);
+        if (entry == null) {
+            return false;
+        }
+        ChunkBounds bucketView = toBuckets(view);
+        for (long bucketKey : entry.buckets) {
+            if (containsBucket(bucketView, bucketKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Factions with claims in buckets that intersect {@code view}
+     */
+    public Set<String> factionsIn(ChunkBounds view) {
+        ChunkBounds bucketView = toBuckets(view);
+        Set<String> result = new HashSet<>();
+
+        long viewBuckets = (long) (bucketView.maxX - bucketView.minX + 1) * (bucketView.maxZ - bucketView.minZ + 1);
+        if (viewBuckets > factionsByBucket.size()) {
+            // A view wider than the claimed world: walk the occupied buckets instead
+            for (Map.Entry<Long, Set<String>> entry : factionsByBucket.entrySet()) {
+                if (containsBucket(bucketView, entry.getKey())) {
+                    result.addAll(entry.getValue());
+                }
+            }
+        } else {
+            for (int bx = bucketView.minX; bx <= bucketView.maxX; bx++) {
+                for (int bz = bucketView.minZ; bz <= bucketView.maxZ; bz++) {
+                    Set<String> factions = factionsByBucket.get(ChunkPos.toLong(bx, bz));
+                    if (factions != null) {
+                        result.addAll(factions);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getFactionCount() {
+        return entries.size();
+    }
+
+    public int getBucketCount() {
+        return factionsByBucket.size();
+    }
+
+    private static ChunkBounds toBuckets(ChunkBounds view) {
+        return new ChunkBounds(
+            view.minX >> BUCKET_SHIFT, view.minZ >> BUCKET_SHIFT,
+            view.maxX >> BUCKET_SHIFT, view.maxZ >> BUCKET_SHIFT);
+    }
+
+    private static boolean containsBucket(ChunkBounds bucketView, long bucketKey) {
+        int bx = ChunkPos.getPackedX(bucketKey);
+        int bz = ChunkPos.getPackedZ(bucketKey);
+        return bx >= bucketView.minX && bx <= bucketView.maxX && bz >= bucketView.minZ && bz <= bucketView.maxZ;
+    }
+}
@@ -0,0 +1,229 @@
+package io.arona74.journeyfactions.journeymap;
+
+import io.arona74.journeyfactions.JourneyFactions;
+import io.arona74.journeyfactions.config.JourneyFactionsConfig;
+import io.arona74.journeyfactions.data.ClaimSet;
+import io.arona74.journeyfactions.data.ClientFaction;
+import io.arona74.journeyfactions.data.FactionSnapshot;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes faction geometry on a small background pool. Jobs read their faction's claims in
+ * one dimension from a published {@link FactionSnapshot} and trace only the regions near the
+ * map view; finished results queue up until the main thread polls them.
+ * Submitting a newer version of a faction (or the same faction in another dimension) cancels
+ * its older job, and results that are no longer the latest request for their faction are
+ * dropped when polled.
+ * All methods except the job itself are meant to be called from the client main thread.
+ * Regions and anchors are only cached for factions that still have a job or overlays: evicted
+ * factions and other dimensions are dropped.
+ */
+public class GeometryWorker {
+
+    private static final int THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+
+    private final ExecutorService executor;
+    private final Queue<Result> completed = new ConcurrentLinkedQueue<>();
+
+    // Latest dimension, version and area requested per faction, and the job computing it
+    // (read by jobs to tell whether their faction was evicted meanwhile)
+    private final Map<String, Request> requested = new ConcurrentHashMap<>();
+    private final Map<String, Future<?>> inFlight = new HashMap<>();
+    // Last labeled regions per dimension and faction, reused while the faction version stays
+    // the same. Keyed by dimension so a job still finishing in the previous dimension cannot
+    // fill the current one.
+    private final Map<RegistryKey<World>, Map<String, ClaimRegions>> regionCache = new ConcurrentHashMap<>();
+    // Farthest-interior label anchors per dimension and faction, patched as claims change
+    private final Map<RegistryKey<World>, Map<String, LabelAnchors>> anchorCache = new ConcurrentHashMap<>();
+
+    private static final class Request {
+        final RegistryKey<World> dimension;
+        final long factionVersion;
+        final ChunkBounds area;
+
+        Request(RegistryKey<World> dimension, long factionVersion, ChunkBounds area) {
+            this.dimension = dimension;
+            this.factionVersion = factionVersion;
+            this.area = area;
+        }
+
+        boolean matches(RegistryKey<World> dimension, long factionVersion) {
+            return this.factionVersion == factionVersion && this.dimension.equals(dimension);
+        }
+    }
+
+    /**
+     * Finished geometry for one faction version in one dimension: the polygons of the regions
+     * intersecting {@code area}, out of {@code regionCount} regions in all
+     */
+    public static final class Result {
+        public final String factionId;
+        public final RegistryKey<World> dimension;
+        public final long factionVersion;
+        public final ChunkBounds area;
+        public final int regionCount;
+        public final List<FactionGeometry.Region> regions;
+
+        Result(String factionId, RegistryKey<World> dimension, long factionVersion, ChunkBounds area,
+               int regionCount, List<FactionGeometry.Region> regions) {
+            this.factionId = factionId;
+            this.dimension = dimension;
+            this.factionVersion = factionVersion;
+            this.area = area;
+            this.regionCount = regionCount;
+            this.regions = regions;
+        }
+    }
+
+    public GeometryWorker() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "JourneyFactions-Geometry-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a geometry job for a faction version in a dimension, replacing any older job for
+     * that faction. Only regions intersecting {@code area} get polygons. The claims are read
+     * on the worker thread from {@code snapshot}, which must hold this faction version;
+     * {@code anchorMode} is null when no separate label anchors are needed.
+     */
+    public void submit(String factionId, RegistryKey<World> dimension, long factionVersion, ChunkBounds area,
+                       FactionSnapshot snapshot, JourneyFactionsConfig.LabelAnchorMode anchorMode) {
+        if (isPending(factionId, dimension, factionVersion, area)) {
+            return; // Already being computed
+        }
+        cancel(factionId);
+        requested.put(factionId, new Request(dimension, factionVersion, area));
+        Map<String, ClaimRegions> dimensionCache = regionCache.computeIfAbsent(dimension, d -> new ConcurrentHashMap<>());
+        Map<String, LabelAnchors> dimensionAnchors = anchorCache.computeIfAbsent(dimension, d -> new ConcurrentHashMap<>());
+
+        inFlight.put(factionId, executor.submit(() -> {
+            try {
+                ClientFaction faction = snapshot.getFaction(factionId);
+                ClaimSet claims = faction != null ? faction.getClaims(dimension) : ClaimSet.EMPTY;
+                ClaimRegions regions = dimensionCache.get(factionId);
+                if (regions == null || regions.getFactionVersion() != factionVersion) {
+                    regions = ClaimRegions.label(claims.toArray(), factionVersion);
+                    dimensionCache.put(factionId, regions);
+                }
+                BlockPos[] anchors = null;
+                if (anchorMode == JourneyFactionsConfig.LabelAnchorMode.FARTHEST_INTERIOR_CHUNK) {
+                    anchors = dimensionAnchors.computeIfAbsent(factionId, id -> new LabelAnchors()).update(regions, claims);
+                }
+                if (!requested.containsKey(factionId)) {
+                    // Evicted while this job ran, possibly before the entries above were made
+                    dimensionCache.remove(factionId, regions);
+                    dimensionAnchors.remove(factionId);
+                    throw new InterruptedException();
+                }
+                completed.add(new Result(factionId, dimension, factionVersion, area, regions.getRegions().size(),
+                    FactionGeometry.compute(regions, anchorMode, anchors, area)));
+            } catch (InterruptedException e) {
+                JourneyFactions.debugLog("Discarded stale geometry job for faction {} (version {})", factionId, factionVersion);
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error computing geometry for faction {}", factionId, e);
+            }
+        }));
+    }
+
+    /**
+     * @return true if geometry for this faction version and dimension, covering at least
+     * {@code area}, is requested and not yet polled
+     */
+    public boolean isPending(String factionId, RegistryKey<World> dimension, long factionVersion, ChunkBounds area) {
+        Request request = requested.get(factionId);
+        return request != null && request.matches(dimension, factionVersion) && request.area.contains(area);
+    }
+
+    /**
+     * Return the next finished result that is still the latest request for its faction, or
+     * null if there is none
+     */
+    public Result poll() {
+        Result result;
+        while ((result = completed.poll()) != null) {
+            Request request = requested.get(result.factionId);
+            if (request != null && request.matches(result.dimension, result.factionVersion)
+                    && request.area.equals(result.area)) {
+                requested.remove(result.factionId);
+                inFlight.remove(result.factionId);
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forget about a faction: its job is cancelled and any result is dropped
+     */
+    public void cancel(String factionId) {
+        requested.remove(factionId);
+        Future<?> job = inFlight.remove(factionId);
+        if (job != null) {
+            job.cancel(true);
+        }
+    }
+
+    /**
+     * Cancel a faction's job and drop what is cached for it in a dimension, when it no longer
+     * has overlays there
+     */
+    public void evict(RegistryKey<World> dimension, String factionId) {
+        cancel(factionId);
+        Map<String, ClaimRegions> dimensionCache = regionCache.get(dimension);
+        if (dimensionCache != null) {
+            dimensionCache.remove(factionId);
+        }
+        Map<String, LabelAnchors> dimensionAnchors = anchorCache.get(dimension);
+        if (dimensionAnchors != null) {
+            dimensionAnchors.remove(factionId);
+        }
+    }
+
+    /**
+     * Drop cached regions and anchors of a faction whose data instance is gone; a new instance of the
+     * same faction counts versions from scratch
+     */
+    public void forget(String factionId) {
+        cancel(factionId);
+        for (Map<String, ClaimRegions> dimensionCache : regionCache.values()) {
+            dimensionCache.remove(factionId);
+        }
+        for (Map<String, LabelAnchors> dimensionAnchors : anchorCache.values()) {
+            dimensionAnchors.remove(factionId);
+        }
+    }
+
+    public void forgetAll() {
+        cancelAll();
+        regionCache.clear();
+        anchorCache.clear();
+    }
+
+    public void cancelAll() {
+        for (Future<?> job : inFlight.values()) {
+            job.cancel(true);
+        }
+        inFlight.clear();
+        requested.clear();
+        completed.clear();
+    }
+
+    public int getPendingCount() {
+        return requested.size();
+    }
+}
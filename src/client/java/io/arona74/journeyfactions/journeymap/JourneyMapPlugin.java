@@ -4,6 +4,8 @@ import io.arona74.journeyfactions.JourneyFactions;
 import journeymap.client.api.IClientAPI;
 import journeymap.client.api.IClientPlugin;
 import journeymap.client.api.event.ClientEvent;
+import journeymap.client.api.event.DisplayUpdateEvent;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 
 import java.util.EnumSet;
 
@@ -39,6 +41,9 @@ public class JourneyMapPlugin implements IClientPlugin {
             JourneyFactions.getFactionManager().addListener(overlayManager);
             JourneyFactions.debugLog("Connected to faction manager");
             
+            // Overlay refreshes are finished on the following client ticks
+            ClientTickEvents.END_CLIENT_TICK.register(client -> overlayManager.processPendingRefreshes());
+            
             // Initialize the faction toggle button/keybinding
             FactionToggleButton.initialize(jmClientApi);
             
@@ -73,7 +78,7 @@ public class JourneyMapPlugin implements IClientPlugin {
                     break;
                 case DISPLAY_UPDATE:
                     JourneyFactions.debugLog("JourneyMap display update");
-                    overlayManager.updateDisplay();
+                    overlayManager.updateDisplay(event instanceof DisplayUpdateEvent ? ((DisplayUpdateEvent) event).uiState : null);
                     break;
                 default:
                     JourneyFactions.debugLog("Unhandled JourneyMap event: {}", event.type);
@@ -0,0 +1,511 @@
+package io.arona74.journeyfactions.journeymap;
+
+import io.arona74.journeyfactions.data.ClaimSet;
+import io.arona74.journeyfactions.data.LongHashSet;
+import io.arona74.journeyfactions.data.LongIntHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Farthest-interior label anchors of one faction's regions in one dimension, kept from one
+ * claim version to the next.
+ * <p>
+ * Each region gets a raster of chamfer distances (3 per straight step, 4 per diagonal) to the
+ * nearest unclaimed chunk, holes included, built with one forward and one backward pass. When
+ * only a few chunks change, the raster is patched in a window around them that grows until
+ * the values at its edge agree with their neighbours again. The deepest cells are tracked
+ * along, so a patch only looks at its window unless it made every deepest cell shallower.
+ * A label only moves when the new deepest spot is clearly deeper than where it was, so small
+ * edits do not make it jump.
+ * <p>
+ * Called from geometry worker threads; {@link #update} is synchronized because a cancelled
+ * job may still be finishing when the next one for the same faction starts.
+ */
+public final class LabelAnchors {
+
+    private static final int STRAIGHT = 3;
+    private static final int DIAGONAL = 4;
+    // Claimed cell whose distance is not computed yet; unclaimed cells are 0
+    private static final char UNKNOWN = Character.MAX_VALUE;
+    // Smaller regions only remember their anchor; their raster is cheap to rebuild
+    private static final int MIN_KEPT_RASTER = 16;
+    // Regions whose raster would be larger (thin shapes spread over a huge area) use a BFS
+    private static final long MAX_RASTER_CELLS = 1L << 22;
+    // With more removed chunks than this, every raster is rebuilt
+    private static final int MAX_PATCHED_REMOVALS = 4096;
+    // Chunk key no raster contains, for fields without a previous anchor
+    private static final long NO_ANCHOR = Long.MIN_VALUE;
+
+    // East, west, south, north
+    private static final int[] NEIGHBOR_DX = { 1, -1, 0, 0 };
+    private static final int[] NEIGHBOR_DZ = { 0, 0, 1, -1 };
+
+    private ClaimRegions regions;
+    private ClaimSet claims;
+    private Field[] fields = new Field[0];
+    private BlockPos[] anchors = new BlockPos[0];
+
+    /**
+     * Distance raster and anchor of one region. The raster covers the region with some room
+     * to grow and a border of unclaimed cells.
+     */
+    private static final class Field {
+        final int originX;
+        final int originZ;
+        final int width;
+        final int height;
+        char[] distance; // null once dropped for a small region
+        int count;
+        long anchor;
+        // Largest distance and the raster indices holding it
+        int deepest;
+        LongHashSet deepestCells = new LongHashSet();
+
+        Field(int originX, int originZ, int width, int height) {
+            this.originX = originX;
+            this.originZ = originZ;
+            this.width = width;
+            this.height = height;
+            this.distance = new char[width * height];
+        }
+
+        /**
+         * Raster index of a chunk, or -1 outside the area a region may occupy (the border)
+         */
+        int indexOf(long chunkKey) {
+            int x = ChunkPos.getPackedX(chunkKey) - originX;
+            int z = ChunkPos.getPackedZ(chunkKey) - originZ;
+            if (x < 1 || z < 1 || x > width - 2 || z > height - 2) {
+                return -1;
+            }
+            return z * width + x;
+        }
+    }
+
+    /**
+     * Anchors of every region, in the order of {@code regions}. {@code claims} are the claims
+     * the regions were labeled from; the previous call's claims are diffed against them to
+     * patch rasters. The array is shared and must not be modified.
+     */
+    public synchronized BlockPos[] update(ClaimRegions regions, ClaimSet claims) {
+        if (regions == this.regions && claims == this.claims) {
+            return anchors;
+        }
+        try {
+            List<long[]> regionList = regions.getRegions();
+            int[] previous = matchPrevious(regionList);
+            ClaimSet removed = this.claims != null ? this.claims.minus(claims) : ClaimSet.EMPTY;
+            boolean patch = this.claims != null && removed.size() <= MAX_PATCHED_REMOVALS;
+
+            // A raster is patched in place for one region only: the largest one it matched
+            int[] patchedBy = new int[fields.length];
+            Arrays.fill(patchedBy, -1);
+            for (int i = 0; i < previous.length; i++) {
+                int j = previous[i];
+                if (j >= 0 && (patchedBy[j] < 0 || regionList.get(i).length > regionList.get(patchedBy[j]).length)) {
+                    patchedBy[j] = i;
+                }
+            }
+
+            Field[] updated = new Field[regionList.size()];
+            BlockPos[] result = new BlockPos[regionList.size()];
+            for (int i = 0; i < updated.length; i++) {
+                long[] region = regionList.get(i);
+                Field old = previous[i] >= 0 ? fields[previous[i]] : null;
+                Field field;
+                if (old != null && old.distance != null && patch && patchedBy[previous[i]] == i) {
+                    field = patch(old, region, removed);
+                } else {
+                    field = build(region, old);
+                }
+                updated[i] = field;
+                result[i] = field != null ? FactionGeometry.chunkCenter(field.anchor) : farthestInteriorByBfs(region);
+            }
+
+            this.regions = regions;
+            this.claims = claims;
+            this.fields = updated;
+            this.anchors = result;
+            return result;
+        } catch (RuntimeException e) {
+            // Rasters may be half patched: start over next time
+            this.regions = null;
+            this.claims = null;
+            this.fields = new Field[0];
+            throw e;
+        }
+    }
+
+    /**
+     * Anchor of one region, computed from scratch
+     */
+    public static BlockPos farthestInterior(long[] region) {
+        Field field = build(region, null);
+        return field != null ? FactionGeometry.chunkCenter(field.anchor) : farthestInteriorByBfs(region);
+    }
+
+    /**
+     * For each new region, the index of the previous field whose anchor it contains (the
+     * largest one if it contains several), or -1
+     */
+    private int[] matchPrevious(List<long[]> regionList) {
+        int[] matched = new int[regionList.size()];
+        Arrays.fill(matched, -1);
+        if (fields.length == 0) {
+            return matched;
+        }
+        LongIntHashMap fieldByAnchor = new LongIntHashMap(fields.length);
+        for (int j = 0; j < fields.length; j++) {
+            if (fields[j] != null) {
+                fieldByAnchor.put(fields[j].anchor, j);
+            }
+        }
+        for (int i = 0; i < matched.length; i++) {
+            for (long chunkKey : regionList.get(i)) {
+                int j = fieldByAnchor.get(chunkKey, -1);
+                if (j >= 0 && (matched[i] < 0 || fields[j].count > fields[matched[i]].count)) {
+                    matched[i] = j;
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Build the raster of a region from scratch. {@code previous} is the field the region had
+     * before, if any, whose anchor is kept when still deep enough.
+     * @return null if the raster would be too large
+     */
+    private static Field build(long[] region, Field previous) {
+        ChunkBounds bounds = ChunkBounds.of(region);
+        // Room to grow before the raster has to be rebuilt, plus the unclaimed border
+        int margin = 2 + Math.min(bounds.maxX - bounds.minX, bounds.maxZ - bounds.minZ) / 8;
+        long width = (long) bounds.maxX - bounds.minX + 1 + 2L * margin;
+        long height = (long) bounds.maxZ - bounds.minZ + 1 + 2L * margin;
+        if (width * height > MAX_RASTER_CELLS) {
+            return null;
+        }
+
+        Field field = new Field(bounds.minX - margin, bounds.minZ - margin, (int) width, (int) height);
+        for (long chunkKey : region) {
+            field.distance[field.indexOf(chunkKey)] = UNKNOWN;
+        }
+        forwardPass(field, 1, 1, field.width - 2, field.height - 2);
+        backwardPass(field, 1, 1, field.width - 2, field.height - 2);
+        field.count = region.length;
+        findDeepest(field, 0, 0, field.width - 1, field.height - 1);
+        chooseAnchor(field, previous != null ? previous.anchor : NO_ANCHOR);
+        if (region.length < MIN_KEPT_RASTER) {
+            field.distance = null;
+            field.deepestCells = null;
+        }
+        return field;
+    }
+
+    /**
+     * Bring a region's previous field up to date with its new chunks, rebuilding it when the
+     * region outgrew the raster or absorbed chunks of another previous region
+     */
+    private static Field patch(Field field, long[] region, ClaimSet removed) {
+        // The field is updated in place: keep the anchor it had for the hysteresis
+        long previousAnchor = field.anchor;
+        char[] distance = field.distance;
+        int width = field.width;
+        int minX = Integer.MAX_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+
+        int added = 0;
+        for (long chunkKey : region) {
+            int index = field.indexOf(chunkKey);
+            if (index < 0) {
+                return build(region, field);
+            }
+            if (distance[index] == 0) {
+                distance[index] = UNKNOWN;
+                added++;
+                int x = index % width;
+                int z = index / width;
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minZ = Math.min(minZ, z);
+                maxZ = Math.max(maxZ, z);
+            }
+        }
+
+        // Whatever the region lost must have been unclaimed; anything else means it was split
+        int lost = field.count + added - region.length;
+        if (lost > 0) {
+            int[] cleared = { 0, minX, minZ, maxX, maxZ };
+            removed.forEach(chunkKey -> {
+                int index = field.indexOf(chunkKey);
+                if (index >= 0 && distance[index] != 0) {
+                    distance[index] = 0;
+                    int x = index % width;
+                    int z = index / width;
+                    cleared[0]++;
+                    cleared[1] = Math.min(cleared[1], x);
+                    cleared[2] = Math.min(cleared[2], z);
+                    cleared[3] = Math.max(cleared[3], x);
+                    cleared[4] = Math.max(cleared[4], z);
+                }
+            });
+            if (cleared[0] != lost) {
+                return build(region, field);
+            }
+            minX = cleared[1];
+            minZ = cleared[2];
+            maxX = cleared[3];
+            maxZ = cleared[4];
+        } else if (lost < 0) {
+            return build(region, field);
+        }
+        if (added == 0 && lost == 0) {
+            return field;
+        }
+
+        // Recompute a window around the changes, widening it until the cells just outside it
+        // still agree with their neighbours: then nothing beyond it changed
+        int innerMaxX = width - 2;
+        int innerMaxZ = field.height - 2;
+        LongHashSet deepestCells = field.deepestCells;
+        int x0;
+        int z0;
+        int x1;
+        int z1;
+        for (int reach = 1; ; reach *= 2) {
+            x0 = Math.max(1, minX - reach);
+            z0 = Math.max(1, minZ - reach);
+            x1 = Math.min(innerMaxX, maxX + reach);
+            z1 = Math.min(innerMaxZ, maxZ + reach);
+            for (int z = z0; z <= z1; z++) {
+                for (int i = z * width + x0, end = z * width + x1; i <= end; i++) {
+                    deepestCells.remove(i);
+                    if (distance[i] != 0) {
+                        distance[i] = UNKNOWN;
+                    }
+                }
+            }
+            forwardPass(field, x0, z0, x1, z1);
+            backwardPass(field, x0, z0, x1, z1);
+            boolean whole = x0 == 1 && z0 == 1 && x1 == innerMaxX && z1 == innerMaxZ;
+            if (whole || isSettledAround(field, x0, z0, x1, z1)) {
+                break;
+            }
+        }
+
+        field.count = region.length;
+        if (deepestCells.isEmpty() && windowDepth(field, x0, z0, x1, z1) < field.deepest) {
+            // Every deepest cell got shallower: the next deepest may lie anywhere
+            field.deepest = 0;
+            findDeepest(field, 0, 0, width - 1, field.height - 1);
+        } else {
+            findDeepest(field, x0, z0, x1, z1);
+        }
+        chooseAnchor(field, previousAnchor);
+        return field;
+    }
+
+    private static void forwardPass(Field field, int x0, int z0, int x1, int z1) {
+        char[] distance = field.distance;
+        int width = field.width;
+        for (int z = z0; z <= z1; z++) {
+            for (int i = z * width + x0, end = z * width + x1; i <= end; i++) {
+                if (distance[i] == 0) {
+                    continue;
+                }
+                int best = distance[i];
+                best = Math.min(best, distance[i - 1] + STRAIGHT);
+                best = Math.min(best, distance[i - width] + STRAIGHT);
+                best = Math.min(best, distance[i - width - 1] + DIAGONAL);
+                best = Math.min(best, distance[i - width + 1] + DIAGONAL);
+                distance[i] = (char) best;
+            }
+        }
+    }
+
+    private static void backwardPass(Field field, int x0, int z0, int x1, int z1) {
+        char[] distance = field.distance;
+        int width = field.width;
+        for (int z = z1; z >= z0; z--) {
+            for (int i = z * width + x1, start = z * width + x0; i >= start; i--) {
+                if (distance[i] == 0) {
+                    continue;
+                }
+                int best = distance[i];
+                best = Math.min(best, distance[i + 1] + STRAIGHT);
+                best = Math.min(best, distance[i + width] + STRAIGHT);
+                best = Math.min(best, distance[i + width + 1] + DIAGONAL);
+                best = Math.min(best, distance[i + width - 1] + DIAGONAL);
+                distance[i] = (char) best;
+            }
+        }
+    }
+
+    /**
+     * Whether every claimed cell in the ring just outside a window still holds the smallest
+     * distance its neighbours offer. Distances are the unique values with that property, so
+     * cells beyond a settled ring cannot have changed.
+     */
+    private static boolean isSettledAround(Field field, int x0, int z0, int x1, int z1) {
+        for (int x = x0 - 1; x <= x1 + 1; x++) {
+            if (!isSettled(field, x, z0 - 1) || !isSettled(field, x, z1 + 1)) {
+                return false;
+            }
+        }
+        for (int z = z0; z <= z1; z++) {
+            if (!isSettled(field, x0 - 1, z) || !isSettled(field, x1 + 1, z)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSettled(Field field, int x, int z) {
+        char[] distance = field.distance;
+        int width = field.width;
+        int i = z * width + x;
+        if (distance[i] == 0) {
+            return true; // Unclaimed, including the border
+        }
+        int best = Math.min(
+                Math.min(distance[i - 1], distance[i + 1]) + STRAIGHT,
+                Math.min(distance[i - width], distance[i + width]) + STRAIGHT);
+        best = Math.min(best, Math.min(
+                Math.min(distance[i - width - 1], distance[i - width + 1]),
+                Math.min(distance[i + width - 1], distance[i + width + 1])) + DIAGONAL);
+        return distance[i] == best;
+    }
+
+    private static int windowDepth(Field field, int x0, int z0, int x1, int z1) {
+        char[] distance = field.distance;
+        int depth = 0;
+        for (int z = z0; z <= z1; z++) {
+            for (int i = z * field.width + x0, end = z * field.width + x1; i <= end; i++) {
+                depth = Math.max(depth, distance[i]);
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Merge the deepest cells of a window into the field's; cells outside it must be counted
+     * already
+     */
+    private static void findDeepest(Field field, int x0, int z0, int x1, int z1) {
+        int depth = windowDepth(field, x0, z0, x1, z1);
+        if (depth < field.deepest) {
+            return;
+        }
+        if (depth > field.deepest) {
+            field.deepest = depth;
+            field.deepestCells.clear();
+        }
+        char[] distance = field.distance;
+        for (int z = z0; z <= z1; z++) {
+            for (int i = z * field.width + x0, end = z * field.width + x1; i <= end; i++) {
+                if (distance[i] == depth) {
+                    field.deepestCells.add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Put the anchor on the deepest cell nearest the middle of all the deepest cells, unless
+     * the previous anchor is still within a chunk (or an eighth of the depth) of the deepest
+     */
+    private static void chooseAnchor(Field field, long previousAnchor) {
+        char[] distance = field.distance;
+        int width = field.width;
+        int deepest = field.deepest;
+        int index = field.indexOf(previousAnchor);
+        if (index >= 0 && distance[index] != 0
+                && distance[index] >= deepest - Math.max(STRAIGHT, deepest / 8)) {
+            field.anchor = previousAnchor;
+            return;
+        }
+
+        long[] cells = field.deepestCells.toArray();
+        long sumX = 0;
+        long sumZ = 0;
+        for (long cell : cells) {
+            sumX += cell % width;
+            sumZ += cell / width;
+        }
+        double middleX = (double) sumX / cells.length;
+        double middleZ = (double) sumZ / cells.length;
+        long best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (long cell : cells) {
+            double dx = cell % width - middleX;
+            double dz = cell / width - middleZ;
+            if (dx * dx + dz * dz < bestDistance || dx * dx + dz * dz == bestDistance && cell < best) {
+                bestDistance = dx * dx + dz * dz;
+                best = cell;
+            }
+        }
+        field.anchor = ChunkPos.toLong(field.originX + (int) (best % width), field.originZ + (int) (best / width));
+    }
+
+    /**
+     * Multi-source BFS from the edge chunks, for regions too spread out for a raster; the
+     * last chunk dequeued is farthest from the perimeter (keeps out of holes)
+     */
+    private static BlockPos farthestInteriorByBfs(long[] region) {
+        int count = region.length;
+        LongIntHashMap indexByKey = new LongIntHashMap(count);
+        for (int i = 0; i < count; i++) {
+            indexByKey.put(region[i], i);
+        }
+
+        // Edge detection: any missing 4-neighbor => edge
+        int[] dist = new int[count];
+        int[] queue = new int[count];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < count; i++) {
+            if (isEdgeChunk(region[i], indexByKey)) {
+                queue[tail++] = i;
+            } else {
+                dist[i] = -1;
+            }
+        }
+        // Fully solid region with no detected edge: just use any chunk
+        if (tail == 0) {
+            return FactionGeometry.chunkCenter(region[0]);
+        }
+
+        int best = queue[0];
+        while (head < tail) {
+            int cur = queue[head++];
+            best = cur;
+            int x = ChunkPos.getPackedX(region[cur]);
+            int z = ChunkPos.getPackedZ(region[cur]);
+            for (int d = 0; d < 4; d++) {
+                int n = indexByKey.get(ChunkPos.toLong(x + NEIGHBOR_DX[d], z + NEIGHBOR_DZ[d]), -1);
+                if (n >= 0 && dist[n] < 0) {
+                    dist[n] = dist[cur] + 1;
+                    queue[tail++] = n;
+                }
+            }
+        }
+
+        return FactionGeometry.chunkCenter(region[best]);
+    }
+
+    private static boolean isEdgeChunk(long chunkKey, LongIntHashMap region) {
+        int x = ChunkPos.getPackedX(chunkKey);
+        int z = ChunkPos.getPackedZ(chunkKey);
+        for (int d = 0; d < 4; d++) {
+            if (!region.containsKey(ChunkPos.toLong(x + NEIGHBOR_DX[d], z + NEIGHBOR_DZ[d]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
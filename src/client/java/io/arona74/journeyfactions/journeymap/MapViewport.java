@@ -0,0 +1,64 @@
+package io.arona74.journeyfactions.journeymap;
+
+import journeymap.client.api.display.Context;
+import journeymap.client.api.util.UIState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The area JourneyMap is currently showing, from the UI states reported with display update
+ * events: the union of every active map UI (fullscreen, minimap, webmap). Until a map has
+ * reported its bounds, a square around the player stands in for it.
+ */
+public class MapViewport {
+
+    // Half-size of the stand-in view around the player, in chunks
+    static final int FALLBACK_RADIUS_CHUNKS = 32;
+
+    private final Map<Context.UI, ChunkBounds> activeViews = new EnumMap<>(Context.UI.class);
+
+    /**
+     * Record the bounds of one map UI; inactive UIs and UIs showing another dimension are dropped
+     */
+    public void update(UIState uiState, RegistryKey<World> currentDimension) {
+        if (uiState == null || uiState.ui == null) {
+            return;
+        }
+        Box blockBounds = uiState.blockBounds;
+        if (!uiState.active || blockBounds == null || !uiState.dimension.equals(currentDimension)) {
+            activeViews.remove(uiState.ui);
+            return;
+        }
+        activeViews.put(uiState.ui, ChunkBounds.ofBlocks(blockBounds.minX, blockBounds.minZ, blockBounds.maxX, blockBounds.maxZ));
+    }
+
+    public void clear() {
+        activeViews.clear();
+    }
+
+    /**
+     * The current view grown by {@code marginChunks} and aligned to spatial index buckets,
+     * or null if there is neither a reported view nor a player
+     */
+    public ChunkBounds getView(int marginChunks) {
+        ChunkBounds view = null;
+        for (ChunkBounds bounds : activeViews.values()) {
+            view = view == null ? bounds : view.union(bounds);
+        }
+        if (view == null) {
+            MinecraftClient client = MinecraftClient.getInstance();
+            if (client.player == null) {
+                return null;
+            }
+            ChunkPos playerChunk = client.player.getChunkPos();
+            view = new ChunkBounds(playerChunk.x, playerChunk.z, playerChunk.x, playerChunk.z).expand(FALLBACK_RADIUS_CHUNKS);
+        }
+        return view.expand(marginChunks).alignToBuckets(FactionSpatialIndex.BUCKET_SHIFT);
+    }
+}
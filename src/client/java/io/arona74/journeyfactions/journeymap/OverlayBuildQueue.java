@@ -0,0 +1,102 @@
+package io.arona74.journeyfactions.journeymap;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Finished geometry on its way to becoming overlays, applied one region at a time so a tick
+ * can stop as soon as its time budget is spent and carry on with the same faction on the
+ * next one. Main thread only.
+ */
+final class OverlayBuildQueue {
+
+    /**
+     * Turns the regions of a result into overlays
+     */
+    interface Target {
+        /**
+         * Called before the first region of a result
+         * @return false to drop the result (it no longer matches its faction)
+         */
+        boolean begin(GeometryWorker.Result result);
+
+        void build(GeometryWorker.Result result, FactionGeometry.Region region);
+
+        /**
+         * Called after the last region of a result
+         */
+        void finish(GeometryWorker.Result result);
+    }
+
+    private final Supplier<GeometryWorker.Result> source;
+    private final Target target;
+    private final LongSupplier clock;
+
+    // Result being applied and the index of its next region
+    private GeometryWorker.Result current;
+    private int next;
+
+    OverlayBuildQueue(Supplier<GeometryWorker.Result> source, Target target, LongSupplier clock) {
+        this.source = source;
+        this.target = target;
+        this.clock = clock;
+    }
+
+    /**
+     * Apply results until the clock reaches {@code deadline} or the source runs dry. At least
+     * one step is taken, so a pass that starts late still makes progress; a pass therefore
+     * overruns its deadline by at most one region.
+     * @return the number of results finished
+     */
+    int run(long deadline) {
+        int finished = 0;
+        for (boolean first = true; first || clock.getAsLong() - deadline < 0; first = false) {
+            if (current == null) {
+                GeometryWorker.Result result = source.get();
+                if (result == null) {
+                    break;
+                }
+                if (!target.begin(result)) {
+                    continue;
+                }
+                current = result;
+                next = 0;
+            }
+            if (next < current.regions.size()) {
+                target.build(current, current.regions.get(next++));
+            } else {
+                GeometryWorker.Result done = current;
+                current = null;
+                target.finish(done);
+                finished++;
+            }
+        }
+        return finished;
+    }
+
+    /**
+     * @return true if a result for this faction version, covering at least {@code area}, is
+     * partly applied
+     */
+    boolean isApplying(String factionId, long factionVersion, ChunkBounds area) {
+        return current != null && current.factionId.equals(factionId) && current.factionVersion == factionVersion
+                && current.area.contains(area);
+    }
+
+    boolean isIdle() {
+        return current == null;
+    }
+
+    /**
+     * Stop applying a faction's result; the regions built so far stay with the target
+     */
+    void cancel(String factionId) {
+        if (current != null && current.factionId.equals(factionId)) {
+            current = null;
+        }
+    }
+
+    void clear() {
+        current = null;
+    }
+}
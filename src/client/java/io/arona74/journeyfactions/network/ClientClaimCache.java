@@ -0,0 +1,185 @@
+package io.arona74.journeyfactions.network;
+
+import io.arona74.journeyfactions.JourneyFactions;
+import io.arona74.journeyfactions.data.ClientFaction;
+import io.arona74.journeyfactions.data.ClientFactionManager;
+import io.netty.buffer.Unpooled;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ServerInfo;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Last known factions and claims per server, kept on disk so a reconnect shows territories
+ * straight away and only downloads what changed since (see FACTION_DATA_RESUME).
+ * One file per server address in journeyfactions/cache under the game directory:
+ * <pre>
+ *   int magic, byte cache format
+ *   byte compact format, varint factionCount, factions as in a compact full sync
+ * </pre>
+ * Files are read and written off the client thread.
+ */
+public class ClientClaimCache {
+
+    private static final int MAGIC = 0x4A464343; // "JFCC"
+    private static final int CACHE_FORMAT = 1;
+
+    // Loads wait for the last save, so a quick reconnect reads what was just written
+    private static CompletableFuture<Void> lastSave = CompletableFuture.completedFuture(null);
+
+    /**
+     * Cache key for the current connection: the server address, or the world name in
+     * singleplayer. Null if there is neither.
+     */
+    public static String serverKey(MinecraftClient client) {
+        ServerInfo serverInfo = client.getCurrentServerEntry();
+        if (serverInfo != null) {
+            return serverInfo.address;
+        }
+        if (client.getServer() != null) {
+            return "singleplayer-" + client.getServer().getSaveProperties().getLevelName();
+        }
+        return null;
+    }
+
+    /**
+     * Read the cached factions of a server; completes with an empty list if there are none
+     * or the file cannot be used
+     */
+    public static synchronized CompletableFuture<List<ClientFaction>> load(String serverKey) {
+        Path path = fileFor(serverKey);
+        return lastSave.thenApplyAsync(ignored -> {
+            if (!Files.exists(path)) {
+                return Collections.<ClientFaction>emptyList();
+            }
+            try {
+                List<ClientFaction> factions = decode(Files.readAllBytes(path));
+                JourneyFactions.debugLog("Loaded {} cached factions for {}", factions.size(), serverKey);
+                return factions;
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.warn("Ignoring unreadable claim cache {}: {}", path, e.toString());
+                return Collections.<ClientFaction>emptyList();
+            }
+        });
+    }
+
+    /**
+     * Encode the factions now (client thread) and write them in the background
+     */
+    public static synchronized void save(String serverKey, Collection<ClientFaction> factions) {
+        Path path = fileFor(serverKey);
+        byte[] bytes = encode(factions);
+        lastSave = lastSave.thenRunAsync(() -> {
+            try {
+                Files.createDirectories(path.getParent());
+                Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+                Files.write(temp, bytes);
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                JourneyFactions.debugLog("Saved claim cache for {} ({} bytes)", serverKey, bytes.length);
+            } catch (IOException e) {
+                JourneyFactions.LOGGER.error("Failed to save claim cache " + path, e);
+            }
+        });
+    }
+
+    /**
+     * Whether a faction came from the server (the built-in wilderness, safezone and
+     * warzone entries do not)
+     */
+    public static boolean isCacheable(ClientFaction faction) {
+        String factionId = faction.getId();
+        return !factionId.equals(ClientFactionManager.WILDERNESS_ID)
+                && !factionId.equals(ClientFactionManager.SAFEZONE_ID)
+                && !factionId.equals(ClientFactionManager.WARZONE_ID);
+    }
+
+    /**
+     * The faction's {@link FactionStateHash}, matching the server's for the same data
+     */
+    public static long stateHash(ClientFaction faction) {
+        return FactionStateHash.of(UUID.fromString(faction.getId()), faction.getName(), faction.getDisplayName(),
+                faction.getType().ordinal(), faction.getColor() != null ? faction.getColor().getRGB() : null,
+                getChunkKeysByDimension(faction));
+    }
+
+    static byte[] encode(Collection<ClientFaction> factions) {
+        List<ClientFaction> cacheable = new ArrayList<>();
+        for (ClientFaction faction : factions) {
+            if (isCacheable(faction)) {
+                cacheable.add(faction);
+            }
+        }
+
+        PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+        buf.writeInt(MAGIC);
+        buf.writeByte(CACHE_FORMAT);
+        buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+        buf.writeVarInt(cacheable.size());
+        for (ClientFaction faction : cacheable) {
+            // Same layout as the server's writeCompactFactionToBuffer
+            buf.writeUuid(UUID.fromString(faction.getId()));
+            buf.writeString(faction.getName());
+            buf.writeString(faction.getDisplayName());
+            buf.writeVarInt(faction.getType().ordinal());
+            if (faction.getColor() != null) {
+                buf.writeBoolean(true);
+                buf.writeInt(faction.getColor().getRGB());
+            } else {
+                buf.writeBoolean(false);
+            }
+            buf.writeVarInt(faction.getClaimVersion());
+            ClaimCodec.writeDimensionClaims(buf, getChunkKeysByDimension(faction));
+        }
+
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        return bytes;
+    }
+
+    static List<ClientFaction> decode(byte[] bytes) {
+        PacketByteBuf buf = new PacketByteBuf(Unpooled.wrappedBuffer(bytes));
+        if (buf.readInt() != MAGIC || buf.readUnsignedByte() != CACHE_FORMAT
+                || buf.readUnsignedByte() != ClaimCodec.COMPACT_FORMAT) {
+            // Written by another version - the server will send everything again
+            return Collections.emptyList();
+        }
+        int factionCount = buf.readVarInt();
+        List<ClientFaction> factions = new ArrayList<>(factionCount);
+        for (int i = 0; i < factionCount; i++) {
+            ClientFaction faction = ClientNetworkHandler.readCompactFactionFromBuffer(buf);
+            if (faction == null) {
+                throw new IllegalStateException("Corrupt faction entry " + i);
+            }
+            factions.add(faction);
+        }
+        return factions;
+    }
+
+    private static Map<String, long[]> getChunkKeysByDimension(ClientFaction faction) {
+        Map<String, long[]> chunkKeys = new LinkedHashMap<>();
+        for (RegistryKey<World> dimension : faction.getClaimedDimensions()) {
+            chunkKeys.put(dimension.getValue().toString(), faction.getClaimedChunkKeys(dimension));
+        }
+        return chunkKeys;
+    }
+
+    private static Path fileFor(String serverKey) {
+        String fileName = serverKey.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin";
+        return FabricLoader.getInstance().getGameDir().resolve("journeyfactions").resolve("cache").resolve(fileName);
+    }
+}
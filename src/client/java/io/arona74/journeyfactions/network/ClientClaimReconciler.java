@@ -0,0 +1,106 @@
+package io.arona74.journeyfactions.network;
+
+import io.arona74.journeyfactions.JourneyFactions;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Client side of the claim hash check (see the server's ClaimReconciler): periodically sends
+ * the {@link ClaimTreeHash} root and sector hashes of the current dimension, and asks for the
+ * regions whose hashes differ from the server's. The server answers those with a REGION_SYNC.
+ */
+public class ClientClaimReconciler {
+
+    // Regions requested at most per check; more are picked up by the next one
+    private static final int MAX_REGIONS_PER_REQUEST = 1024;
+
+    static void registerPacketHandlers() {
+        ClientPlayNetworking.registerGlobalReceiver(ClientNetworkHandler.CLAIM_HASH_REGIONS, (client, handler, buf, responseSender) -> {
+            try {
+                if (buf.readUnsignedByte() != ClaimCodec.COMPACT_FORMAT) {
+                    return;
+                }
+                String dimension = buf.readString();
+                long[] sectorKeys = ClaimCodec.readRegions(buf);
+                int regionCount = buf.readVarInt();
+                Map<Long, Long> serverRegions = new HashMap<>(regionCount * 2);
+                for (int i = 0; i < regionCount; i++) {
+                    long regionKey = buf.readLong();
+                    serverRegions.put(regionKey, buf.readLong());
+                }
+
+                client.execute(() -> requestDifferingRegions(dimension, sectorKeys, serverRegions));
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error processing claim region hashes", e);
+            }
+        });
+    }
+
+    /**
+     * Send the hashes of the current dimension's claims, if the server takes them
+     */
+    static void sendHashCheck() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.world == null || !ClientPlayNetworking.canSend(ClientNetworkHandler.CLAIM_HASH_CHECK)) {
+            return;
+        }
+        try {
+            RegistryKey<World> dimension = client.world.getRegistryKey();
+            Map<Long, Long> sectors = JourneyFactions.getFactionManager().getSectorHashes(dimension);
+            long root = 0;
+            for (long hash : sectors.values()) {
+                root += hash;
+            }
+
+            PacketByteBuf buf = PacketByteBufs.create();
+            buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+            buf.writeString(dimension.getValue().toString());
+            buf.writeLong(root);
+            buf.writeVarInt(sectors.size());
+            for (Map.Entry<Long, Long> entry : sectors.entrySet()) {
+                buf.writeLong(entry.getKey());
+                buf.writeLong(entry.getValue());
+            }
+            ClientPlayNetworking.send(ClientNetworkHandler.CLAIM_HASH_CHECK, buf);
+
+        } catch (Exception e) {
+            JourneyFactions.LOGGER.error("Failed to send claim hash check", e);
+        }
+    }
+
+    private static void requestDifferingRegions(String dimension, long[] sectorKeys, Map<Long, Long> serverRegions) {
+        RegistryKey<World> worldKey = RegistryKey.of(RegistryKeys.WORLD, new Identifier(dimension));
+        Map<Long, Long> regions = JourneyFactions.getFactionManager().getRegionHashes(worldKey, sectorKeys);
+
+        Set<Long> differing = new HashSet<>(regions.keySet());
+        differing.addAll(serverRegions.keySet());
+        differing.removeIf(regionKey -> Objects.equals(regions.get(regionKey), serverRegions.get(regionKey)));
+        if (differing.isEmpty()) {
+            return;
+        }
+        long[] regionKeys = differing.stream().mapToLong(Long::longValue).limit(MAX_REGIONS_PER_REQUEST).toArray();
+        JourneyFactions.debugLog("Claims differ from the server in {} regions of {} - requesting {}", differing.size(), dimension, regionKeys.length);
+
+        try {
+            PacketByteBuf buf = PacketByteBufs.create();
+            buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+            buf.writeString(dimension);
+            ClaimCodec.writeRegions(buf, regionKeys);
+            ClientPlayNetworking.send(ClientNetworkHandler.CLAIM_REGION_REQUEST, buf);
+        } catch (Exception e) {
+            JourneyFactions.LOGGER.error("Failed to request claim regions", e);
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package io.arona74.journeyfactions.network;
 
 import io.arona74.journeyfactions.JourneyFactions;
+import io.arona74.journeyfactions.data.ClaimSet;
 import io.arona74.journeyfactions.data.ClientFaction;
+import io.arona74.journeyfactions.data.ClientFactionManager;
+import io.arona74.journeyfactions.util.TickScheduler;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.minecraft.network.PacketByteBuf;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles network communication from server-side factions mod
@@ -26,6 +40,50 @@ public class ClientNetworkHandler {
     public static final Identifier FACTION_DELETE = new Identifier("factions", "faction_delete");
     public static final Identifier CLIENT_REQUEST_DATA = new Identifier("factions", "client_request_data");
 
+    // Compact format channels (see ClaimCodec) - payload starts with a format version byte
+    public static final Identifier FACTION_DATA_SYNC_COMPACT = new Identifier("factions", "faction_data_sync_compact");
+    public static final Identifier FACTION_UPDATE_COMPACT = new Identifier("factions", "faction_update_compact");
+    public static final Identifier FACTION_META_UPDATE = new Identifier("factions", "faction_meta_update");
+    public static final Identifier CHUNK_BATCH = new Identifier("factions", "chunk_batch");
+    public static final Identifier FACTION_RESYNC_REQUEST = new Identifier("factions", "faction_resync_request");
+    public static final Identifier REGION_SYNC = new Identifier("factions", "region_sync");
+    public static final Identifier FACTION_DATA_RESUME = new Identifier("factions", "faction_data_resume");
+    public static final Identifier CLAIM_HASH_CHECK = new Identifier("factions", "claim_hash_check");
+    public static final Identifier CLAIM_HASH_REGIONS = new Identifier("factions", "claim_hash_regions");
+    public static final Identifier CLAIM_REGION_REQUEST = new Identifier("factions", "claim_region_request");
+    public static final Identifier FACTION_DATA_STREAM = new Identifier("factions", "faction_data_stream");
+
+    // Full sync stream fragment types (matches server-side FullSyncStreamer)
+    private static final int STREAM_BEGIN = 0;
+    private static final int STREAM_BATCH = 1;
+    private static final int STREAM_END = 2;
+
+    // Factions we asked the server to resend, so a burst of out-of-step deltas sends one request
+    private static final Set<String> pendingResyncs = ConcurrentHashMap.newKeySet();
+
+    // Claim decoding scratch, one per network thread, so received claims go straight into
+    // tile bitsets instead of a key or object per claim
+    private static final ThreadLocal<ClaimSet.Builder> claimBuilders = ThreadLocal.withInitial(ClaimSet.Builder::new);
+
+    // Deferred client work, run on the client thread
+    private static final TickScheduler scheduler = new TickScheduler();
+    private static final String REQUEST_DATA_TASK = "request_data";
+    private static final int JOIN_REQUEST_DELAY_TICKS = 20;
+    private static final String CLAIM_CHECK_TASK = "claim_check";
+    // How often claims are checked against the server's hashes (1 minute)
+    private static final int CLAIM_CHECK_INTERVAL_TICKS = 1200;
+
+    // Claim cache key of the current connection (null: no cache) and whether the server has
+    // sent faction data yet, which makes a cache that is still loading obsolete
+    private static String cacheKey;
+    private static boolean receivedServerData = false;
+    // Bumped on every join and disconnect, so late cache loads from an old connection are dropped
+    private static int connectionId = 0;
+
+    // While a full sync stream is running: factions held before it began and not received yet,
+    // removed when it ends. Null when no stream is running.
+    private static Set<String> streamStaleIds = null;
+
     public static void initialize() {
         JourneyFactions.debugLog("Initializing client network handlers...");
         
@@ -39,6 +97,8 @@ public class ClientNetworkHandler {
     }
 
     private static void registerPacketHandlers() {
+        ClientClaimReconciler.registerPacketHandlers();
+
         // Handle full faction data sync (sent on join or request)
         ClientPlayNetworking.registerGlobalReceiver(FACTION_DATA_SYNC, (client, handler, buf, responseSender) -> {
             try {
@@ -52,30 +112,121 @@ public class ClientNetworkHandler {
                     ClientFaction faction = readFactionFromBuffer(buf);
                     if (faction != null) {
                         factions.add(faction);
-                        JourneyFactions.debugLog("Received faction: {} with {} chunks",faction.getName(), faction.getClaimedChunks().size());
+                        JourneyFactions.debugLog("Received faction: {} with {} chunks",faction.getName(), faction.getClaimedChunkCount());
                     }
                 }
                 
                 // Process on main thread
+                client.execute(() -> applyFullSync(factions));
+                
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error reading faction data sync packet", e);
+            }
+        });
+
+        // Handle full faction data sync in the compact format
+        ClientPlayNetworking.registerGlobalReceiver(FACTION_DATA_SYNC_COMPACT, (client, handler, buf, responseSender) -> {
+            try {
+                if (!readFormatVersion(buf)) {
+                    return;
+                }
+                int factionCount = buf.readVarInt();
+                JourneyFactions.debugLog("Receiving compact faction data sync: {} factions", factionCount);
+                
+                Set<ClientFaction> factions = new HashSet<>();
+                for (int i = 0; i < factionCount; i++) {
+                    ClientFaction faction = readCompactFactionFromBuffer(buf);
+                    if (faction != null) {
+                        factions.add(faction);
+                    }
+                }
+                
+                client.execute(() -> applyFullSync(factions));
+                
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error reading compact faction data sync packet", e);
+            }
+        });
+
+        // Handle full sync stream fragments, applied as they arrive. Factions held before the
+        // stream stay shown until it ends, then the ones the server did not send are dropped.
+        ClientPlayNetworking.registerGlobalReceiver(FACTION_DATA_STREAM, (client, handler, buf, responseSender) -> {
+            try {
+                if (!readFormatVersion(buf)) {
+                    return;
+                }
+                int fragmentType = buf.readUnsignedByte();
+                if (fragmentType == STREAM_BEGIN) {
+                    int factionCount = buf.readVarInt();
+                    JourneyFactions.debugLog("Receiving streamed faction data sync: {} factions", factionCount);
+                    client.execute(ClientNetworkHandler::beginStream);
+                } else if (fragmentType == STREAM_BATCH) {
+                    int factionCount = buf.readVarInt();
+                    List<ClientFaction> factions = new ArrayList<>(factionCount);
+                    for (int i = 0; i < factionCount; i++) {
+                        ClientFaction faction = readCompactFactionFromBuffer(buf);
+                        if (faction != null) {
+                            factions.add(faction);
+                        }
+                    }
+                    client.execute(() -> applyStreamBatch(factions));
+                } else if (fragmentType == STREAM_END) {
+                    client.execute(ClientNetworkHandler::endStream);
+                } else {
+                    JourneyFactions.LOGGER.warn("Ignoring faction stream fragment of unknown type {}", fragmentType);
+                }
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error reading faction data stream fragment", e);
+            }
+        });
+
+        // Handle the reply to a request carrying our cached factions: only what differs
+        ClientPlayNetworking.registerGlobalReceiver(FACTION_DATA_RESUME, (client, handler, buf, responseSender) -> {
+            try {
+                if (!readFormatVersion(buf)) {
+                    return;
+                }
+                int changedCount = buf.readVarInt();
+                List<ClientFaction> changed = new ArrayList<>(changedCount);
+                for (int i = 0; i < changedCount; i++) {
+                    ClientFaction faction = readCompactFactionFromBuffer(buf);
+                    if (faction != null) {
+                        changed.add(faction);
+                    }
+                }
+                int versionCount = buf.readVarInt();
+                Map<String, Integer> claimVersions = new HashMap<>(versionCount * 2);
+                for (int i = 0; i < versionCount; i++) {
+                    String factionId = buf.readUuid().toString();
+                    claimVersions.put(factionId, buf.readVarInt());
+                }
+                int removedCount = buf.readVarInt();
+                List<String> removed = new ArrayList<>(removedCount);
+                for (int i = 0; i < removedCount; i++) {
+                    removed.add(buf.readUuid().toString());
+                }
+                JourneyFactions.debugLog("Received faction resume: {} changed, {} version updates, {} removed",
+                        changedCount, versionCount, removedCount);
+
                 client.execute(() -> {
-                    try {
-                        // Clear existing data
-                        JourneyFactions.getFactionManager().clear();
-                        
-                        // Add all received factions
-                        for (ClientFaction faction : factions) {
-                            JourneyFactions.getFactionManager().addOrUpdateFaction(faction);
+                    receivedServerData = true;
+                    pendingResyncs.clear();
+                    ClientFactionManager manager = JourneyFactions.getFactionManager();
+                    for (ClientFaction faction : changed) {
+                        manager.addOrUpdateFaction(faction);
+                    }
+                    claimVersions.forEach((factionId, claimVersion) -> {
+                        ClientFaction faction = manager.getFaction(factionId);
+                        if (faction != null) {
+                            faction.setClaimVersion(claimVersion);
                         }
-                        
-                        JourneyFactions.debugLog("Successfully processed {} factions from server", factions.size());
-                        
-                    } catch (Exception e) {
-                        JourneyFactions.LOGGER.error("Error processing faction data sync", e);
+                    });
+                    for (String factionId : removed) {
+                        manager.removeFaction(factionId);
                     }
                 });
-                
             } catch (Exception e) {
-                JourneyFactions.LOGGER.error("Error reading faction data sync packet", e);
+                JourneyFactions.LOGGER.error("Error processing faction resume", e);
             }
         });
 
@@ -95,7 +246,110 @@ public class ClientNetworkHandler {
             }
         });
 
-        // Handle chunk claims
+        // Handle individual faction updates in the compact format
+        ClientPlayNetworking.registerGlobalReceiver(FACTION_UPDATE_COMPACT, (client, handler, buf, responseSender) -> {
+            try {
+                if (!readFormatVersion(buf)) {
+                    return;
+                }
+                ClientFaction faction = readCompactFactionFromBuffer(buf);
+                if (faction != null) {
+                    JourneyFactions.debugLog("Received compact faction update: {}", faction.getName());
+                    
+                    client.execute(() -> {
+                        pendingResyncs.remove(faction.getId());
+                        JourneyFactions.getFactionManager().addOrUpdateFaction(faction);
+                    });
+                }
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error processing compact faction update", e);
+            }
+        });
+
+        // Handle metadata-only faction updates (name, color, members) - claims untouched
+        ClientPlayNetworking.registerGlobalReceiver(FACTION_META_UPDATE, (client, handler, buf, responseSender) -> {
+            try {
+                if (!readFormatVersion(buf)) {
+                    return;
+                }
+                ClientFaction metadata = readFactionMetadata(buf);
+                int claimVersion = buf.readVarInt();
+                JourneyFactions.debugLog("Received faction metadata: {} (claim version {})", metadata.getName(), claimVersion);
+                
+                client.execute(() -> {
+                    ClientFaction existing = JourneyFactions.getFactionManager().getFaction(metadata.getId());
+                    if (existing == null || (claimVersion != ClaimCodec.ANY_VERSION && existing.getClaimVersion() != claimVersion)) {
+                        requestFactionResync(metadata.getId());
+                    } else {
+                        JourneyFactions.getFactionManager().updateFactionMetadata(metadata);
+                    }
+                });
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error processing faction metadata update", e);
+            }
+        });
+
+        // Handle per-tick claim batches: versioned claim changes of several factions at once
+        ClientPlayNetworking.registerGlobalReceiver(CHUNK_BATCH, (client, handler, buf, responseSender) -> {
+            try {
+                if (!readFormatVersion(buf)) {
+                    return;
+                }
+                int changeCount = buf.readVarInt();
+                List<ClientFactionManager.ClaimChange> changes = new ArrayList<>(changeCount);
+                for (int i = 0; i < changeCount; i++) {
+                    String factionId = buf.readUuid().toString();
+                    int baseVersion = buf.readVarInt();
+                    int newVersion = buf.readVarInt();
+                    Map<RegistryKey<World>, long[]> added = readDimensionClaims(buf);
+                    Map<RegistryKey<World>, long[]> removed = readDimensionClaims(buf);
+                    changes.add(new ClientFactionManager.ClaimChange(factionId, baseVersion, newVersion, added, removed));
+                }
+                Map<RegistryKey<World>, long[]> orphanRemovals = readDimensionClaims(buf);
+                JourneyFactions.debugLog("Received claim batch: {} factions, orphan unclaims in {} dimensions", changeCount, orphanRemovals.size());
+                
+                client.execute(() -> {
+                    for (String factionId : JourneyFactions.getFactionManager().applyClaimBatch(changes, orphanRemovals)) {
+                        requestFactionResync(factionId);
+                    }
+                });
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error processing claim batch", e);
+            }
+        });
+
+        // Handle area-of-interest region syncs: regions the player left are dropped, regions
+        // they moved into arrive with their claims
+        ClientPlayNetworking.registerGlobalReceiver(REGION_SYNC, (client, handler, buf, responseSender) -> {
+            try {
+                if (!readFormatVersion(buf)) {
+                    return;
+                }
+                RegistryKey<World> unloadDimension = toWorldKey(buf.readString());
+                long[] unloadRegions = ClaimCodec.readRegions(buf);
+                RegistryKey<World> loadDimension = toWorldKey(buf.readString());
+                long[] loadRegions = ClaimCodec.readRegions(buf);
+                int factionCount = buf.readVarInt();
+                Map<String, long[]> claims = new HashMap<>(factionCount * 2);
+                for (int i = 0; i < factionCount; i++) {
+                    String factionId = buf.readUuid().toString();
+                    claims.put(factionId, ClaimCodec.readClaims(buf));
+                }
+                JourneyFactions.debugLog("Received region sync: {} regions dropped, {} loaded with {} factions",
+                        unloadRegions.length, loadRegions.length, factionCount);
+
+                client.execute(() -> {
+                    for (String factionId : JourneyFactions.getFactionManager().applyRegionSync(
+                            unloadDimension, unloadRegions, loadDimension, loadRegions, claims)) {
+                        requestFactionResync(factionId);
+                    }
+                });
+            } catch (Exception e) {
+                JourneyFactions.LOGGER.error("Error processing region sync", e);
+            }
+        });
+
+        // Handle chunk claims (legacy format: overworld only)
         ClientPlayNetworking.registerGlobalReceiver(CHUNK_CLAIM, (client, handler, buf, responseSender) -> {
             try {
                 String factionId = buf.readString();
@@ -106,7 +360,7 @@ public class ClientNetworkHandler {
                 JourneyFactions.debugLog("Received chunk claim: {} by faction {}", chunk, factionId);
                 
                 client.execute(() -> {
-                    JourneyFactions.getFactionManager().setChunkOwner(chunk, factionId);
+                    JourneyFactions.getFactionManager().setChunkOwner(World.OVERWORLD, chunk, factionId);
                 });
                 
             } catch (Exception e) {
@@ -114,7 +368,7 @@ public class ClientNetworkHandler {
             }
         });
 
-        // Handle chunk unclaims
+        // Handle chunk unclaims (legacy format: overworld only)
         ClientPlayNetworking.registerGlobalReceiver(CHUNK_UNCLAIM, (client, handler, buf, responseSender) -> {
             try {
                 int chunkX = buf.readInt();
@@ -125,7 +379,7 @@ public class ClientNetworkHandler {
                 
                 client.execute(() -> {
                     // Set to wilderness (null means wilderness)
-                    JourneyFactions.getFactionManager().setChunkOwner(chunk, null);
+                    JourneyFactions.getFactionManager().setChunkOwner(World.OVERWORLD, chunk, null);
                 });
                 
             } catch (Exception e) {
@@ -140,6 +394,7 @@ public class ClientNetworkHandler {
                 JourneyFactions.debugLog("Received faction deletion: {}", factionId);
                 
                 client.execute(() -> {
+                    pendingResyncs.remove(factionId);
                     JourneyFactions.getFactionManager().removeFaction(factionId);
                 });
                 
@@ -152,25 +407,49 @@ public class ClientNetworkHandler {
     }
 
     private static void registerConnectionEvents() {
+        ClientTickEvents.END_CLIENT_TICK.register(client -> scheduler.tick());
+
         // Request faction data when joining a server
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
             JourneyFactions.debugLog("Connected to server - requesting faction data");
-            
-            // Small delay to ensure everything is initialized
-            new Thread(() -> {
-                try {
-                    Thread.sleep(1000); // 1 second delay
-                    requestFactionData();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    JourneyFactions.debugLog("Interrupted while waiting to request faction data");
+            int joinId = ++connectionId;
+            receivedServerData = false;
+            scheduler.schedule(CLAIM_CHECK_TASK, CLAIM_CHECK_INTERVAL_TICKS, ClientNetworkHandler::checkClaims);
+            cacheKey = JourneyFactions.CONFIG.cacheClaims ? ClientClaimCache.serverKey(client) : null;
+
+            if (cacheKey == null) {
+                // Small delay to ensure everything is initialized (1 second)
+                scheduler.schedule(REQUEST_DATA_TASK, JOIN_REQUEST_DELAY_TICKS, ClientNetworkHandler::requestFactionData);
+                return;
+            }
+
+            // Show the cached factions right away; the request then tells the server what we have
+            ClientClaimCache.load(cacheKey).whenComplete((factions, error) -> client.execute(() -> {
+                if (joinId != connectionId) {
+                    return; // Disconnected meanwhile
                 }
-            }).start();
+                if (factions != null && !receivedServerData) {
+                    for (ClientFaction faction : factions) {
+                        JourneyFactions.getFactionManager().addOrUpdateFaction(faction);
+                    }
+                }
+                scheduler.schedule(REQUEST_DATA_TASK, JOIN_REQUEST_DELAY_TICKS, ClientNetworkHandler::requestFactionData);
+            }));
         });
 
-        // Clear data when disconnecting
+        // Clear data when disconnecting, keeping what the server sent in the claim cache
         ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
             JourneyFactions.debugLog("Disconnected from server - clearing faction data");
+            connectionId++;
+            if (cacheKey != null && receivedServerData) {
+                ClientClaimCache.save(cacheKey, JourneyFactions.getFactionManager().getAllFactions());
+            }
+            cacheKey = null;
+            receivedServerData = false;
+            streamStaleIds = null;
+            scheduler.cancel(REQUEST_DATA_TASK);
+            scheduler.cancel(CLAIM_CHECK_TASK);
+            pendingResyncs.clear();
             JourneyFactions.getFactionManager().clear();
         });
         
@@ -178,14 +457,41 @@ public class ClientNetworkHandler {
     }
 
     /**
-     * Request faction data from server
+     * Periodic claim hash check, once the server has sent its data
+     */
+    private static void checkClaims() {
+        if (receivedServerData && streamStaleIds == null) {
+            ClientClaimReconciler.sendHashCheck();
+        }
+        scheduler.schedule(CLAIM_CHECK_TASK, CLAIM_CHECK_INTERVAL_TICKS, ClientNetworkHandler::checkClaims);
+    }
+
+    /**
+     * Request faction data from server. If we already hold factions (from the claim cache or
+     * an earlier sync), their claim versions and state hashes go along so a server that
+     * supports it only sends what differs; otherwise the request is empty.
      */
     public static void requestFactionData() {
         try {
             JourneyFactions.debugLog("Requesting faction data from server");
             
             PacketByteBuf buf = PacketByteBufs.create();
-            // Empty buffer - just a request signal
+            List<ClientFaction> held = new ArrayList<>();
+            for (ClientFaction faction : JourneyFactions.getFactionManager().getAllFactions()) {
+                if (ClientClaimCache.isCacheable(faction)) {
+                    held.add(faction);
+                }
+            }
+            if (!held.isEmpty()) {
+                buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+                buf.writeVarInt(held.size());
+                for (ClientFaction faction : held) {
+                    buf.writeUuid(UUID.fromString(faction.getId()));
+                    buf.writeVarInt(faction.getClaimVersion());
+                    buf.writeLong(ClientClaimCache.stateHash(faction));
+                }
+                JourneyFactions.debugLog("Requesting differences to {} held factions", held.size());
+            }
             
             ClientPlayNetworking.send(CLIENT_REQUEST_DATA, buf);
             JourneyFactions.debugLog("Faction data request sent");
@@ -198,7 +504,7 @@ public class ClientNetworkHandler {
     /**
      * Read faction data from packet buffer (matches server-side writeFactionToBuffer)
      */
-    private static ClientFaction readFactionFromBuffer(PacketByteBuf buf) {
+    public static ClientFaction readFactionFromBuffer(PacketByteBuf buf) {
         try {
             String factionId = buf.readString();           // Faction ID (UUID as string)
             String factionName = buf.readString();         // Faction name
@@ -220,15 +526,15 @@ public class ClientNetworkHandler {
                 faction.setColor(new Color(colorRGB));
             }
             
-            // Read claimed chunks
+            // Read claimed chunks (the legacy format only carries overworld claims)
             int chunkCount = buf.readVarInt();
-            Set<ChunkPos> chunks = new HashSet<>();
+            ClaimSet.Builder claims = claimBuilders.get().clear();
             for (int i = 0; i < chunkCount; i++) {
                 int chunkX = buf.readInt();
                 int chunkZ = buf.readInt();
-                chunks.add(new ChunkPos(chunkX, chunkZ));
+                claims.add(ChunkPos.toLong(chunkX, chunkZ));
             }
-            faction.setClaimedChunks(chunks);
+            faction.setClaims(World.OVERWORLD, claims.build());
             
             JourneyFactions.debugLog("Read faction from buffer: {} ({}) with {} chunks",factionName, type, chunkCount);
             
@@ -240,6 +546,181 @@ public class ClientNetworkHandler {
         }
     }
 
+    /**
+     * Ask the server to resend one faction after a claim version gap
+     */
+    public static void requestFactionResync(String factionId) {
+        if (streamStaleIds != null && JourneyFactions.getFactionManager().getFaction(factionId) == null) {
+            return; // Not streamed yet - it will arrive current
+        }
+        if (!pendingResyncs.add(factionId)) {
+            return; // Already asked
+        }
+        try {
+            JourneyFactions.debugLog("Claim version gap for faction {} - requesting resync", factionId);
+            
+            PacketByteBuf buf = PacketByteBufs.create();
+            buf.writeUuid(UUID.fromString(factionId));
+            ClientPlayNetworking.send(FACTION_RESYNC_REQUEST, buf);
+            
+        } catch (Exception e) {
+            pendingResyncs.remove(factionId);
+            JourneyFactions.LOGGER.error("Failed to request faction resync", e);
+        }
+    }
+
+    /**
+     * Replace all faction data with a full sync from the server (main thread)
+     */
+    private static void applyFullSync(Collection<ClientFaction> factions) {
+        try {
+            receivedServerData = true;
+            streamStaleIds = null;
+
+            // Clear existing data
+            JourneyFactions.getFactionManager().clear();
+            pendingResyncs.clear();
+            
+            // Add all received factions
+            for (ClientFaction faction : factions) {
+                JourneyFactions.getFactionManager().addOrUpdateFaction(faction);
+            }
+            
+            JourneyFactions.debugLog("Successfully processed {} factions from server", factions.size());
+            
+        } catch (Exception e) {
+            JourneyFactions.LOGGER.error("Error processing faction data sync", e);
+        }
+    }
+
+    /**
+     * Start of a full sync stream (main thread)
+     */
+    private static void beginStream() {
+        receivedServerData = true;
+        pendingResyncs.clear();
+        streamStaleIds = new HashSet<>();
+        for (ClientFaction faction : JourneyFactions.getFactionManager().getAllFactions()) {
+            if (ClientClaimCache.isCacheable(faction)) {
+                streamStaleIds.add(faction.getId());
+            }
+        }
+    }
+
+    /**
+     * One fragment of a full sync stream (main thread)
+     */
+    private static void applyStreamBatch(List<ClientFaction> factions) {
+        for (ClientFaction faction : factions) {
+            if (streamStaleIds != null) {
+                streamStaleIds.remove(faction.getId());
+            }
+            JourneyFactions.getFactionManager().addOrUpdateFaction(faction);
+        }
+    }
+
+    /**
+     * End of a full sync stream: drop the factions it did not include (main thread)
+     */
+    private static void endStream() {
+        if (streamStaleIds == null) {
+            return;
+        }
+        for (String factionId : streamStaleIds) {
+            JourneyFactions.getFactionManager().removeFaction(factionId);
+        }
+        JourneyFactions.debugLog("Faction data stream complete, {} stale factions dropped", streamStaleIds.size());
+        streamStaleIds = null;
+    }
+
+    /**
+     * Check the format version byte that leads every compact payload
+     */
+    private static boolean readFormatVersion(PacketByteBuf buf) {
+        int format = buf.readUnsignedByte();
+        if (format != ClaimCodec.COMPACT_FORMAT) {
+            JourneyFactions.LOGGER.warn("Ignoring faction packet in unsupported format version {}", format);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Read faction data in the compact format (matches server-side writeCompactFactionToBuffer)
+     */
+    public static ClientFaction readCompactFactionFromBuffer(PacketByteBuf buf) {
+        try {
+            ClientFaction faction = readFactionMetadata(buf);
+            faction.setClaimVersion(buf.readVarInt());     // Claim version
+            
+            // Claimed chunks as row spans, per dimension
+            Map<RegistryKey<World>, ClaimSet> chunksByDimension = readDimensionClaimSets(buf);
+            faction.setAllClaims(chunksByDimension);
+            
+            JourneyFactions.debugLog("Read compact faction from buffer: {} ({}) with {} chunks in {} dimensions", faction.getName(), faction.getType(), faction.getClaimedChunkCount(), chunksByDimension.size());
+            
+            return faction;
+            
+        } catch (Exception e) {
+            JourneyFactions.LOGGER.error("Error reading compact faction from buffer", e);
+            return null;
+        }
+    }
+
+    /**
+     * Read claims grouped by dimension (see {@link ClaimCodec#readDimensionClaims})
+     */
+    private static Map<RegistryKey<World>, long[]> readDimensionClaims(PacketByteBuf buf) {
+        Map<RegistryKey<World>, long[]> claimsByDimension = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : ClaimCodec.readDimensionClaims(buf).entrySet()) {
+            claimsByDimension.put(toWorldKey(entry.getKey()), entry.getValue());
+        }
+        return claimsByDimension;
+    }
+
+    /**
+     * Read claims grouped by dimension (see {@link ClaimCodec#readDimensionClaims}), decoding
+     * the spans straight into claim sets
+     */
+    private static Map<RegistryKey<World>, ClaimSet> readDimensionClaimSets(PacketByteBuf buf) {
+        int groups = buf.readVarInt();
+        if (groups < 0) {
+            throw new IllegalArgumentException("Negative dimension count: " + groups);
+        }
+        ClaimSet.Builder claims = claimBuilders.get().clear();
+        Map<RegistryKey<World>, ClaimSet> claimsByDimension = new HashMap<>();
+        for (int i = 0; i < groups; i++) {
+            String dimension = buf.readString();
+            ClaimCodec.readClaims(buf, claims::addSpan);
+            if (claimsByDimension.put(toWorldKey(dimension), claims.build()) != null) {
+                throw new IllegalArgumentException("Duplicate claim group for dimension " + dimension);
+            }
+        }
+        return claimsByDimension;
+    }
+
+    private static RegistryKey<World> toWorldKey(String dimension) {
+        return RegistryKey.of(RegistryKeys.WORLD, new Identifier(dimension));
+    }
+
+    /**
+     * Read the compact-format faction header (matches server-side writeFactionMetadata)
+     */
+    private static ClientFaction readFactionMetadata(PacketByteBuf buf) {
+        String factionId = buf.readUuid().toString();  // Faction ID (two longs)
+        String factionName = buf.readString();         // Faction name
+        String displayName = buf.readString();         // Display name with color
+        
+        ClientFaction faction = new ClientFaction(factionId, factionName);
+        faction.setDisplayName(displayName);
+        faction.setType(getFactionTypeFromOrdinal(buf.readVarInt()));
+        
+        if (buf.readBoolean()) {
+            faction.setColor(new Color(buf.readInt()));
+        }
+        return faction;
+    }
+
     /**
      * Convert ordinal back to faction type (matches server-side getFactionTypeOrdinal)
      */
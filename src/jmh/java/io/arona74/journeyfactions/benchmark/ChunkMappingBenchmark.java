@@ -0,0 +1,88 @@
+package io.arona74.journeyfactions.benchmark;
+
+import io.arona74.journeyfactions.data.ClientFaction;
+import io.arona74.journeyfactions.data.ClientFactionManager;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of applying one faction update to the chunk ownership index, comparing the
+ * reverse-index diff in {@link ClientFactionManager} with the previous full
+ * {@code removeIf} scan over every claimed chunk in the world.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkMappingBenchmark {
+
+    private static final int FACTIONS = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    public int totalClaims;
+
+    private ClientFactionManager manager;
+    private Map<ChunkPos, String> legacyIndex;
+    private ClientFaction[] updates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int perFaction = totalClaims / FACTIONS;
+        int width = (int) Math.ceil(Math.sqrt(perFaction));
+        manager = new ClientFactionManager();
+        legacyIndex = new HashMap<>();
+
+        for (int f = 0; f < FACTIONS; f++) {
+            ClientFaction faction = new ClientFaction("faction-" + f, "Faction " + f);
+            faction.setClaimedChunks(World.OVERWORLD, square(f * (width + 4), 0, width, perFaction));
+            manager.addOrUpdateFaction(faction);
+            for (ChunkPos chunk : faction.getClaimedChunks(World.OVERWORLD)) {
+                legacyIndex.put(chunk, faction.getId());
+            }
+        }
+
+        // Alternate each faction between its original square and one shifted by a row,
+        // so every update changes a strip of chunks
+        updates = new ClientFaction[FACTIONS * 2];
+        for (int f = 0; f < FACTIONS; f++) {
+            for (int shift = 0; shift < 2; shift++) {
+                ClientFaction update = new ClientFaction("faction-" + f, "Faction " + f);
+                update.setClaimedChunks(World.OVERWORLD, square(f * (width + 4), shift, width, perFaction));
+                updates[f * 2 + (1 - shift)] = update;
+            }
+        }
+    }
+
+    @Benchmark
+    public int reverseIndexDiff() {
+        ClientFaction update = updates[next++ % updates.length];
+        manager.addOrUpdateFaction(update);
+        return manager.getTotalClaimedChunks();
+    }
+
+    @Benchmark
+    public int legacyFullScan() {
+        ClientFaction update = updates[next++ % updates.length];
+        String factionId = update.getId();
+        legacyIndex.entrySet().removeIf(entry -> entry.getValue().equals(factionId));
+        for (ChunkPos chunk : update.getClaimedChunks(World.OVERWORLD)) {
+            legacyIndex.put(chunk, factionId);
+        }
+        return legacyIndex.size();
+    }
+
+    private static Set<ChunkPos> square(int originX, int originZ, int width, int count) {
+        Set<ChunkPos> chunks = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            chunks.add(new ChunkPos(originX + i % width, originZ + i / width));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,107 @@
+package io.arona74.journeyfactions.benchmark;
+
+import io.arona74.journeyfactions.network.ClaimCodec;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode time and wire size of claim lists: legacy two-ints-per-claim versus
+ * {@link ClaimCodec} row spans. Bytes per claim for each shape is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClaimCodecBenchmark {
+
+    @Param({"60000"})
+    public int claims;
+
+    @Param({"blob", "scattered"})
+    public String shape;
+
+    private long[] chunkKeys;
+    private PacketByteBuf legacyEncoded;
+    private PacketByteBuf compactEncoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        chunkKeys = shape.equals("blob") ? blob(claims) : scattered(claims, 42L);
+
+        legacyEncoded = new PacketByteBuf(Unpooled.buffer());
+        writeLegacy(legacyEncoded, chunkKeys);
+        compactEncoded = new PacketByteBuf(Unpooled.buffer());
+        ClaimCodec.writeClaims(compactEncoded, chunkKeys.clone());
+
+        System.out.printf("%n[%s, %d claims] legacy: %.2f bytes/claim, compact: %.3f bytes/claim%n",
+                shape, claims,
+                legacyEncoded.readableBytes() / (double) claims,
+                compactEncoded.readableBytes() / (double) claims);
+    }
+
+    @Benchmark
+    public int encodeLegacy() {
+        PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+        writeLegacy(buf, chunkKeys);
+        return buf.readableBytes();
+    }
+
+    @Benchmark
+    public int encodeCompact() {
+        PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+        ClaimCodec.writeClaims(buf, chunkKeys.clone());
+        return buf.readableBytes();
+    }
+
+    @Benchmark
+    public long decodeLegacy() {
+        PacketByteBuf buf = new PacketByteBuf(legacyEncoded.duplicate());
+        int count = buf.readVarInt();
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += ChunkPos.toLong(buf.readInt(), buf.readInt());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long[] decodeCompact() {
+        return ClaimCodec.readClaims(new PacketByteBuf(compactEncoded.duplicate()));
+    }
+
+    private static void writeLegacy(PacketByteBuf buf, long[] chunkKeys) {
+        buf.writeVarInt(chunkKeys.length);
+        for (long chunkKey : chunkKeys) {
+            buf.writeInt(ChunkPos.getPackedX(chunkKey));
+            buf.writeInt(ChunkPos.getPackedZ(chunkKey));
+        }
+    }
+
+    private static long[] blob(int count) {
+        int width = (int) Math.ceil(Math.sqrt(count));
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ChunkPos.toLong(i % width - width / 2, i / width - width / 2);
+        }
+        return keys;
+    }
+
+    private static long[] scattered(int count, long seed) {
+        Random random = new Random(seed);
+        int range = (int) Math.sqrt(count) * 8;
+        Set<Long> unique = new HashSet<>();
+        while (unique.size() < count) {
+            unique.add(ChunkPos.toLong(random.nextInt(range) - range / 2, random.nextInt(range) - range / 2));
+        }
+        return unique.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,171 @@
+package io.arona74.journeyfactions.benchmark;
+
+import io.arona74.journeyfactions.data.LongHashSet;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded synthetic claim maps for the benchmarks, as packed chunk keys in generation order
+ * (each blob, strip or donut contiguous). Every shape returns exactly {@code count} distinct
+ * chunks and the same chunks for the same seed.
+ * <ul>
+ *   <li>{@code blobs}: ragged, roughly round territories grown outward from spaced seeds</li>
+ *   <li>{@code scattered}: isolated chunks at about one in sixteen density</li>
+ *   <li>{@code strips}: two-chunk-wide rows of random length, like claimed roads and walls</li>
+ *   <li>{@code donuts}: rings around unclaimed holes, some with an island in the hole</li>
+ * </ul>
+ */
+final class ClaimShapes {
+
+    static final String BLOBS = "blobs";
+    static final String SCATTERED = "scattered";
+    static final String STRIPS = "strips";
+    static final String DONUTS = "donuts";
+
+    // Chunks per blob, so larger maps get more territories rather than one huge one
+    private static final int BLOB_SIZE = 20000;
+    private static final int MAX_DONUT_RADIUS = 24;
+
+    private ClaimShapes() {
+    }
+
+    static long[] generate(String shape, int count, long seed) {
+        Random random = new Random(seed);
+        switch (shape) {
+            case BLOBS:
+                return blobs(count, random);
+            case SCATTERED:
+                return scattered(count, random);
+            case STRIPS:
+                return strips(count, random);
+            case DONUTS:
+                return donuts(count, random);
+            default:
+                throw new IllegalArgumentException("Unknown claim shape: " + shape);
+        }
+    }
+
+    /**
+     * Eden growth: claim a random frontier chunk until the blob is full, which gives ragged
+     * edges and the odd enclosed hole
+     */
+    private static long[] blobs(int count, Random random) {
+        int blobCount = (count + BLOB_SIZE - 1) / BLOB_SIZE;
+        int columns = (int) Math.ceil(Math.sqrt(blobCount));
+        int spacing = (int) Math.ceil(Math.sqrt(Math.min(count, BLOB_SIZE))) * 2 + 8;
+
+        Builder claims = new Builder(count);
+        long[] frontier = new long[16];
+        for (int b = 0; b < blobCount && !claims.isFull(); b++) {
+            int blobEnd = Math.min(count, claims.size() + BLOB_SIZE);
+            int size = 0;
+            frontier[size++] = ChunkPos.toLong((b % columns) * spacing, (b / columns) * spacing);
+            while (claims.size() < blobEnd && size > 0) {
+                int pick = random.nextInt(size);
+                long chunkKey = frontier[pick];
+                frontier[pick] = frontier[--size];
+                if (!claims.add(chunkKey)) {
+                    continue;
+                }
+                if (size + 4 > frontier.length) {
+                    frontier = Arrays.copyOf(frontier, frontier.length * 2);
+                }
+                int x = ChunkPos.getPackedX(chunkKey);
+                int z = ChunkPos.getPackedZ(chunkKey);
+                frontier[size++] = ChunkPos.toLong(x + 1, z);
+                frontier[size++] = ChunkPos.toLong(x - 1, z);
+                frontier[size++] = ChunkPos.toLong(x, z + 1);
+                frontier[size++] = ChunkPos.toLong(x, z - 1);
+            }
+        }
+        return claims.toArray();
+    }
+
+    private static long[] scattered(int count, Random random) {
+        int range = (int) Math.ceil(Math.sqrt(count)) * 4;
+        Builder claims = new Builder(count);
+        while (!claims.isFull()) {
+            claims.add(ChunkPos.toLong(random.nextInt(range) - range / 2, random.nextInt(range) - range / 2));
+        }
+        return claims.toArray();
+    }
+
+    private static long[] strips(int count, Random random) {
+        int width = Math.max(256, (int) Math.sqrt(count * 3.0));
+        Builder claims = new Builder(count);
+        int x = 0;
+        int z = 0;
+        while (!claims.isFull()) {
+            int length = 16 + random.nextInt(241);
+            for (int i = 0; i < length && !claims.isFull(); i++) {
+                claims.add(ChunkPos.toLong(x + i, z));
+                claims.add(ChunkPos.toLong(x + i, z + 1));
+            }
+            x += length + 1 + random.nextInt(8);
+            if (x >= width) {
+                x = 0;
+                z += 3; // One unclaimed row between strips
+            }
+        }
+        return claims.toArray();
+    }
+
+    private static long[] donuts(int count, Random random) {
+        int cell = MAX_DONUT_RADIUS * 2 + 4;
+        int columns = Math.max(1, (int) Math.sqrt(count / 900.0));
+        Builder claims = new Builder(count);
+        for (int d = 0; !claims.isFull(); d++) {
+            int centerX = (d % columns) * cell;
+            int centerZ = (d / columns) * cell;
+            int outer = 6 + random.nextInt(MAX_DONUT_RADIUS - 5);
+            int inner = outer / 2;
+            boolean island = d % 3 == 0;
+            for (int dz = -outer; dz <= outer && !claims.isFull(); dz++) {
+                for (int dx = -outer; dx <= outer && !claims.isFull(); dx++) {
+                    int distance = dx * dx + dz * dz;
+                    boolean ring = distance <= outer * outer && distance > inner * inner;
+                    if (ring || (island && distance <= 1)) {
+                        claims.add(ChunkPos.toLong(centerX + dx, centerZ + dz));
+                    }
+                }
+            }
+        }
+        return claims.toArray();
+    }
+
+    /**
+     * Distinct chunk keys in insertion order, up to a fixed count
+     */
+    private static final class Builder {
+        private final LongHashSet seen;
+        private final long[] keys;
+        private int size;
+
+        Builder(int count) {
+            seen = new LongHashSet(count);
+            keys = new long[count];
+        }
+
+        boolean add(long chunkKey) {
+            if (isFull() || !seen.add(chunkKey)) {
+                return false;
+            }
+            keys[size++] = chunkKey;
+            return true;
+        }
+
+        boolean isFull() {
+            return size == keys.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return keys;
+        }
+    }
+}
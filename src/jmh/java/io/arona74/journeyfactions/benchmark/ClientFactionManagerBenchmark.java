@@ -0,0 +1,123 @@
+package io.arona74.journeyfactions.benchmark;
+
+import io.arona74.journeyfactions.data.ClientFaction;
+import io.arona74.journeyfactions.data.ClientFactionManager;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ClientFactionManager} hot paths on a {@link ClaimShapes} map split between
+ * {@link #FACTIONS} factions: a full update of one faction that changes about 1% of
+ * its claims, single-chunk ownership changes, and ownership lookups (mostly hits, some
+ * wilderness).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientFactionManagerBenchmark {
+
+    private static final int FACTIONS = 16;
+    private static final int LOOKUPS = 4096;
+
+    @Param({ClaimShapes.BLOBS, ClaimShapes.SCATTERED, ClaimShapes.STRIPS, ClaimShapes.DONUTS})
+    public String shape;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int claims;
+
+    private ClientFactionManager manager;
+    private ClientFaction[] updates;
+    private ChunkPos[] ownerChanges;
+    private String[] newOwners;
+    private int[] lookupX;
+    private int[] lookupZ;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long[] chunkKeys = ClaimShapes.generate(shape, claims, 42L);
+        manager = new ClientFactionManager();
+
+        // Contiguous slices of the generation order, so each faction holds whole territories
+        for (int f = 0; f < FACTIONS; f++) {
+            manager.addOrUpdateFaction(faction(f, chunkKeys, 0));
+        }
+
+        // Faction 0 alternates between all its claims and all but every hundredth
+        updates = new ClientFaction[] { faction(0, chunkKeys, 100), faction(0, chunkKeys, 0) };
+
+        Random random = new Random(7L);
+        ownerChanges = new ChunkPos[LOOKUPS];
+        newOwners = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            ownerChanges[i] = new ChunkPos(chunkKeys[random.nextInt(chunkKeys.length)]);
+            newOwners[i] = factionId(random.nextInt(FACTIONS));
+        }
+
+        // Claimed chunks with a neighbour offset, so some lookups land in wilderness
+        lookupX = new int[LOOKUPS];
+        lookupZ = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long chunkKey = chunkKeys[random.nextInt(chunkKeys.length)];
+            int offset = random.nextInt(4) == 0 ? 1 : 0;
+            lookupX[i] = ChunkPos.getPackedX(chunkKey) + offset;
+            lookupZ[i] = ChunkPos.getPackedZ(chunkKey);
+        }
+    }
+
+    @Benchmark
+    public int addOrUpdateFaction() {
+        manager.addOrUpdateFaction(updates[next++ & 1]);
+        return manager.getTotalClaimedChunks();
+    }
+
+    @Benchmark
+    public int setChunkOwner() {
+        int i = next++ & (LOOKUPS - 1);
+        manager.setChunkOwner(World.OVERWORLD, ownerChanges[i], newOwners[i]);
+        return i;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getFactionAt() {
+        int hits = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (manager.getFactionAt(World.OVERWORLD, lookupX[i], lookupZ[i]).getType() == ClientFaction.FactionType.PLAYER) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static String factionId(int f) {
+        return "faction-" + f;
+    }
+
+    /**
+     * Faction {@code f} with its slice of the map, leaving out every {@code skipEvery}th chunk
+     * (0: none)
+     */
+    private static ClientFaction faction(int f, long[] chunkKeys, int skipEvery) {
+        int from = (int) ((long) chunkKeys.length * f / FACTIONS);
+        int to = (int) ((long) chunkKeys.length * (f + 1) / FACTIONS);
+        Set<ChunkPos> chunks = new HashSet<>((to - from) * 2);
+        for (int i = from; i < to; i++) {
+            if (skipEvery == 0 || (i - from) % skipEvery != 0) {
+                chunks.add(new ChunkPos(chunkKeys[i]));
+            }
+        }
+        ClientFaction faction = new ClientFaction(factionId(f), "Faction " + f);
+        faction.setClaimedChunks(World.OVERWORLD, chunks);
+        return faction;
+    }
+}
@@ -0,0 +1,68 @@
+package io.arona74.journeyfactions.benchmark;
+
+import io.arona74.journeyfactions.journeymap.ClaimContourTracer;
+import journeymap.client.api.model.MapPolygonWithHoles;
+import journeymap.client.api.util.PolygonHelper;
+import net.minecraft.util.math.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outline generation for one connected territory: {@link ClaimContourTracer} against
+ * JourneyMap's {@link PolygonHelper#createChunksPolygon}. Correctness is covered by
+ * {@code ClaimContourTracerTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContourTracerBenchmark {
+
+    @Param({"100", "2500", "40000"})
+    public int claims;
+
+    private Set<ChunkPos> region;
+    private long[] regionKeys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // A ragged blob with holes: a square with a wavy edge and a grid of single-chunk holes
+        int width = (int) Math.ceil(Math.sqrt(claims));
+        int holeDepth = width - width / 8 - 2;
+        region = new HashSet<>(claims * 2);
+        for (int x = 0; x < width; x++) {
+            int depth = width - (int) (Math.abs(Math.sin(x * 0.3)) * width / 8);
+            for (int z = 0; z < depth; z++) {
+                boolean interior = x > 1 && z > 1 && x < width - 2 && z < holeDepth;
+                if (!interior || x % 4 != 2 || z % 4 != 2) {
+                    region.add(new ChunkPos(x, z));
+                }
+            }
+        }
+        regionKeys = region.stream().mapToLong(ChunkPos::toLong).toArray();
+    }
+
+    @Benchmark
+    public List<MapPolygonWithHoles> contourTracer() {
+        long[] keys = new long[region.size()];
+        int i = 0;
+        for (ChunkPos chunk : region) {
+            keys[i++] = chunk.toLong();
+        }
+        return ClaimContourTracer.trace(keys, 70);
+    }
+
+    @Benchmark
+    public List<MapPolygonWithHoles> contourTracerPackedKeys() {
+        return ClaimContourTracer.trace(regionKeys, 70);
+    }
+
+    @Benchmark
+    public List<MapPolygonWithHoles> polygonHelper() {
+        return PolygonHelper.createChunksPolygon(region, 70);
+    }
+}
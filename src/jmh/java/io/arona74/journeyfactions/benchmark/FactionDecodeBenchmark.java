@@ -0,0 +1,79 @@
+package io.arona74.journeyfactions.benchmark;
+
+import io.arona74.journeyfactions.data.ClientFaction;
+import io.arona74.journeyfactions.network.ClaimCodec;
+import io.arona74.journeyfactions.network.ClientNetworkHandler;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client decoding of one faction holding a whole {@link ClaimShapes} map, in the legacy
+ * format ({@link ClientNetworkHandler#readFactionFromBuffer}) and the compact one
+ * ({@link ClientNetworkHandler#readCompactFactionFromBuffer}). The payloads are written
+ * here in the server's layout, since the server writers need a live factions mod.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactionDecodeBenchmark {
+
+    private static final UUID FACTION_ID = new UUID(42L, 7L);
+
+    @Param({ClaimShapes.BLOBS, ClaimShapes.SCATTERED, ClaimShapes.STRIPS, ClaimShapes.DONUTS})
+    public String shape;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int claims;
+
+    private PacketByteBuf legacyEncoded;
+    private PacketByteBuf compactEncoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long[] chunkKeys = ClaimShapes.generate(shape, claims, 42L);
+
+        // Matches the server's writeFactionToBuffer
+        legacyEncoded = new PacketByteBuf(Unpooled.buffer());
+        legacyEncoded.writeString(FACTION_ID.toString());
+        writeHeader(legacyEncoded);
+        legacyEncoded.writeVarInt(chunkKeys.length);
+        for (long chunkKey : chunkKeys) {
+            legacyEncoded.writeInt(ChunkPos.getPackedX(chunkKey));
+            legacyEncoded.writeInt(ChunkPos.getPackedZ(chunkKey));
+        }
+
+        // Matches the server's writeCompactFactionToBuffer
+        compactEncoded = new PacketByteBuf(Unpooled.buffer());
+        compactEncoded.writeUuid(FACTION_ID);
+        writeHeader(compactEncoded);
+        compactEncoded.writeVarInt(1);
+        ClaimCodec.writeDimensionClaims(compactEncoded, Collections.singletonMap("minecraft:overworld", chunkKeys.clone()));
+    }
+
+    @Benchmark
+    public ClientFaction readFactionFromBuffer() {
+        return ClientNetworkHandler.readFactionFromBuffer(new PacketByteBuf(legacyEncoded.duplicate()));
+    }
+
+    @Benchmark
+    public ClientFaction readCompactFactionFromBuffer() {
+        return ClientNetworkHandler.readCompactFactionFromBuffer(new PacketByteBuf(compactEncoded.duplicate()));
+    }
+
+    private static void writeHeader(PacketByteBuf buf) {
+        buf.writeString("Benchmark");
+        buf.writeString("§aBenchmark");
+        buf.writeVarInt(0);
+        buf.writeBoolean(true);
+        buf.writeInt(0x55AA55);
+    }
+}
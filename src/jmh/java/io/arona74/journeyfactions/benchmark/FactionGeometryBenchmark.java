@@ -0,0 +1,105 @@
+package io.arona74.journeyfactions.benchmark;
+
+import io.arona74.journeyfactions.config.JourneyFactionsConfig;
+import io.arona74.journeyfactions.data.ClaimSet;
+import io.arona74.journeyfactions.journeymap.ClaimContourTracer;
+import io.arona74.journeyfactions.journeymap.ClaimRegions;
+import io.arona74.journeyfactions.journeymap.FactionGeometry;
+import io.arona74.journeyfactions.journeymap.LabelAnchors;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlay geometry of one faction holding a whole {@link ClaimShapes} map, step by step:
+ * connected region labeling ({@link ClaimRegions#label}), both label anchor modes over every
+ * region, polygon tracing of every region, and the whole {@link FactionGeometry#compute} job.
+ * {@link #patchInteriorLabelAnchors} flips between the map and the map minus a few chunks of
+ * its largest region, so every call patches the cached {@link LabelAnchors}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactionGeometryBenchmark {
+
+    @Param({ClaimShapes.BLOBS, ClaimShapes.SCATTERED, ClaimShapes.STRIPS, ClaimShapes.DONUTS})
+    public String shape;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int claims;
+
+    private long[] chunkKeys;
+    private ClaimRegions regions;
+    private ClaimSet[] claimVersions;
+    private ClaimRegions[] regionVersions;
+    private LabelAnchors labelAnchors;
+    private int version;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        chunkKeys = ClaimShapes.generate(shape, claims, 42L);
+        regions = ClaimRegions.label(chunkKeys, 1L);
+        System.out.printf("%n[%s, %d claims] %d regions, largest %d chunks%n",
+                shape, claims, regions.getRegions().size(), regions.getRegions().get(0).length);
+
+        long[] largest = regions.getRegions().get(0);
+        ClaimSet all = ClaimSet.of(chunkKeys);
+        ClaimSet edited = all;
+        for (int i = 0; i < Math.min(8, largest.length - 1); i++) {
+            edited = edited.without(largest[i * (largest.length / 8)]);
+        }
+        claimVersions = new ClaimSet[] { all, edited };
+        regionVersions = new ClaimRegions[] { regions, ClaimRegions.label(edited.toArray(), 2L) };
+        labelAnchors = new LabelAnchors();
+        labelAnchors.update(regions, all);
+    }
+
+    @Benchmark
+    public ClaimRegions findConnectedRegions() {
+        return ClaimRegions.label(chunkKeys, 1L);
+    }
+
+    @Benchmark
+    public long interiorLabelAnchors() {
+        return anchors(JourneyFactionsConfig.LabelAnchorMode.FARTHEST_INTERIOR_CHUNK);
+    }
+
+    @Benchmark
+    public int patchInteriorLabelAnchors() {
+        version ^= 1;
+        return labelAnchors.update(regionVersions[version], claimVersions[version]).length;
+    }
+
+    @Benchmark
+    public long hullCentroids() {
+        return anchors(JourneyFactionsConfig.LabelAnchorMode.HULL_CENTROID);
+    }
+
+    @Benchmark
+    public int tracePolygons() {
+        int polygons = 0;
+        for (long[] region : regions.getRegions()) {
+            polygons += ClaimContourTracer.trace(region, 70).size();
+        }
+        return polygons;
+    }
+
+    @Benchmark
+    public List<FactionGeometry.Region> computeGeometry() throws InterruptedException {
+        return FactionGeometry.compute(regions, JourneyFactionsConfig.LabelAnchorMode.FARTHEST_INTERIOR_CHUNK);
+    }
+
+    private long anchors(JourneyFactionsConfig.LabelAnchorMode mode) {
+        long sum = 0;
+        for (long[] region : regions.getRegions()) {
+            BlockPos anchor = FactionGeometry.computeLabelAnchor(region, mode);
+            sum += anchor.getX() + anchor.getZ();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,88 @@
+package io.arona74.journeyfactions.benchmark;
+
+import io.arona74.journeyfactions.data.ClientFaction;
+import io.arona74.journeyfactions.data.ClientFactionManager;
+import io.arona74.journeyfactions.network.ClaimCodec;
+import io.arona74.journeyfactions.network.ClientNetworkHandler;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A compact full sync of {@link #CLAIMS} claims in {@link #FACTIONS} factions, as the client
+ * receives it: decoding every faction on the network thread, and decoding plus applying them
+ * to a {@link ClientFactionManager} that already holds them (a resync). Run with
+ * {@code -prof gc} for the allocation per sync; divide by {@link #CLAIMS} for the allocation
+ * per claim.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactionSyncBenchmark {
+
+    private static final int CLAIMS = 100_000;
+    private static final int FACTIONS = 16;
+
+    @Param({ClaimShapes.BLOBS, ClaimShapes.SCATTERED, ClaimShapes.STRIPS, ClaimShapes.DONUTS})
+    public String shape;
+
+    private PacketByteBuf encoded;
+    private ClientFactionManager manager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long[] chunkKeys = ClaimShapes.generate(shape, CLAIMS, 42L);
+
+        // Matches the server's compact full sync: a faction count, then writeCompactFactionToBuffer each
+        encoded = new PacketByteBuf(Unpooled.buffer());
+        encoded.writeVarInt(FACTIONS);
+        for (int f = 0; f < FACTIONS; f++) {
+            int from = (int) ((long) chunkKeys.length * f / FACTIONS);
+            int to = (int) ((long) chunkKeys.length * (f + 1) / FACTIONS);
+            encoded.writeUuid(new UUID(42L, f));
+            encoded.writeString("Faction " + f);
+            encoded.writeString("§aFaction " + f);
+            encoded.writeVarInt(0);
+            encoded.writeBoolean(true);
+            encoded.writeInt(0x55AA55 + f);
+            encoded.writeVarInt(1);
+            ClaimCodec.writeDimensionClaims(encoded, Collections.singletonMap("minecraft:overworld",
+                    Arrays.copyOfRange(chunkKeys, from, to)));
+        }
+
+        manager = new ClientFactionManager();
+        for (ClientFaction faction : decode()) {
+            manager.addOrUpdateFaction(faction);
+        }
+    }
+
+    @Benchmark
+    public ClientFaction[] decodeSync() {
+        return decode();
+    }
+
+    @Benchmark
+    public int decodeAndApplySync() {
+        for (ClientFaction faction : decode()) {
+            manager.addOrUpdateFaction(faction);
+        }
+        return manager.getTotalClaimedChunks();
+    }
+
+    private ClientFaction[] decode() {
+        PacketByteBuf buf = new PacketByteBuf(encoded.duplicate());
+        ClientFaction[] factions = new ClientFaction[buf.readVarInt()];
+        for (int i = 0; i < factions.length; i++) {
+            factions[i] = ClientNetworkHandler.readCompactFactionFromBuffer(buf);
+        }
+        return factions;
+    }
+}
@@ -0,0 +1,283 @@
+package io.arona74.journeyfactions.network;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Compact wire encoding for a set of claimed chunks, shared by server and client.
+ *
+ * Claims are sorted into row order (by z, then x) and written as horizontal runs:
+ * <pre>
+ *   varint claimCount
+ *   varint rowCount
+ *   per row:   zigzag varint (z - previous row z)
+ *              varint spanCount
+ *              per span: first span:  zigzag varint (startX - previous row's first startX)
+ *                        later spans: varint (startX - previous span end - 1)
+ *                        varint (length - 1)
+ * </pre>
+ * Contiguous territory costs a few bytes per row instead of 8 bytes per claim.
+ * Chunk keys are packed with {@link ChunkPos#toLong(int, int)}.
+ *
+ * Claims spanning several dimensions are written as groups, one claim list per dimension:
+ * <pre>
+ *   varint groupCount
+ *   per group: string dimension ID (e.g. minecraft:the_nether)
+ *              claims as above
+ * </pre>
+ *
+ * Area-of-interest sync streams claims by region, a square of {@code 1 << REGION_SHIFT}
+ * chunks. Region lists are a varint count followed by zigzag varint region x and z.
+ */
+public final class ClaimCodec {
+
+    /** Format 1 is the legacy encoding: a varint count followed by two raw ints per claim. */
+    public static final int LEGACY_FORMAT = 1;
+    /**
+     * Format 3: UUIDs as two longs and claims as row spans grouped by dimension (this class).
+     * Format 2 had a single claim list with no dimension and is no longer accepted.
+     */
+    public static final int COMPACT_FORMAT = 3;
+
+    /**
+     * Claim version sent in place of a real one when the receiver only sees part of a
+     * faction's claims (area-of-interest sync): apply without a version check.
+     */
+    public static final int ANY_VERSION = -1;
+
+    /** Regions are {@code 1 << REGION_SHIFT} chunks on a side */
+    public static final int REGION_SHIFT = 5;
+
+    private ClaimCodec() {}
+
+    /**
+     * Write the given chunk keys. The array is sorted in place into row order.
+     */
+    public static void writeClaims(PacketByteBuf buf, long[] chunkKeys) {
+        sortRowOrder(chunkKeys);
+        int count = chunkKeys.length;
+        buf.writeVarInt(count);
+        buf.writeVarInt(countRows(chunkKeys));
+
+        int previousZ = 0;
+        int previousRowStartX = 0;
+        int i = 0;
+        while (i < count) {
+            int z = ChunkPos.getPackedZ(chunkKeys[i]);
+            int rowEnd = i;
+            while (rowEnd < count && ChunkPos.getPackedZ(chunkKeys[rowEnd]) == z) {
+                rowEnd++;
+            }
+
+            buf.writeVarInt(zigZag(z - previousZ));
+            buf.writeVarInt(countSpans(chunkKeys, i, rowEnd));
+
+            int previousEnd = 0;
+            boolean firstSpan = true;
+            int j = i;
+            while (j < rowEnd) {
+                int startX = ChunkPos.getPackedX(chunkKeys[j]);
+                int endX = startX;
+                j++;
+                while (j < rowEnd && ChunkPos.getPackedX(chunkKeys[j]) == endX + 1) {
+                    endX++;
+                    j++;
+                }
+                if (firstSpan) {
+                    buf.writeVarInt(zigZag(startX - previousRowStartX));
+                    previousRowStartX = startX;
+                    firstSpan = false;
+                } else {
+                    buf.writeVarInt(startX - previousEnd - 1);
+                }
+                buf.writeVarInt(endX - startX);
+                previousEnd = endX;
+            }
+
+            previousZ = z;
+            i = rowEnd;
+        }
+    }
+
+    /**
+     * Receives decoded claims as horizontal spans, see {@link #readClaims(PacketByteBuf, SpanConsumer)}
+     */
+    public interface SpanConsumer {
+        void accept(int z, int startX, int endX);
+    }
+
+    /**
+     * Read claims written by {@link #writeClaims}; the result is in row order.
+     */
+    public static long[] readClaims(PacketByteBuf buf) {
+        int[] n = { 0 };
+        long[][] chunkKeys = { null };
+        readClaims(buf, count -> chunkKeys[0] = new long[count], (z, startX, endX) -> {
+            for (int x = startX; x <= endX; x++) {
+                chunkKeys[0][n[0]++] = ChunkPos.toLong(x, z);
+            }
+        });
+        return chunkKeys[0];
+    }
+
+    /**
+     * Read claims written by {@link #writeClaims} as spans in row order, without a key per
+     * claim. The declared count is checked against the spans.
+     * @return the number of claims
+     */
+    public static int readClaims(PacketByteBuf buf, SpanConsumer consumer) {
+        return readClaims(buf, count -> { }, consumer);
+    }
+
+    private static int readClaims(PacketByteBuf buf, IntConsumer countConsumer, SpanConsumer consumer) {
+        int count = buf.readVarInt();
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative claim count: " + count);
+        }
+        countConsumer.accept(count);
+        int rows = buf.readVarInt();
+
+        int n = 0;
+        int z = 0;
+        int rowStartX = 0;
+        for (int row = 0; row < rows; row++) {
+            z += unZigZag(buf.readVarInt());
+            int spans = buf.readVarInt();
+            int previousEnd = 0;
+            for (int span = 0; span < spans; span++) {
+                int startX;
+                if (span == 0) {
+                    rowStartX += unZigZag(buf.readVarInt());
+                    startX = rowStartX;
+                } else {
+                    startX = previousEnd + 1 + buf.readVarInt();
+                }
+                int endX = startX + buf.readVarInt();
+                if (endX < startX || n + (endX - startX + 1) > count) {
+                    throw new IllegalArgumentException("Claim spans exceed declared count " + count);
+                }
+                consumer.accept(z, startX, endX);
+                n += endX - startX + 1;
+                previousEnd = endX;
+            }
+        }
+        if (n != count) {
+            throw new IllegalArgumentException("Expected " + count + " claims but decoded " + n);
+        }
+        return count;
+    }
+
+    /**
+     * Write claims grouped by dimension ID. Empty groups are skipped; every array is sorted
+     * in place into row order.
+     */
+    public static void writeDimensionClaims(PacketByteBuf buf, Map<String, long[]> claimsByDimension) {
+        int groups = 0;
+        for (long[] chunkKeys : claimsByDimension.values()) {
+            if (chunkKeys.length > 0) {
+                groups++;
+            }
+        }
+        buf.writeVarInt(groups);
+        for (Map.Entry<String, long[]> entry : claimsByDimension.entrySet()) {
+            if (entry.getValue().length > 0) {
+                buf.writeString(entry.getKey());
+                writeClaims(buf, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Read claims written by {@link #writeDimensionClaims}, keyed by dimension ID
+     */
+    public static Map<String, long[]> readDimensionClaims(PacketByteBuf buf) {
+        int groups = buf.readVarInt();
+        if (groups < 0) {
+            throw new IllegalArgumentException("Negative dimension count: " + groups);
+        }
+        Map<String, long[]> claimsByDimension = new LinkedHashMap<>();
+        for (int i = 0; i < groups; i++) {
+            String dimension = buf.readString();
+            if (claimsByDimension.put(dimension, readClaims(buf)) != null) {
+                throw new IllegalArgumentException("Duplicate claim group for dimension " + dimension);
+            }
+        }
+        return claimsByDimension;
+    }
+
+    /**
+     * Write region keys (packed like chunk keys, {@link ChunkPos#toLong(int, int)} of the
+     * region coordinates)
+     */
+    public static void writeRegions(PacketByteBuf buf, long[] regionKeys) {
+        buf.writeVarInt(regionKeys.length);
+        for (long regionKey : regionKeys) {
+            buf.writeVarInt(zigZag(ChunkPos.getPackedX(regionKey)));
+            buf.writeVarInt(zigZag(ChunkPos.getPackedZ(regionKey)));
+        }
+    }
+
+    /**
+     * Read region keys written by {@link #writeRegions}
+     */
+    public static long[] readRegions(PacketByteBuf buf) {
+        int count = buf.readVarInt();
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative region count: " + count);
+        }
+        long[] regionKeys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int x = unZigZag(buf.readVarInt());
+            int z = unZigZag(buf.readVarInt());
+            regionKeys[i] = ChunkPos.toLong(x, z);
+        }
+        return regionKeys;
+    }
+
+    /**
+     * Sort packed chunk keys by z, then x. Flipping the sign bit of the low (x) half makes
+     * a plain signed sort order negative x before positive x within a row.
+     */
+    public static void sortRowOrder(long[] chunkKeys) {
+        for (int i = 0; i < chunkKeys.length; i++) {
+            chunkKeys[i] ^= 0x80000000L;
+        }
+        Arrays.sort(chunkKeys);
+        for (int i = 0; i < chunkKeys.length; i++) {
+            chunkKeys[i] ^= 0x80000000L;
+        }
+    }
+
+    private static int countRows(long[] sortedKeys) {
+        int rows = 0;
+        for (int i = 0; i < sortedKeys.length; i++) {
+            if (i == 0 || ChunkPos.getPackedZ(sortedKeys[i]) != ChunkPos.getPackedZ(sortedKeys[i - 1])) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static int countSpans(long[] sortedKeys, int from, int to) {
+        int spans = 0;
+        for (int i = from; i < to; i++) {
+            if (i == from || ChunkPos.getPackedX(sortedKeys[i]) != ChunkPos.getPackedX(sortedKeys[i - 1]) + 1) {
+                spans++;
+            }
+        }
+        return spans;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
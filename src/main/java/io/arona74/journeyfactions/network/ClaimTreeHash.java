@@ -0,0 +1,51 @@
+package io.arona74.journeyfactions.network;
+
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.UUID;
+
+/**
+ * Hash tree over the chunk ownership of one dimension, shared by server and client so each
+ * side can tell where they disagree without exchanging claims:
+ * <pre>
+ *   root     sum of all sector hashes
+ *   sector   1 << SECTOR_SHIFT regions on a side, sum of its region hashes
+ *   region   1 << ClaimCodec.REGION_SHIFT chunks on a side, sum of its entry hashes
+ *   entry    hash of (chunk key, owning faction ID)
+ * </pre>
+ * Sums (mod 2^64) make every level order-independent and let a claim or unclaim update
+ * its region, sector and root in constant time. Keys of regions and sectors are packed
+ * like chunk keys, with {@link ChunkPos#toLong(int, int)}.
+ */
+public final class ClaimTreeHash {
+
+    /** Sectors are {@code 1 << SECTOR_SHIFT} regions on a side */
+    public static final int SECTOR_SHIFT = 3;
+
+    private ClaimTreeHash() {}
+
+    public static long entryHash(long chunkKey, UUID factionId) {
+        long hash = finish(chunkKey ^ 0x6A09E667F3BCC909L);
+        hash = finish(hash ^ factionId.getMostSignificantBits());
+        return finish(hash ^ factionId.getLeastSignificantBits());
+    }
+
+    public static long regionOf(long chunkKey) {
+        return ChunkPos.toLong(
+                ChunkPos.getPackedX(chunkKey) >> ClaimCodec.REGION_SHIFT,
+                ChunkPos.getPackedZ(chunkKey) >> ClaimCodec.REGION_SHIFT);
+    }
+
+    public static long sectorOf(long regionKey) {
+        return ChunkPos.toLong(
+                ChunkPos.getPackedX(regionKey) >> SECTOR_SHIFT,
+                ChunkPos.getPackedZ(regionKey) >> SECTOR_SHIFT);
+    }
+
+    // SplitMix64 finalizer
+    private static long finish(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,60 @@
+package io.arona74.journeyfactions.network;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 64-bit hash of everything a client holds about a faction: metadata as sent in the compact
+ * format and its claims. Computed the same way on both sides, so a reconnecting client can
+ * tell the server what it has cached and only get the factions that differ.
+ * <p>
+ * Independent of claim order and dimension order; not of claim versions, which restart
+ * from zero with the server.
+ */
+public final class FactionStateHash {
+
+    private FactionStateHash() {}
+
+    /**
+     * @param color RGB as written on the wire, or null for no color
+     * @param claimsByDimension packed chunk keys per dimension ID; arrays are not modified
+     */
+    public static long of(UUID factionId, String name, String displayName, int typeOrdinal, Integer color,
+                          Map<String, long[]> claimsByDimension) {
+        long hash = mix(0, factionId.getMostSignificantBits());
+        hash = mix(hash, factionId.getLeastSignificantBits());
+        hash = mix(hash, name.hashCode());
+        hash = mix(hash, displayName.hashCode());
+        hash = mix(hash, typeOrdinal);
+        hash = mix(hash, color != null ? 0x100000000L | (color & 0xFFFFFFFFL) : 0);
+
+        // Dimensions combine with a commutative sum, so map order does not matter
+        long claimsHash = 0;
+        for (Map.Entry<String, long[]> entry : claimsByDimension.entrySet()) {
+            long[] chunkKeys = entry.getValue();
+            if (chunkKeys.length == 0) {
+                continue;
+            }
+            long[] sorted = Arrays.copyOf(chunkKeys, chunkKeys.length);
+            Arrays.sort(sorted);
+            long dimensionHash = mix(entry.getKey().hashCode(), sorted.length);
+            for (long chunkKey : sorted) {
+                dimensionHash = mix(dimensionHash, chunkKey);
+            }
+            claimsHash += finish(dimensionHash);
+        }
+        return finish(mix(hash, claimsHash));
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ finish(value)) * 0x9E3779B97F4A7C15L;
+    }
+
+    // SplitMix64 finalizer
+    private static long finish(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
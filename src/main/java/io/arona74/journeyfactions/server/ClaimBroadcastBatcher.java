@@ -0,0 +1,159 @@
+package io.arona74.journeyfactions.server;
+
+import io.arona74.journeyfactions.JourneyFactionsMain;
+import io.icker.factions.api.persistents.Faction;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Collects claim and unclaim events during a server tick and broadcasts their net effect
+ * once at the end of the tick. A mass claim or an auto-unclaim therefore costs one
+ * CHUNK_BATCH packet per player instead of one packet per chunk, and a chunk claimed and
+ * unclaimed within the same tick is not sent at all.
+ */
+public class ClaimBroadcastBatcher {
+
+    // Per dimension and chunk: who owned it before the first event of this tick, and who owns it now
+    private static final Map<String, Map<Long, PendingChunk>> pendingChunks = new LinkedHashMap<>();
+    // Per faction touched this tick: claim version before the tick and the latest one
+    private static final Map<UUID, FactionClaimChange> pendingFactions = new LinkedHashMap<>();
+
+    private static final class PendingChunk {
+        final UUID ownerBefore;
+        UUID ownerNow;
+
+        PendingChunk(UUID ownerBefore) {
+            this.ownerBefore = ownerBefore;
+        }
+    }
+
+    /**
+     * Net claim changes of one faction over a tick, per dimension ID
+     */
+    public static final class FactionClaimChange {
+        public final Faction faction;
+        public final int baseVersion;
+        public int newVersion;
+        public final Map<String, LongList> added = new LinkedHashMap<>();
+        public final Map<String, LongList> removed = new LinkedHashMap<>();
+
+        FactionClaimChange(Faction faction, int baseVersion) {
+            this.faction = faction;
+            this.baseVersion = baseVersion;
+            this.newVersion = baseVersion;
+        }
+    }
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> flush());
+    }
+
+    /**
+     * Record that {@code faction} claimed a chunk in {@code dimension}; {@code claimVersion} is
+     * its new claim version
+     */
+    public static synchronized void chunkClaimed(String dimension, ChunkPos chunk, Faction faction, int claimVersion) {
+        record(dimension, chunk.toLong(), null, faction.getID());
+        touchFaction(faction, claimVersion);
+    }
+
+    /**
+     * Record that a chunk in {@code dimension} was unclaimed; {@code faction} is the previous
+     * owner, or null if unknown
+     */
+    public static synchronized void chunkUnclaimed(String dimension, ChunkPos chunk, Faction faction, int claimVersion) {
+        record(dimension, chunk.toLong(), faction != null ? faction.getID() : null, null);
+        if (faction != null) {
+            touchFaction(faction, claimVersion);
+        }
+    }
+
+    private static void record(String dimension, long chunkKey, UUID ownerBefore, UUID ownerNow) {
+        Map<Long, PendingChunk> chunks = pendingChunks.computeIfAbsent(dimension, d -> new LinkedHashMap<>());
+        PendingChunk pending = chunks.get(chunkKey);
+        if (pending == null) {
+            pending = new PendingChunk(ownerBefore);
+            chunks.put(chunkKey, pending);
+        }
+        pending.ownerNow = ownerNow;
+    }
+
+    private static void touchFaction(Faction faction, int claimVersion) {
+        FactionClaimChange change = pendingFactions.get(faction.getID());
+        if (change == null) {
+            change = new FactionClaimChange(faction, claimVersion - 1);
+            pendingFactions.put(faction.getID(), change);
+        }
+        change.newVersion = claimVersion;
+    }
+
+    /**
+     * Broadcast the net changes of this tick, if any
+     */
+    public static synchronized void flush() {
+        if (pendingChunks.isEmpty() && pendingFactions.isEmpty()) {
+            return;
+        }
+
+        Map<String, LongList> orphanRemovals = new LinkedHashMap<>();
+        int chunkCount = 0;
+        for (Map.Entry<String, Map<Long, PendingChunk>> dimensionEntry : pendingChunks.entrySet()) {
+            String dimension = dimensionEntry.getKey();
+            for (Map.Entry<Long, PendingChunk> entry : dimensionEntry.getValue().entrySet()) {
+                chunkCount++;
+                PendingChunk pending = entry.getValue();
+                if (Objects.equals(pending.ownerBefore, pending.ownerNow)) {
+                    continue; // Claimed and unclaimed within the tick
+                }
+                long chunkKey = entry.getKey();
+                if (pending.ownerBefore != null) {
+                    add(pendingFactions.get(pending.ownerBefore).removed, dimension, chunkKey);
+                } else if (pending.ownerNow == null) {
+                    add(orphanRemovals, dimension, chunkKey); // Unclaimed from an unknown owner
+                }
+                if (pending.ownerNow != null) {
+                    add(pendingFactions.get(pending.ownerNow).added, dimension, chunkKey);
+                }
+            }
+        }
+
+        JourneyFactionsMain.LOGGER.debug("Flushing claim batch: {} chunks across {} factions", chunkCount, pendingFactions.size());
+        JourneyFactionsIntegration.broadcastClaimBatch(pendingFactions.values(), orphanRemovals);
+
+        pendingChunks.clear();
+        pendingFactions.clear();
+    }
+
+    private static void add(Map<String, LongList> lists, String dimension, long chunkKey) {
+        lists.computeIfAbsent(dimension, d -> new LongList()).add(chunkKey);
+    }
+
+    /**
+     * Minimal growable list of packed chunk keys
+     */
+    public static final class LongList {
+        private long[] values = new long[8];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.arona74.journeyfactions.server;
+
+import io.arona74.journeyfactions.JourneyFactionsMain;
+import io.arona74.journeyfactions.network.ClaimCodec;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Answers clients checking their claims against ours with {@link io.arona74.journeyfactions.network.ClaimTreeHash}
+ * hashes, so drift from dropped or reordered packets heals without a full sync:
+ * <pre>
+ *   CLAIM_HASH_CHECK     client: dimension, root hash, hash of every sector it has claims in
+ *   CLAIM_HASH_REGIONS   server, if the roots differ: dimension, the differing sectors
+ *                        (as a region list) and our hashes of the claimed regions in them
+ *   CLAIM_REGION_REQUEST client: dimension and the regions whose hashes differ
+ *   REGION_SYNC          server: those regions' claims, replacing the client's
+ * </pre>
+ * Players synced in area-of-interest mode are compared on their area only.
+ */
+public class ClaimReconciler {
+
+    // Regions resent per request at most; anything beyond is caught by the next check
+    private static final int MAX_REGIONS_PER_REQUEST = 1024;
+    // Sanity bound on the sector hashes a client may send
+    private static final int MAX_SECTORS_PER_CHECK = 1 << 16;
+
+    public static void register() {
+        ServerPlayNetworking.registerGlobalReceiver(JourneyFactionsIntegration.CLAIM_HASH_CHECK, (server, player, handler, buf, responseSender) -> {
+            if (buf.readUnsignedByte() != ClaimCodec.COMPACT_FORMAT) {
+                return;
+            }
+            String dimension = buf.readString();
+            long clientRoot = buf.readLong();
+            int sectorCount = buf.readVarInt();
+            if (sectorCount < 0 || sectorCount > MAX_SECTORS_PER_CHECK) {
+                return;
+            }
+            Map<Long, Long> clientSectors = new HashMap<>(sectorCount * 2);
+            for (int i = 0; i < sectorCount; i++) {
+                long sectorKey = buf.readLong();
+                clientSectors.put(sectorKey, buf.readLong());
+            }
+
+            server.execute(() -> handleHashCheck(player, dimension, clientRoot, clientSectors));
+        });
+
+        ServerPlayNetworking.registerGlobalReceiver(JourneyFactionsIntegration.CLAIM_REGION_REQUEST, (server, player, handler, buf, responseSender) -> {
+            if (buf.readUnsignedByte() != ClaimCodec.COMPACT_FORMAT) {
+                return;
+            }
+            String dimension = buf.readString();
+            long[] regionKeys = ClaimCodec.readRegions(buf);
+
+            server.execute(() -> handleRegionRequest(player, dimension, regionKeys));
+        });
+    }
+
+    private static void handleHashCheck(ServerPlayerEntity player, String dimension, long clientRoot, Map<Long, Long> clientSectors) {
+        try {
+            InterestArea area = InterestManager.get(player);
+            if (area != null && !area.dimension.equals(dimension)) {
+                return; // The player changed dimension since; the next check covers the new one
+            }
+
+            // Queued claims first, so they do not count as a difference
+            ClaimBroadcastBatcher.flush();
+
+            Map<Long, Long> sectors = ClaimRegionIndex.sectorHashes(dimension, area);
+            long root = 0;
+            for (long hash : sectors.values()) {
+                root += hash;
+            }
+            if (root == clientRoot) {
+                return;
+            }
+
+            Set<Long> sectorKeys = new HashSet<>(sectors.keySet());
+            sectorKeys.addAll(clientSectors.keySet());
+            sectorKeys.removeIf(sectorKey -> Objects.equals(sectors.get(sectorKey), clientSectors.get(sectorKey)));
+            long[] differing = sectorKeys.stream().mapToLong(Long::longValue).toArray();
+            Map<Long, Long> regions = ClaimRegionIndex.regionHashes(dimension, differing, area);
+            JourneyFactionsMain.LOGGER.debug("Claims of {} in {} differ in {} sectors", player.getName().getString(), dimension, differing.length);
+
+            PacketByteBuf buf = PacketByteBufs.create();
+            buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+            buf.writeString(dimension);
+            ClaimCodec.writeRegions(buf, differing);
+            buf.writeVarInt(regions.size());
+            for (Map.Entry<Long, Long> entry : regions.entrySet()) {
+                buf.writeLong(entry.getKey());
+                buf.writeLong(entry.getValue());
+            }
+            PlayerSendQueue.send(player, PlayerSendQueue.packet(JourneyFactionsIntegration.CLAIM_HASH_REGIONS, buf));
+
+        } catch (Exception e) {
+            JourneyFactionsMain.LOGGER.error("Error checking claim hashes for player: " + player.getName().getString(), e);
+        }
+    }
+
+    private static void handleRegionRequest(ServerPlayerEntity player, String dimension, long[] regionKeys) {
+        InterestArea area = InterestManager.get(player);
+        ClaimBroadcastBatcher.LongList allowed = new ClaimBroadcastBatcher.LongList();
+        for (long regionKey : regionKeys) {
+            if (allowed.size() == MAX_REGIONS_PER_REQUEST) {
+                break;
+            }
+            if (area == null || area.containsRegion(dimension, ChunkPos.getPackedX(regionKey), ChunkPos.getPackedZ(regionKey))) {
+                allowed.add(regionKey);
+            }
+        }
+        JourneyFactionsMain.LOGGER.debug("Resending {} regions in {} to {}", allowed.size(), dimension, player.getName().getString());
+
+        ClaimBroadcastBatcher.flush();
+        JourneyFactionsIntegration.sendRegionSync(player, dimension, new long[0], dimension, allowed.toArray());
+    }
+}
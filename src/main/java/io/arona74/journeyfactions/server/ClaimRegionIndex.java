@@ -0,0 +1,211 @@
+package io.arona74.journeyfactions.server;
+
+import io.arona74.journeyfactions.JourneyFactionsMain;
+import io.arona74.journeyfactions.network.ClaimCodec;
+import io.arona74.journeyfactions.network.ClaimTreeHash;
+import io.icker.factions.api.persistents.Claim;
+import io.icker.factions.api.persistents.Faction;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Claim owners bucketed by dimension and region (see {@link ClaimCodec#REGION_SHIFT}), so the
+ * claims in a player's area of interest can be collected without walking every faction.
+ * Also keeps the {@link ClaimTreeHash} of every region and sector, for clients checking
+ * their claims against ours. Built from the factions data on first use and kept current by
+ * the claim event listeners.
+ */
+public class ClaimRegionIndex {
+
+    private static final class Region {
+        // Chunk key -> owning faction
+        final Map<Long, UUID> owners = new HashMap<>();
+        long hash;
+    }
+
+    private static final class DimensionRegions {
+        final Map<Long, Region> regions = new HashMap<>();
+        // Sector key -> sum of its region hashes
+        final Map<Long, Long> sectorHashes = new HashMap<>();
+    }
+
+    // Dimension ID -> regions
+    private static final Map<String, DimensionRegions> dimensions = new HashMap<>();
+    private static boolean built = false;
+
+    public static synchronized void claimAdded(String dimension, long chunkKey, UUID factionId) {
+        if (built) {
+            put(dimension, chunkKey, factionId);
+        }
+    }
+
+    /**
+     * @return the faction that owned the chunk, or null if the index does not know it
+     */
+    public static synchronized UUID claimRemoved(String dimension, long chunkKey) {
+        return built ? remove(dimension, chunkKey) : null;
+    }
+
+    /**
+     * Drop a disbanded faction's claims
+     */
+    public static synchronized void factionRemoved(UUID factionId) {
+        if (!built) {
+            return;
+        }
+        for (DimensionRegions dimensionRegions : dimensions.values()) {
+            dimensionRegions.regions.entrySet().removeIf(entry -> {
+                long sectorKey = ClaimTreeHash.sectorOf(entry.getKey());
+                Region region = entry.getValue();
+                region.owners.entrySet().removeIf(owner -> {
+                    if (!factionId.equals(owner.getValue())) {
+                        return false;
+                    }
+                    long hash = ClaimTreeHash.entryHash(owner.getKey(), factionId);
+                    region.hash -= hash;
+                    addToSector(dimensionRegions, sectorKey, -hash);
+                    return true;
+                });
+                return region.owners.isEmpty();
+            });
+        }
+    }
+
+    /**
+     * Claims per faction in the given regions of a dimension
+     */
+    public static synchronized Map<UUID, ClaimBroadcastBatcher.LongList> collect(String dimension, long[] regionKeys) {
+        ensureBuilt();
+        Map<UUID, ClaimBroadcastBatcher.LongList> claims = new LinkedHashMap<>();
+        DimensionRegions dimensionRegions = dimensions.get(dimension);
+        if (dimensionRegions == null) {
+            return claims;
+        }
+        for (long regionKey : regionKeys) {
+            Region region = dimensionRegions.regions.get(regionKey);
+            if (region == null) {
+                continue;
+            }
+            for (Map.Entry<Long, UUID> entry : region.owners.entrySet()) {
+                claims.computeIfAbsent(entry.getValue(), id -> new ClaimBroadcastBatcher.LongList()).add(entry.getKey());
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Sector hashes of a dimension, or only of the regions inside {@code area} if it is not null
+     */
+    public static synchronized Map<Long, Long> sectorHashes(String dimension, InterestArea area) {
+        ensureBuilt();
+        DimensionRegions dimensionRegions = dimensions.get(dimension);
+        if (dimensionRegions == null) {
+            return new HashMap<>();
+        }
+        if (area == null) {
+            return new HashMap<>(dimensionRegions.sectorHashes);
+        }
+        Map<Long, Long> hashes = new HashMap<>();
+        for (long regionKey : area.regionsNotIn(null)) {
+            Region region = dimensionRegions.regions.get(regionKey);
+            if (region != null) {
+                hashes.merge(ClaimTreeHash.sectorOf(regionKey), region.hash, Long::sum);
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Hashes of the claimed regions in the given sectors, limited to {@code area} if it is not null
+     */
+    public static synchronized Map<Long, Long> regionHashes(String dimension, long[] sectorKeys, InterestArea area) {
+        ensureBuilt();
+        Map<Long, Long> hashes = new HashMap<>();
+        DimensionRegions dimensionRegions = dimensions.get(dimension);
+        if (dimensionRegions == null) {
+            return hashes;
+        }
+        int sectorSize = 1 << ClaimTreeHash.SECTOR_SHIFT;
+        for (long sectorKey : sectorKeys) {
+            int minX = ChunkPos.getPackedX(sectorKey) << ClaimTreeHash.SECTOR_SHIFT;
+            int minZ = ChunkPos.getPackedZ(sectorKey) << ClaimTreeHash.SECTOR_SHIFT;
+            for (int x = minX; x < minX + sectorSize; x++) {
+                for (int z = minZ; z < minZ + sectorSize; z++) {
+                    if (area != null && !area.containsRegion(dimension, x, z)) {
+                        continue;
+                    }
+                    long regionKey = ChunkPos.toLong(x, z);
+                    Region region = dimensionRegions.regions.get(regionKey);
+                    if (region != null) {
+                        hashes.put(regionKey, region.hash);
+                    }
+                }
+            }
+        }
+        return hashes;
+    }
+
+    public static synchronized void clear() {
+        dimensions.clear();
+        built = false;
+    }
+
+    private static void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        int count = 0;
+        for (Faction faction : Faction.all()) {
+            UUID factionId = faction.getID();
+            for (Claim claim : faction.getClaims()) {
+                put(claim.level, ChunkPos.toLong(claim.x, claim.z), factionId);
+                count++;
+            }
+        }
+        built = true;
+        JourneyFactionsMain.LOGGER.debug("Built claim region index: {} claims", count);
+    }
+
+    private static void put(String dimension, long chunkKey, UUID factionId) {
+        DimensionRegions dimensionRegions = dimensions.computeIfAbsent(dimension, d -> new DimensionRegions());
+        long regionKey = ClaimTreeHash.regionOf(chunkKey);
+        Region region = dimensionRegions.regions.computeIfAbsent(regionKey, r -> new Region());
+        UUID previous = region.owners.put(chunkKey, factionId);
+        long delta = ClaimTreeHash.entryHash(chunkKey, factionId)
+                - (previous != null ? ClaimTreeHash.entryHash(chunkKey, previous) : 0);
+        region.hash += delta;
+        addToSector(dimensionRegions, ClaimTreeHash.sectorOf(regionKey), delta);
+    }
+
+    private static UUID remove(String dimension, long chunkKey) {
+        DimensionRegions dimensionRegions = dimensions.get(dimension);
+        if (dimensionRegions == null) {
+            return null;
+        }
+        long regionKey = ClaimTreeHash.regionOf(chunkKey);
+        Region region = dimensionRegions.regions.get(regionKey);
+        if (region == null) {
+            return null;
+        }
+        UUID previous = region.owners.remove(chunkKey);
+        if (previous == null) {
+            return null;
+        }
+        long hash = ClaimTreeHash.entryHash(chunkKey, previous);
+        region.hash -= hash;
+        addToSector(dimensionRegions, ClaimTreeHash.sectorOf(regionKey), -hash);
+        if (region.owners.isEmpty()) {
+            dimensionRegions.regions.remove(regionKey);
+        }
+        return previous;
+    }
+
+    private static void addToSector(DimensionRegions dimensionRegions, long sectorKey, long delta) {
+        // An empty sector sums to zero and is dropped
+        dimensionRegions.sectorHashes.merge(sectorKey, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+}
@@ -0,0 +1,136 @@
+package io.arona74.journeyfactions.server;
+
+import io.icker.factions.api.persistents.Faction;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.network.PacketByteBuf;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches each faction's encoded packet segment (legacy and compact formats) so a full sync
+ * is a concatenation of byte arrays instead of re-encoding every faction for every player.
+ * Segments are dropped by the faction and claim event listeners and re-encoded lazily.
+ */
+public class FactionSnapshotCache {
+
+    private static final Map<UUID, byte[]> legacySegments = new ConcurrentHashMap<>();
+    private static final Map<UUID, byte[]> compactSegments = new ConcurrentHashMap<>();
+    // Per-faction FactionStateHash, compared against what reconnecting clients have cached
+    private static final Map<UUID, Long> stateHashes = new ConcurrentHashMap<>();
+
+    // Per-faction claim version, bumped on every claim or unclaim. Sent with compact faction
+    // data and claim deltas so clients can detect a missed update.
+    private static final Map<UUID, Integer> claimVersions = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, so callers can tell whether anything changed since a sync
+    private static final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Drop the cached segments of a faction whose data changed
+     */
+    public static void invalidate(Faction faction) {
+        invalidate(faction.getID());
+    }
+
+    public static void invalidate(UUID factionId) {
+        legacySegments.remove(factionId);
+        compactSegments.remove(factionId);
+        stateHashes.remove(factionId);
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Record a claim change for a faction: drops its segments and bumps its claim version
+     * @return the new claim version
+     */
+    public static int claimsChanged(UUID factionId) {
+        invalidate(factionId);
+        return claimVersions.merge(factionId, 1, Integer::sum);
+    }
+
+    public static int getClaimVersion(UUID factionId) {
+        return claimVersions.getOrDefault(factionId, 0);
+    }
+
+    /**
+     * Forget everything about a disbanded faction
+     */
+    public static void remove(UUID factionId) {
+        invalidate(factionId);
+        claimVersions.remove(factionId);
+    }
+
+    public static void clear() {
+        legacySegments.clear();
+        compactSegments.clear();
+        stateHashes.clear();
+        generation.incrementAndGet();
+    }
+
+    public static long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Write the faction count followed by every faction's cached segment
+     */
+    public static void writeFullSync(PacketByteBuf buf, Collection<Faction> factions, boolean compact) {
+        buf.writeVarInt(factions.size());
+        for (Faction faction : factions) {
+            buf.writeBytes(getSegment(faction, compact));
+        }
+    }
+
+    /**
+     * Write a single faction's cached segment
+     */
+    public static void writeFaction(PacketByteBuf buf, Faction faction, boolean compact) {
+        buf.writeBytes(getSegment(faction, compact));
+    }
+
+    /**
+     * The faction's {@link io.arona74.journeyfactions.network.FactionStateHash}, cached like the segments
+     */
+    public static long getStateHash(Faction faction) {
+        Long hash = stateHashes.get(faction.getID());
+        if (hash == null) {
+            long generationBefore = generation.get();
+            hash = JourneyFactionsIntegration.computeStateHash(faction);
+            if (generation.get() == generationBefore) {
+                stateHashes.put(faction.getID(), hash);
+            }
+        }
+        return hash;
+    }
+
+    static byte[] getSegment(Faction faction, boolean compact) {
+        Map<UUID, byte[]> segments = compact ? compactSegments : legacySegments;
+        byte[] segment = segments.get(faction.getID());
+        if (segment == null) {
+            long generationBefore = generation.get();
+            segment = encode(faction, compact);
+            // Only keep it if no invalidation raced with the encode
+            if (generation.get() == generationBefore) {
+                segments.put(faction.getID(), segment);
+            }
+        }
+        return segment;
+    }
+
+    private static byte[] encode(Faction faction, boolean compact) {
+        PacketByteBuf buf = PacketByteBufs.create();
+        if (compact) {
+            JourneyFactionsIntegration.writeCompactFactionToBuffer(buf, faction);
+        } else {
+            JourneyFactionsIntegration.writeFactionToBuffer(buf, faction);
+        }
+        byte[] segment = new byte[buf.readableBytes()];
+        buf.readBytes(segment);
+        buf.release();
+        return segment;
+    }
+}
@@ -0,0 +1,144 @@
+package io.arona74.journeyfactions.server;
+
+import io.arona74.journeyfactions.JourneyFactionsMain;
+import io.arona74.journeyfactions.network.ClaimCodec;
+import io.icker.factions.api.persistents.Faction;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends compact full syncs as a stream of bounded fragments over FACTION_DATA_STREAM instead
+ * of one packet holding every claim. Fragments are made as the player's {@link PlayerSendQueue}
+ * drains, so a stream paces itself to what the player is sent per tick.
+ * Each fragment starts with the format byte and a fragment type:
+ * <pre>
+ *   BEGIN  varint factionCount
+ *   BATCH  varint count, compact faction segments
+ *   END
+ * </pre>
+ * Segments are taken when their fragment is sent, so factions that change while a stream
+ * is running go out current.
+ */
+public class FullSyncStreamer {
+
+    public static final int BEGIN = 0;
+    public static final int BATCH = 1;
+    public static final int END = 2;
+
+    // Soft cap per BATCH fragment; a single larger faction still goes out alone
+    private static final int MAX_FRAGMENT_BYTES = 64 * 1024;
+    // New fragments are only made while the player's send queue holds less than this
+    private static final int MAX_QUEUED_BYTES = 256 * 1024;
+
+    // Player -> factions still to send
+    private static final Map<UUID, Deque<UUID>> streams = new ConcurrentHashMap<>();
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (streams.isEmpty()) {
+                return;
+            }
+            Iterator<Map.Entry<UUID, Deque<UUID>>> it = streams.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<UUID, Deque<UUID>> entry = it.next();
+                ServerPlayerEntity player = server.getPlayerManager().getPlayer(entry.getKey());
+                if (player == null || sendFragments(player, entry.getValue())) {
+                    it.remove();
+                }
+            }
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> streams.clear());
+    }
+
+    /**
+     * Start streaming every faction to a player, replacing any stream already running for them.
+     * The first tick's worth goes out right away.
+     */
+    public static void start(ServerPlayerEntity player, Collection<Faction> factions) {
+        Deque<UUID> remaining = new ArrayDeque<>(factions.size());
+        for (Faction faction : factions) {
+            remaining.add(faction.getID());
+        }
+
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+        buf.writeByte(BEGIN);
+        buf.writeVarInt(remaining.size());
+        PlayerSendQueue.send(player, PlayerSendQueue.packet(JourneyFactionsIntegration.FACTION_DATA_STREAM, buf));
+
+        if (sendFragments(player, remaining)) {
+            streams.remove(player.getUuid());
+        } else {
+            streams.put(player.getUuid(), remaining);
+        }
+    }
+
+    public static void cancel(UUID playerId) {
+        streams.remove(playerId);
+    }
+
+    /**
+     * Make fragments until the player's send queue is full enough
+     * @return true once the stream is complete (END sent)
+     */
+    private static boolean sendFragments(ServerPlayerEntity player, Deque<UUID> remaining) {
+        try {
+            // Queued claims first, so a segment is not followed by a batch it already contains
+            ClaimBroadcastBatcher.flush();
+
+            while (!remaining.isEmpty() && PlayerSendQueue.getQueuedBytes(player) < MAX_QUEUED_BYTES) {
+                List<byte[]> segments = new ArrayList<>();
+                int fragmentBytes = 0;
+                while (!remaining.isEmpty() && (segments.isEmpty() || fragmentBytes < MAX_FRAGMENT_BYTES)) {
+                    Faction faction = Faction.get(remaining.poll());
+                    if (faction == null) {
+                        continue; // Disbanded meanwhile; the client got the deletion
+                    }
+                    byte[] segment = FactionSnapshotCache.getSegment(faction, true);
+                    segments.add(segment);
+                    fragmentBytes += segment.length;
+                }
+                if (segments.isEmpty()) {
+                    break;
+                }
+
+                PacketByteBuf buf = PacketByteBufs.create();
+                buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+                buf.writeByte(BATCH);
+                buf.writeVarInt(segments.size());
+                for (byte[] segment : segments) {
+                    buf.writeBytes(segment);
+                }
+                PlayerSendQueue.send(player, PlayerSendQueue.packet(JourneyFactionsIntegration.FACTION_DATA_STREAM, buf));
+            }
+
+            if (!remaining.isEmpty()) {
+                return false;
+            }
+            PacketByteBuf buf = PacketByteBufs.create();
+            buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+            buf.writeByte(END);
+            PlayerSendQueue.send(player, PlayerSendQueue.packet(JourneyFactionsIntegration.FACTION_DATA_STREAM, buf));
+            JourneyFactionsMain.LOGGER.debug("Finished streaming factions data to {}", player.getName().getString());
+            return true;
+
+        } catch (Exception e) {
+            JourneyFactionsMain.LOGGER.error("Error streaming factions data to player: " + player.getName().getString(), e);
+            return true;
+        }
+    }
+}
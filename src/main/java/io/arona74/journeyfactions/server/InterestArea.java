@@ -0,0 +1,85 @@
+package io.arona74.journeyfactions.server;
+
+import io.arona74.journeyfactions.network.ClaimCodec;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Objects;
+
+/**
+ * A player's area of interest: a square of regions (see {@link ClaimCodec#REGION_SHIFT})
+ * in one dimension, bounds inclusive
+ */
+public final class InterestArea {
+
+    public final String dimension;
+    public final int minRegionX;
+    public final int minRegionZ;
+    public final int maxRegionX;
+    public final int maxRegionZ;
+
+    public InterestArea(String dimension, int minRegionX, int minRegionZ, int maxRegionX, int maxRegionZ) {
+        this.dimension = dimension;
+        this.minRegionX = minRegionX;
+        this.minRegionZ = minRegionZ;
+        this.maxRegionX = maxRegionX;
+        this.maxRegionZ = maxRegionZ;
+    }
+
+    /**
+     * The regions within {@code radiusChunks} of a chunk
+     */
+    public static InterestArea around(String dimension, ChunkPos center, int radiusChunks) {
+        return new InterestArea(dimension,
+                (center.x - radiusChunks) >> ClaimCodec.REGION_SHIFT,
+                (center.z - radiusChunks) >> ClaimCodec.REGION_SHIFT,
+                (center.x + radiusChunks) >> ClaimCodec.REGION_SHIFT,
+                (center.z + radiusChunks) >> ClaimCodec.REGION_SHIFT);
+    }
+
+    public boolean containsRegion(String dimension, int regionX, int regionZ) {
+        return this.dimension.equals(dimension)
+                && regionX >= minRegionX && regionX <= maxRegionX
+                && regionZ >= minRegionZ && regionZ <= maxRegionZ;
+    }
+
+    public boolean containsChunk(String dimension, long chunkKey) {
+        return containsRegion(dimension,
+                ChunkPos.getPackedX(chunkKey) >> ClaimCodec.REGION_SHIFT,
+                ChunkPos.getPackedZ(chunkKey) >> ClaimCodec.REGION_SHIFT);
+    }
+
+    /**
+     * Region keys of this area that are not in {@code other} (all of them if other is null)
+     */
+    public long[] regionsNotIn(InterestArea other) {
+        ClaimBroadcastBatcher.LongList regions = new ClaimBroadcastBatcher.LongList();
+        for (int x = minRegionX; x <= maxRegionX; x++) {
+            for (int z = minRegionZ; z <= maxRegionZ; z++) {
+                if (other == null || !other.containsRegion(dimension, x, z)) {
+                    regions.add(ChunkPos.toLong(x, z));
+                }
+            }
+        }
+        return regions.toArray();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof InterestArea)) return false;
+        InterestArea that = (InterestArea) obj;
+        return minRegionX == that.minRegionX && minRegionZ == that.minRegionZ
+                && maxRegionX == that.maxRegionX && maxRegionZ == that.maxRegionZ
+                && dimension.equals(that.dimension);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dimension, minRegionX, minRegionZ, maxRegionX, maxRegionZ);
+    }
+
+    @Override
+    public String toString() {
+        return dimension + " regions " + minRegionX + "," + minRegionZ + " -> " + maxRegionX + "," + maxRegionZ;
+    }
+}
@@ -0,0 +1,83 @@
+package io.arona74.journeyfactions.server;
+
+import io.arona74.journeyfactions.JourneyFactionsMain;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Area-of-interest sync (enabled by {@link ServerConfig#interestRadiusChunks}): tracks the
+ * regions each compact-format player has been sent, and streams regions in and out as the
+ * player moves. Players without a tracked area get every claim, as before.
+ */
+public class InterestManager {
+
+    // Area each player was last synced for
+    private static final Map<UUID, InterestArea> interests = new ConcurrentHashMap<>();
+    private static int tickCounter = 0;
+
+    public static boolean isEnabled() {
+        return ServerConfig.interestRadiusChunks > 0;
+    }
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (interests.isEmpty() || ++tickCounter < ServerConfig.interestUpdateIntervalTicks) {
+                return;
+            }
+            tickCounter = 0;
+
+            boolean flushed = false;
+            for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+                InterestArea previous = interests.get(player.getUuid());
+                if (previous == null) {
+                    continue; // Not synced in area-of-interest mode
+                }
+                InterestArea current = areaOf(player);
+                if (current.equals(previous)) {
+                    continue;
+                }
+                if (!flushed) {
+                    // Queued claims go out for the areas players had when they were made
+                    ClaimBroadcastBatcher.flush();
+                    flushed = true;
+                }
+                JourneyFactionsMain.LOGGER.debug("Player {} moved to {}", player.getName().getString(), current);
+                JourneyFactionsIntegration.sendRegionSync(player, previous, current);
+                interests.put(player.getUuid(), current);
+            }
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            interests.clear();
+            ClaimRegionIndex.clear();
+        });
+    }
+
+    /**
+     * The area a player should currently be synced for
+     */
+    public static InterestArea areaOf(ServerPlayerEntity player) {
+        String dimension = player.getWorld().getRegistryKey().getValue().toString();
+        return InterestArea.around(dimension, player.getChunkPos(), ServerConfig.interestRadiusChunks);
+    }
+
+    /**
+     * @return the area a player was last synced for, or null if they get every claim
+     */
+    public static InterestArea get(ServerPlayerEntity player) {
+        return interests.get(player.getUuid());
+    }
+
+    static void track(ServerPlayerEntity player, InterestArea area) {
+        interests.put(player.getUuid(), area);
+    }
+
+    static void forget(UUID playerId) {
+        interests.remove(playerId);
+    }
+}
@@ -3,32 +3,53 @@ package io.arona74.journeyfactions.server;
 import io.arona74.journeyfactions.JourneyFactionsMain;
 import io.icker.factions.api.events.ClaimEvents;
 import io.icker.factions.api.events.FactionEvents;
+import io.arona74.journeyfactions.util.TickScheduler;
 import io.icker.factions.api.persistents.Faction;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.util.math.ChunkPos;
 
+import java.util.UUID;
+
 /**
  * Event listeners to broadcast faction changes to JourneyFactions clients
  */
 public class JourneyFactionsEventListeners {
 
+    // Delay before a membership change is broadcast, so the member is properly added/removed
+    private static final int MEMBER_UPDATE_DELAY_TICKS = 2;
+
+    // Deferred faction updates, run on the server thread
+    private static final TickScheduler scheduler = new TickScheduler();
+
     public static void register() {
         JourneyFactionsMain.LOGGER.info("Registering JourneyFactions event listeners...");
 
+        ServerTickEvents.END_SERVER_TICK.register(server -> scheduler.tick());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> scheduler.clear());
+
         // Listen for faction modifications (name, color, etc.)
         FactionEvents.MODIFY.register((faction) -> {
             JourneyFactionsMain.LOGGER.debug("Faction modified: {}, broadcasting update", faction.getName());
-            JourneyFactionsIntegration.broadcastFactionUpdate(faction);
+            FactionSnapshotCache.invalidate(faction);
+            ClaimBroadcastBatcher.flush(); // Claims queued this tick go out first
+            JourneyFactionsIntegration.broadcastFactionMetadata(faction);
         });
 
         // Listen for faction creation
         FactionEvents.CREATE.register((faction, user) -> {
             JourneyFactionsMain.LOGGER.debug("Faction created: {}, broadcasting update", faction.getName());
+            FactionSnapshotCache.invalidate(faction);
+            ClaimBroadcastBatcher.flush();
             JourneyFactionsIntegration.broadcastFactionUpdate(faction);
         });
 
         // Listen for faction disband
         FactionEvents.DISBAND.register((faction) -> {
             JourneyFactionsMain.LOGGER.debug("Faction disbanded: {}, broadcasting deletion", faction.getName());
+            FactionSnapshotCache.remove(faction.getID());
+            ClaimRegionIndex.factionRemoved(faction.getID());
+            ClaimBroadcastBatcher.flush();
             JourneyFactionsIntegration.broadcastFactionDeletion(faction);
         });
 
@@ -37,20 +58,33 @@ public class JourneyFactionsEventListeners {
             ChunkPos chunk = new ChunkPos(claim.x, claim.z);
             Faction faction = claim.getFaction();
             if (faction != null) {
-                JourneyFactionsMain.LOGGER.debug("Chunk claimed: {} by {}, broadcasting", chunk, faction.getName());
-                JourneyFactionsIntegration.broadcastChunkClaim(chunk, faction);
+                int claimVersion = FactionSnapshotCache.claimsChanged(faction.getID());
+                ClaimRegionIndex.claimAdded(claim.level, chunk.toLong(), faction.getID());
+                JourneyFactionsMain.LOGGER.debug("Chunk claimed: {} in {} by {}, queued for broadcast", chunk, claim.level, faction.getName());
+                ClaimBroadcastBatcher.chunkClaimed(claim.level, chunk, faction, claimVersion);
             }
         });
 
         // Listen for chunk unclaims - this receives x, z, level, faction parameters
         ClaimEvents.REMOVE.register((x, z, level, faction) -> {
             ChunkPos chunk = new ChunkPos(x, z);
-            if (faction != null) {
-                JourneyFactionsMain.LOGGER.debug("Chunk unclaimed: {} from {}, broadcasting", chunk, faction.getName());
+            // The event does not always name the owner - the region index remembers it
+            UUID previousOwner = ClaimRegionIndex.claimRemoved(level, chunk.toLong());
+            Faction owner = faction != null ? faction : previousOwner != null ? Faction.get(previousOwner) : null;
+            int claimVersion = 0;
+            if (owner != null) {
+                JourneyFactionsMain.LOGGER.debug("Chunk unclaimed: {} in {} from {}, queued for broadcast", chunk, level, owner.getName());
+                claimVersion = FactionSnapshotCache.claimsChanged(owner.getID());
+            } else if (previousOwner != null) {
+                // Owner already gone, its segment is dropped with it
+                FactionSnapshotCache.claimsChanged(previousOwner);
+                JourneyFactionsMain.LOGGER.debug("Chunk unclaimed: {} in {}, queued for broadcast", chunk, level);
             } else {
-                JourneyFactionsMain.LOGGER.debug("Chunk unclaimed: {}, broadcasting", chunk);
+                // Owner unknown - we cannot tell which segment holds this chunk
+                FactionSnapshotCache.clear();
+                JourneyFactionsMain.LOGGER.debug("Chunk unclaimed: {} in {}, queued for broadcast", chunk, level);
             }
-            JourneyFactionsIntegration.broadcastChunkUnclaim(chunk);
+            ClaimBroadcastBatcher.chunkUnclaimed(level, chunk, owner, claimVersion);
         });
 
         // Listen for member changes (affects faction power/display)
@@ -70,17 +104,14 @@ public class JourneyFactionsEventListeners {
     }
 
     /**
-     * Schedule a delayed faction update to ensure data consistency
+     * Schedule a delayed faction update to ensure data consistency. Several member changes
+     * of the same faction before it runs result in a single broadcast.
      */
     private static void scheduleUpdate(Faction faction) {
-        // Use server scheduler to delay the update slightly
-        new Thread(() -> {
-            try {
-                Thread.sleep(100); // 100ms delay
-                JourneyFactionsIntegration.broadcastFactionUpdate(faction);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        scheduler.schedule(faction.getID(), MEMBER_UPDATE_DELAY_TICKS, () -> {
+            // Membership does not change claims - metadata is enough
+            ClaimBroadcastBatcher.flush();
+            JourneyFactionsIntegration.broadcastFactionMetadata(faction);
+        });
     }
 }
@@ -1,6 +1,8 @@
 package io.arona74.journeyfactions.server;
 
 import io.arona74.journeyfactions.JourneyFactionsMain;
+import io.arona74.journeyfactions.network.ClaimCodec;
+import io.arona74.journeyfactions.network.FactionStateHash;
 import io.icker.factions.api.persistents.Claim;
 import io.icker.factions.api.persistents.Faction;
 import io.icker.factions.core.FactionsManager;
@@ -11,12 +13,20 @@ import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 import java.awt.Color;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles network communication to JourneyFactions client mod
@@ -31,52 +41,186 @@ public class JourneyFactionsIntegration {
     public static final Identifier FACTION_DELETE = new Identifier("factions", "faction_delete");
     public static final Identifier CLIENT_REQUEST_DATA = new Identifier("factions", "client_request_data");
 
+    // Compact format channels (see ClaimCodec) - payload starts with a format version byte.
+    // Only used for clients that registered a receiver; older clients keep the legacy channels.
+    public static final Identifier FACTION_DATA_SYNC_COMPACT = new Identifier("factions", "faction_data_sync_compact");
+    public static final Identifier FACTION_UPDATE_COMPACT = new Identifier("factions", "faction_update_compact");
+    public static final Identifier FACTION_META_UPDATE = new Identifier("factions", "faction_meta_update");
+    public static final Identifier CHUNK_BATCH = new Identifier("factions", "chunk_batch");
+    public static final Identifier FACTION_RESYNC_REQUEST = new Identifier("factions", "faction_resync_request");
+    // Area-of-interest mode: regions streamed in and out as the player moves
+    public static final Identifier REGION_SYNC = new Identifier("factions", "region_sync");
+    // Reply to a CLIENT_REQUEST_DATA carrying the client's cached faction states: only the differences
+    public static final Identifier FACTION_DATA_RESUME = new Identifier("factions", "faction_data_resume");
+    // Claim hash checks (see ClaimReconciler); differing regions are resent as a REGION_SYNC
+    public static final Identifier CLAIM_HASH_CHECK = new Identifier("factions", "claim_hash_check");
+    public static final Identifier CLAIM_HASH_REGIONS = new Identifier("factions", "claim_hash_regions");
+    public static final Identifier CLAIM_REGION_REQUEST = new Identifier("factions", "claim_region_request");
+    // Full sync as a stream of bounded fragments (see FullSyncStreamer)
+    public static final Identifier FACTION_DATA_STREAM = new Identifier("factions", "faction_data_stream");
+
+    // Legacy clients have no notion of dimension and draw every claim on the overworld map,
+    // so they are only sent overworld claims
+    static final String LEGACY_DIMENSION = World.OVERWORLD.getValue().toString();
+
+    // Snapshot generation and format of the last full sync sent to each online player
+    private static final Map<UUID, FullSyncRecord> lastFullSyncs = new ConcurrentHashMap<>();
+
+    private static final class FullSyncRecord {
+        final long generation;
+        final boolean compact;
+
+        FullSyncRecord(long generation, boolean compact) {
+            this.generation = generation;
+            this.compact = compact;
+        }
+    }
+
+    // What a reconnecting client has cached for one faction
+    private static final class CachedFactionState {
+        final int claimVersion;
+        final long stateHash;
+
+        CachedFactionState(int claimVersion, long stateHash) {
+            this.claimVersion = claimVersion;
+            this.stateHash = stateHash;
+        }
+    }
+
     public static void initialize() {
         JourneyFactionsMain.LOGGER.info("Initializing JourneyFactions integration...");
 
-        // Handle client requests for faction data
+        ServerConfig.load();
+
+        // Handle client requests for faction data. Clients with a claim cache send what they
+        // have; older clients send an empty request.
         ServerPlayNetworking.registerGlobalReceiver(CLIENT_REQUEST_DATA, (server, player, handler, buf, responseSender) -> {
             JourneyFactionsMain.LOGGER.info("Player {} requested factions data for JourneyMap", player.getName().getString());
+            Map<UUID, CachedFactionState> cached = readCachedFactionStates(buf);
+
+            server.execute(() -> {
+                if (cached != null && supportsResume(player)) {
+                    sendFactionResumeToPlayer(player, cached);
+                } else {
+                    sendFactionDataToPlayer(player);
+                }
+            });
+        });
+
+        // Handle client requests to resend one faction (claim version gap detected)
+        ServerPlayNetworking.registerGlobalReceiver(FACTION_RESYNC_REQUEST, (server, player, handler, buf, responseSender) -> {
+            UUID factionId = buf.readUuid();
+            JourneyFactionsMain.LOGGER.debug("Player {} requested resync of faction {}", player.getName().getString(), factionId);
 
             server.execute(() -> {
-                sendFactionDataToPlayer(player);
+                // Pending claims first, so the snapshot is not followed by a stale batch
+                ClaimBroadcastBatcher.flush();
+                sendFactionResyncToPlayer(player, factionId);
             });
         });
 
-        // Send faction data when players join
+        // Send faction data when players join, if their client already registered our channels;
+        // otherwise the client's own CLIENT_REQUEST_DATA triggers the sync. Clients that can
+        // resume from their claim cache always ask, so they are left to do that.
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
             // Small delay to ensure client is ready
             server.execute(() -> {
-                sendFactionDataToPlayer(handler.player);
+                if (ServerPlayNetworking.canSend(handler.player, FACTION_DATA_RESUME)) {
+                    return;
+                }
+                if (ServerPlayNetworking.canSend(handler.player, FACTION_DATA_SYNC)
+                        || ServerPlayNetworking.canSend(handler.player, FACTION_DATA_SYNC_COMPACT)) {
+                    sendFactionDataToPlayer(handler.player);
+                }
             });
         });
 
+        // Forget what we sent to players who left
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            lastFullSyncs.remove(handler.player.getUuid());
+            InterestManager.forget(handler.player.getUuid());
+            FullSyncStreamer.cancel(handler.player.getUuid());
+            PlayerSendQueue.forget(handler.player.getUuid());
+        });
+
         // Register event listeners for faction changes
         JourneyFactionsEventListeners.register();
 
+        // Claim changes are coalesced per tick
+        ClaimBroadcastBatcher.register();
+
+        // Players synced in area-of-interest mode get regions streamed as they move
+        InterestManager.register();
+
+        // Clients periodically check their claims against ours
+        ClaimReconciler.register();
+
+        // Full syncs to clients that take them in fragments go out over several ticks
+        FullSyncStreamer.register();
+
+        // Last, so the packets queued by the tick handlers above go out in the same tick
+        PlayerSendQueue.register();
+
         JourneyFactionsMain.LOGGER.info("JourneyFactions integration initialized successfully");
     }
 
     /**
-     * Send all faction data to a player
+     * Send a player a fresh full sync, even if they had the current snapshot (their packet
+     * queue was dropped)
+     */
+    static void resyncPlayer(ServerPlayerEntity player) {
+        lastFullSyncs.remove(player.getUuid());
+        sendFactionDataToPlayer(player);
+    }
+
+    /**
+     * Send all faction data to a player: streamed in fragments to clients that take them,
+     * otherwise as one packet
      */
     public static void sendFactionDataToPlayer(ServerPlayerEntity player) {
         try {
-            JourneyFactionsMain.LOGGER.debug("Sending factions data to player: {}", player.getName().getString());
+            boolean compact = supportsCompactFormat(player);
+
+            // Skip the resend if this player already has the current snapshot in this format
+            // (JOIN and CLIENT_REQUEST_DATA both ask for a sync on login)
+            long generation = FactionSnapshotCache.getGeneration();
+            FullSyncRecord previous = lastFullSyncs.get(player.getUuid());
+            if (previous != null && previous.generation == generation && previous.compact == compact) {
+                JourneyFactionsMain.LOGGER.debug("Player {} already has the current factions data, skipping sync", player.getName().getString());
+                return;
+            }
 
-            PacketByteBuf buf = PacketByteBufs.create();
+            JourneyFactionsMain.LOGGER.debug("Sending factions data to player: {}", player.getName().getString());
 
             // Get all factions
             Collection<Faction> allFactions = Faction.all();
+            JourneyFactionsMain.LOGGER.debug("Sending {} factions to {} (compact: {})", allFactions.size(), player.getName().getString(), compact);
+
+            boolean interest = compact && supportsInterestSync(player);
+            if (compact && !interest && ServerPlayNetworking.canSend(player, FACTION_DATA_STREAM)) {
+                // Bounded fragments over the next ticks instead of one packet with every claim
+                FullSyncStreamer.start(player, allFactions);
+                lastFullSyncs.put(player.getUuid(), new FullSyncRecord(generation, compact));
+                return;
+            }
 
-            buf.writeVarInt(allFactions.size());
-            JourneyFactionsMain.LOGGER.debug("Sending {} factions to {}", allFactions.size(), player.getName().getString());
+            PacketByteBuf buf = PacketByteBufs.create();
+            if (compact) {
+                buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+            }
 
-            for (Faction faction : allFactions) {
-                writeFactionToBuffer(buf, faction);
+            if (interest) {
+                // Every faction, but only the claims around the player
+                InterestArea area = InterestManager.areaOf(player);
+                writeInterestFullSync(buf, allFactions, area);
+                InterestManager.track(player, area);
+            } else {
+                // Concatenate the cached per-faction segments
+                FactionSnapshotCache.writeFullSync(buf, allFactions, compact);
             }
 
-            ServerPlayNetworking.send(player, FACTION_DATA_SYNC, buf);
+            PlayerSendQueue.send(player, PlayerSendQueue.packet(compact ? FACTION_DATA_SYNC_COMPACT : FACTION_DATA_SYNC, buf));
+            lastFullSyncs.put(player.getUuid(), new FullSyncRecord(generation, compact));
             JourneyFactionsMain.LOGGER.debug("Factions data sent successfully to {}", player.getName().getString());
 
         } catch (Exception e) {
@@ -84,6 +228,81 @@ public class JourneyFactionsIntegration {
         }
     }
 
+    /**
+     * Read the cached faction states of a CLIENT_REQUEST_DATA, or null for a plain request
+     */
+    private static Map<UUID, CachedFactionState> readCachedFactionStates(PacketByteBuf buf) {
+        if (!buf.isReadable() || buf.readUnsignedByte() != ClaimCodec.COMPACT_FORMAT) {
+            return null;
+        }
+        int count = buf.readVarInt();
+        Map<UUID, CachedFactionState> cached = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            UUID factionId = buf.readUuid();
+            cached.put(factionId, new CachedFactionState(buf.readVarInt(), buf.readLong()));
+        }
+        return cached;
+    }
+
+    /**
+     * Bring a reconnecting client's cached factions up to date. The FACTION_DATA_RESUME
+     * payload carries, after the format byte:
+     * <pre>
+     *   varint changedCount, compact factions that differ from the cache or are not in it
+     *   varint versionCount, per faction: uuid, varint claim version
+     *                        (unchanged factions whose claim version moved on)
+     *   varint removedCount, uuids of cached factions that no longer exist
+     * </pre>
+     */
+    private static void sendFactionResumeToPlayer(ServerPlayerEntity player, Map<UUID, CachedFactionState> cached) {
+        try {
+            // Pending claims first, so the reply is not followed by a stale batch
+            ClaimBroadcastBatcher.flush();
+            long generation = FactionSnapshotCache.getGeneration();
+
+            List<Faction> changed = new ArrayList<>();
+            Map<UUID, Integer> versions = new LinkedHashMap<>();
+            Set<UUID> removed = new HashSet<>(cached.keySet());
+            for (Faction faction : Faction.all()) {
+                UUID factionId = faction.getID();
+                removed.remove(factionId);
+                CachedFactionState state = cached.get(factionId);
+                if (state == null || state.stateHash != FactionSnapshotCache.getStateHash(faction)) {
+                    changed.add(faction);
+                } else {
+                    int claimVersion = FactionSnapshotCache.getClaimVersion(factionId);
+                    if (state.claimVersion != claimVersion) {
+                        versions.put(factionId, claimVersion);
+                    }
+                }
+            }
+
+            PacketByteBuf buf = PacketByteBufs.create();
+            buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+            buf.writeVarInt(changed.size());
+            for (Faction faction : changed) {
+                FactionSnapshotCache.writeFaction(buf, faction, true);
+            }
+            buf.writeVarInt(versions.size());
+            for (Map.Entry<UUID, Integer> entry : versions.entrySet()) {
+                buf.writeUuid(entry.getKey());
+                buf.writeVarInt(entry.getValue());
+            }
+            buf.writeVarInt(removed.size());
+            for (UUID factionId : removed) {
+                buf.writeUuid(factionId);
+            }
+
+            PlayerSendQueue.send(player, PlayerSendQueue.packet(FACTION_DATA_RESUME, buf));
+            lastFullSyncs.put(player.getUuid(), new FullSyncRecord(generation, true));
+            JourneyFactionsMain.LOGGER.debug("Resumed {} from {} cached factions: {} changed, {} version updates, {} removed",
+                    player.getName().getString(), cached.size(), changed.size(), versions.size(), removed.size());
+
+        } catch (Exception e) {
+            JourneyFactionsMain.LOGGER.error("Error resuming factions data for player: " + player.getName().getString(), e);
+        }
+    }
+
     /**
      * Broadcast faction update to all players
      */
@@ -91,12 +310,37 @@ public class JourneyFactionsIntegration {
         try {
             JourneyFactionsMain.LOGGER.debug("Broadcasting factions update: {}", faction.getName());
 
-            PacketByteBuf buf = PacketByteBufs.create();
-            writeFactionToBuffer(buf, faction);
+            // Encode each format at most once, only if some player needs it
+            PlayerSendQueue.Packet legacyPacket = null;
+            PlayerSendQueue.Packet compactPacket = null;
+            Map<InterestArea, PlayerSendQueue.Packet> areaPackets = new HashMap<>();
 
             // Send to all online players
             for (ServerPlayerEntity player : FactionsManager.playerManager.getPlayerList()) {
-                ServerPlayNetworking.send(player, FACTION_UPDATE, buf);
+                InterestArea area = InterestManager.get(player);
+                if (area != null) {
+                    PlayerSendQueue.send(player, areaPackets.computeIfAbsent(area, a -> {
+                        PacketByteBuf buf = PacketByteBufs.create();
+                        buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+                        writeInterestFaction(buf, faction, getChunkKeysIn(faction, a));
+                        return factionUpdatePacket(FACTION_UPDATE_COMPACT, buf, faction);
+                    }));
+                } else if (supportsCompactFormat(player)) {
+                    if (compactPacket == null) {
+                        PacketByteBuf buf = PacketByteBufs.create();
+                        buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+                        FactionSnapshotCache.writeFaction(buf, faction, true);
+                        compactPacket = factionUpdatePacket(FACTION_UPDATE_COMPACT, buf, faction);
+                    }
+                    PlayerSendQueue.send(player, compactPacket);
+                } else {
+                    if (legacyPacket == null) {
+                        PacketByteBuf buf = PacketByteBufs.create();
+                        FactionSnapshotCache.writeFaction(buf, faction, false);
+                        legacyPacket = factionUpdatePacket(FACTION_UPDATE, buf, faction);
+                    }
+                    PlayerSendQueue.send(player, legacyPacket);
+                }
             }
 
         } catch (Exception e) {
@@ -104,46 +348,285 @@ public class JourneyFactionsIntegration {
         }
     }
 
+    private static PlayerSendQueue.Packet factionUpdatePacket(Identifier channel, PacketByteBuf buf, Faction faction) {
+        return PlayerSendQueue.factionPacket(channel, buf, faction.getID(), PlayerSendQueue.Kind.FACTION_UPDATE);
+    }
+
     /**
-     * Broadcast chunk claim to all players
+     * Broadcast a metadata-only change (name, color, members) to all players. Compact clients
+     * get a small FACTION_META_UPDATE without the claim list; legacy clients get the full faction.
      */
-    public static void broadcastChunkClaim(ChunkPos chunk, Faction faction) {
+    public static void broadcastFactionMetadata(Faction faction) {
         try {
-            JourneyFactionsMain.LOGGER.debug("Broadcasting chunk claim: {} by {}", chunk, faction.getName());
+            JourneyFactionsMain.LOGGER.debug("Broadcasting factions metadata: {}", faction.getName());
 
-            PacketByteBuf buf = PacketByteBufs.create();
-            buf.writeString(faction.getID().toString()); // Use faction ID
-            buf.writeInt(chunk.x);
-            buf.writeInt(chunk.z);
+            PlayerSendQueue.Packet legacyPacket = null;
+            PlayerSendQueue.Packet metaPacket = null;
+            PlayerSendQueue.Packet areaMetaPacket = null;
 
             // Send to all online players
             for (ServerPlayerEntity player : FactionsManager.playerManager.getPlayerList()) {
-                ServerPlayNetworking.send(player, CHUNK_CLAIM, buf);
+                if (InterestManager.get(player) != null) {
+                    // These players only hold part of the claims, so there is no version to check
+                    if (areaMetaPacket == null) {
+                        areaMetaPacket = createMetadataPacket(faction, ClaimCodec.ANY_VERSION);
+                    }
+                    PlayerSendQueue.send(player, areaMetaPacket);
+                } else if (supportsCompactFormat(player)) {
+                    if (metaPacket == null) {
+                        metaPacket = createMetadataPacket(faction, FactionSnapshotCache.getClaimVersion(faction.getID()));
+                    }
+                    PlayerSendQueue.send(player, metaPacket);
+                } else {
+                    if (legacyPacket == null) {
+                        PacketByteBuf buf = PacketByteBufs.create();
+                        FactionSnapshotCache.writeFaction(buf, faction, false);
+                        legacyPacket = factionUpdatePacket(FACTION_UPDATE, buf, faction);
+                    }
+                    PlayerSendQueue.send(player, legacyPacket);
+                }
             }
 
         } catch (Exception e) {
-            JourneyFactionsMain.LOGGER.error("Error broadcasting chunk claim", e);
+            JourneyFactionsMain.LOGGER.error("Error broadcasting factions metadata for: " + faction.getName(), e);
         }
     }
 
+    private static PlayerSendQueue.Packet createMetadataPacket(Faction faction, int claimVersion) {
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+        writeFactionMetadata(buf, faction);
+        buf.writeVarInt(claimVersion);
+        return PlayerSendQueue.factionPacket(FACTION_META_UPDATE, buf, faction.getID(), PlayerSendQueue.Kind.FACTION_META);
+    }
+
     /**
-     * Broadcast chunk unclaim to all players
+     * Broadcast one tick's net claim changes (see {@link ClaimBroadcastBatcher}). Compact clients
+     * get a single CHUNK_BATCH encoded once; legacy clients get one packet per changed overworld
+     * chunk. Orphan removals are chunks unclaimed from an unknown owner, per dimension ID.
+     * Players synced in area-of-interest mode get only the changes inside their area.
      */
-    public static void broadcastChunkUnclaim(ChunkPos chunk) {
+    public static void broadcastClaimBatch(Collection<ClaimBroadcastBatcher.FactionClaimChange> changes,
+                                           Map<String, ClaimBroadcastBatcher.LongList> orphanRemovals) {
         try {
-            JourneyFactionsMain.LOGGER.debug("Broadcasting chunk unclaim: {}", chunk);
-
-            PacketByteBuf buf = PacketByteBufs.create();
-            buf.writeInt(chunk.x);
-            buf.writeInt(chunk.z);
+            PlayerSendQueue.Packet batchPacket = null;
+            List<PlayerSendQueue.Packet> legacyPackets = null;
+            Map<InterestArea, Optional<PlayerSendQueue.Packet>> areaBatches = new HashMap<>();
 
             // Send to all online players
             for (ServerPlayerEntity player : FactionsManager.playerManager.getPlayerList()) {
-                ServerPlayNetworking.send(player, CHUNK_UNCLAIM, buf);
+                InterestArea area = InterestManager.get(player);
+                if (area != null) {
+                    areaBatches.computeIfAbsent(area, a -> Optional.ofNullable(createClaimBatch(changes, orphanRemovals, a))
+                                    .map(buf -> PlayerSendQueue.packet(CHUNK_BATCH, buf)))
+                            .ifPresent(packet -> PlayerSendQueue.send(player, packet));
+                } else if (supportsCompactFormat(player)) {
+                    if (batchPacket == null) {
+                        batchPacket = PlayerSendQueue.packet(CHUNK_BATCH, createClaimBatch(changes, orphanRemovals, null));
+                    }
+                    PlayerSendQueue.send(player, batchPacket);
+                } else {
+                    if (legacyPackets == null) {
+                        // Removals first, so a chunk that changed hands ends up with its new owner
+                        legacyPackets = new ArrayList<>();
+                        for (PacketByteBuf buf : createLegacyUnclaims(changes, orphanRemovals)) {
+                            legacyPackets.add(PlayerSendQueue.packet(CHUNK_UNCLAIM, buf));
+                        }
+                        for (PacketByteBuf buf : createLegacyClaims(changes)) {
+                            legacyPackets.add(PlayerSendQueue.packet(CHUNK_CLAIM, buf));
+                        }
+                    }
+                    for (PlayerSendQueue.Packet packet : legacyPackets) {
+                        PlayerSendQueue.send(player, packet);
+                    }
+                }
             }
 
         } catch (Exception e) {
-            JourneyFactionsMain.LOGGER.error("Error broadcasting chunk unclaim", e);
+            JourneyFactionsMain.LOGGER.error("Error broadcasting claim batch", e);
+        }
+    }
+
+    /**
+     * Build a CHUNK_BATCH payload. Each entry carries the claim version the faction had before
+     * the batch and the one it brings it to; clients apply an entry only if they hold the former.
+     * Added and removed claims are grouped by dimension.
+     * <p>
+     * With an area, only changes inside it are written, with {@link ClaimCodec#ANY_VERSION}
+     * versions; returns null if nothing in the batch touches the area.
+     */
+    static PacketByteBuf createClaimBatch(Collection<ClaimBroadcastBatcher.FactionClaimChange> changes,
+                                          Map<String, ClaimBroadcastBatcher.LongList> orphanRemovals,
+                                          InterestArea area) {
+        List<UUID> factionIds = new ArrayList<>(changes.size());
+        List<Map<String, long[]>> added = new ArrayList<>(changes.size());
+        List<Map<String, long[]>> removed = new ArrayList<>(changes.size());
+        List<int[]> versions = new ArrayList<>(changes.size());
+        for (ClaimBroadcastBatcher.FactionClaimChange change : changes) {
+            Map<String, long[]> changeAdded = filterToArea(change.added, area);
+            Map<String, long[]> changeRemoved = filterToArea(change.removed, area);
+            if (area != null && changeAdded.isEmpty() && changeRemoved.isEmpty()) {
+                continue;
+            }
+            factionIds.add(change.faction.getID());
+            added.add(changeAdded);
+            removed.add(changeRemoved);
+            versions.add(area != null
+                    ? new int[] {ClaimCodec.ANY_VERSION, ClaimCodec.ANY_VERSION}
+                    : new int[] {change.baseVersion, change.newVersion});
+        }
+        Map<String, long[]> orphans = filterToArea(orphanRemovals, area);
+        if (area != null && factionIds.isEmpty() && orphans.isEmpty()) {
+            return null;
+        }
+
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+        buf.writeVarInt(factionIds.size());
+        for (int i = 0; i < factionIds.size(); i++) {
+            buf.writeUuid(factionIds.get(i));
+            buf.writeVarInt(versions.get(i)[0]);
+            buf.writeVarInt(versions.get(i)[1]);
+            ClaimCodec.writeDimensionClaims(buf, added.get(i));
+            ClaimCodec.writeDimensionClaims(buf, removed.get(i));
+        }
+        ClaimCodec.writeDimensionClaims(buf, orphans);
+        return buf;
+    }
+
+    /**
+     * The chunk keys inside an area (all of them if the area is null), as arrays; dimensions
+     * left without chunks are dropped
+     */
+    private static Map<String, long[]> filterToArea(Map<String, ClaimBroadcastBatcher.LongList> lists, InterestArea area) {
+        if (area == null) {
+            return toArrays(lists);
+        }
+        Map<String, long[]> arrays = new LinkedHashMap<>();
+        ClaimBroadcastBatcher.LongList list = lists.get(area.dimension);
+        if (list != null) {
+            ClaimBroadcastBatcher.LongList inside = new ClaimBroadcastBatcher.LongList();
+            for (long chunkKey : list.toArray()) {
+                if (area.containsChunk(area.dimension, chunkKey)) {
+                    inside.add(chunkKey);
+                }
+            }
+            if (inside.size() > 0) {
+                arrays.put(area.dimension, inside.toArray());
+            }
+        }
+        return arrays;
+    }
+
+    private static Map<String, long[]> toArrays(Map<String, ClaimBroadcastBatcher.LongList> lists) {
+        Map<String, long[]> arrays = new LinkedHashMap<>();
+        for (Map.Entry<String, ClaimBroadcastBatcher.LongList> entry : lists.entrySet()) {
+            arrays.put(entry.getKey(), entry.getValue().toArray());
+        }
+        return arrays;
+    }
+
+    private static long[] legacyChunks(Map<String, ClaimBroadcastBatcher.LongList> lists) {
+        ClaimBroadcastBatcher.LongList list = lists.get(LEGACY_DIMENSION);
+        return list != null ? list.toArray() : new long[0];
+    }
+
+    private static List<PacketByteBuf> createLegacyUnclaims(Collection<ClaimBroadcastBatcher.FactionClaimChange> changes,
+                                                            Map<String, ClaimBroadcastBatcher.LongList> orphanRemovals) {
+        List<PacketByteBuf> bufs = new ArrayList<>();
+        for (ClaimBroadcastBatcher.FactionClaimChange change : changes) {
+            for (long chunkKey : legacyChunks(change.removed)) {
+                bufs.add(createLegacyUnclaim(chunkKey));
+            }
+        }
+        for (long chunkKey : legacyChunks(orphanRemovals)) {
+            bufs.add(createLegacyUnclaim(chunkKey));
+        }
+        return bufs;
+    }
+
+    private static List<PacketByteBuf> createLegacyClaims(Collection<ClaimBroadcastBatcher.FactionClaimChange> changes) {
+        List<PacketByteBuf> bufs = new ArrayList<>();
+        for (ClaimBroadcastBatcher.FactionClaimChange change : changes) {
+            String factionId = change.faction.getID().toString();
+            for (long chunkKey : legacyChunks(change.added)) {
+                PacketByteBuf buf = PacketByteBufs.create();
+                buf.writeString(factionId); // Use faction ID
+                buf.writeInt(ChunkPos.getPackedX(chunkKey));
+                buf.writeInt(ChunkPos.getPackedZ(chunkKey));
+                bufs.add(buf);
+            }
+        }
+        return bufs;
+    }
+
+    private static PacketByteBuf createLegacyUnclaim(long chunkKey) {
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeInt(ChunkPos.getPackedX(chunkKey));
+        buf.writeInt(ChunkPos.getPackedZ(chunkKey));
+        return buf;
+    }
+
+    /**
+     * Resend one faction to a player whose claim version fell out of step
+     */
+    private static void sendFactionResyncToPlayer(ServerPlayerEntity player, UUID factionId) {
+        try {
+            Faction faction = Faction.get(factionId);
+            PacketByteBuf buf = PacketByteBufs.create();
+            if (faction == null) {
+                // The faction is gone - tell the client to drop it
+                buf.writeString(factionId.toString());
+                PlayerSendQueue.send(player, PlayerSendQueue.factionPacket(FACTION_DELETE, buf, factionId, PlayerSendQueue.Kind.FACTION_DELETE));
+                return;
+            }
+            buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+            InterestArea area = InterestManager.get(player);
+            if (area != null) {
+                writeInterestFaction(buf, faction, getChunkKeysIn(faction, area));
+            } else {
+                FactionSnapshotCache.writeFaction(buf, faction, true);
+            }
+            PlayerSendQueue.send(player, factionUpdatePacket(FACTION_UPDATE_COMPACT, buf, faction));
+
+        } catch (Exception e) {
+            JourneyFactionsMain.LOGGER.error("Error resyncing faction " + factionId + " for player: " + player.getName().getString(), e);
+        }
+    }
+
+    /**
+     * Stream the regions a player moved into and drop the ones they left (area-of-interest
+     * mode). The player's pending claim changes must have been flushed for the old area.
+     */
+    static void sendRegionSync(ServerPlayerEntity player, InterestArea previous, InterestArea current) {
+        sendRegionSync(player, previous.dimension, previous.regionsNotIn(current),
+                current.dimension, current.regionsNotIn(previous));
+    }
+
+    /**
+     * Send a REGION_SYNC: the client forgets the claims of the unloaded regions and replaces
+     * those of the loaded regions with ours
+     */
+    static void sendRegionSync(ServerPlayerEntity player, String unloadDimension, long[] unloadRegions,
+                               String loadDimension, long[] loadRegions) {
+        try {
+            Map<UUID, ClaimBroadcastBatcher.LongList> claims = ClaimRegionIndex.collect(loadDimension, loadRegions);
+
+            PacketByteBuf buf = PacketByteBufs.create();
+            buf.writeByte(ClaimCodec.COMPACT_FORMAT);
+            buf.writeString(unloadDimension);
+            ClaimCodec.writeRegions(buf, unloadRegions);
+            buf.writeString(loadDimension);
+            ClaimCodec.writeRegions(buf, loadRegions);
+            buf.writeVarInt(claims.size());
+            for (Map.Entry<UUID, ClaimBroadcastBatcher.LongList> entry : claims.entrySet()) {
+                buf.writeUuid(entry.getKey());
+                ClaimCodec.writeClaims(buf, entry.getValue().toArray());
+            }
+            PlayerSendQueue.send(player, PlayerSendQueue.packet(REGION_SYNC, buf));
+
+        } catch (Exception e) {
+            JourneyFactionsMain.LOGGER.error("Error sending region sync to player: " + player.getName().getString(), e);
         }
     }
 
@@ -156,10 +639,11 @@ public class JourneyFactionsIntegration {
 
             PacketByteBuf buf = PacketByteBufs.create();
             buf.writeString(faction.getID().toString());
+            PlayerSendQueue.Packet packet = PlayerSendQueue.factionPacket(FACTION_DELETE, buf, faction.getID(), PlayerSendQueue.Kind.FACTION_DELETE);
 
             // Send to all online players
             for (ServerPlayerEntity player : FactionsManager.playerManager.getPlayerList()) {
-                ServerPlayNetworking.send(player, FACTION_DELETE, buf);
+                PlayerSendQueue.send(player, packet);
             }
 
         } catch (Exception e) {
@@ -170,7 +654,7 @@ public class JourneyFactionsIntegration {
     /**
      * Write faction data to packet buffer
      */
-    private static void writeFactionToBuffer(PacketByteBuf buf, Faction faction) {
+    static void writeFactionToBuffer(PacketByteBuf buf, Faction faction) {
         try {
             buf.writeString(faction.getID().toString());           // Faction ID (UUID as string)
             buf.writeString(faction.getName());                    // Faction name
@@ -189,7 +673,7 @@ public class JourneyFactionsIntegration {
                 buf.writeBoolean(false);
             }
 
-            // Claimed chunks - convert from List<Claim> to Set<ChunkPos>
+            // Claimed overworld chunks - convert from List<Claim> to Set<ChunkPos>
             Set<ChunkPos> chunks = getChunkPosFromClaims(faction);
             buf.writeVarInt(chunks.size());
             for (ChunkPos chunk : chunks) {
@@ -203,6 +687,104 @@ public class JourneyFactionsIntegration {
         }
     }
 
+    /**
+     * Write faction data in the compact format: UUID as two longs, claims via ClaimCodec
+     * grouped by dimension
+     */
+    static void writeCompactFactionToBuffer(PacketByteBuf buf, Faction faction) {
+        try {
+            writeFactionMetadata(buf, faction);
+            buf.writeVarInt(FactionSnapshotCache.getClaimVersion(faction.getID())); // Claim version
+
+            // Claimed chunks as row spans, per dimension
+            ClaimCodec.writeDimensionClaims(buf, getChunkKeysByDimension(faction));
+
+        } catch (Exception e) {
+            JourneyFactionsMain.LOGGER.error("Error writing compact factions to buffer: " + faction.getName(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Full sync for a player in area-of-interest mode: every faction, but only the claims
+     * inside the area, collected from the region index
+     */
+    private static void writeInterestFullSync(PacketByteBuf buf, Collection<Faction> factions, InterestArea area) {
+        Map<UUID, ClaimBroadcastBatcher.LongList> claims = ClaimRegionIndex.collect(area.dimension, area.regionsNotIn(null));
+        buf.writeVarInt(factions.size());
+        for (Faction faction : factions) {
+            Map<String, long[]> factionClaims = new LinkedHashMap<>();
+            ClaimBroadcastBatcher.LongList chunkKeys = claims.get(faction.getID());
+            if (chunkKeys != null) {
+                factionClaims.put(area.dimension, chunkKeys.toArray());
+            }
+            writeInterestFaction(buf, faction, factionClaims);
+        }
+    }
+
+    /**
+     * Write a faction in the compact format with a partial claim set; the version is
+     * {@link ClaimCodec#ANY_VERSION} as the client cannot hold the real one
+     */
+    private static void writeInterestFaction(PacketByteBuf buf, Faction faction, Map<String, long[]> claimsByDimension) {
+        writeFactionMetadata(buf, faction);
+        buf.writeVarInt(ClaimCodec.ANY_VERSION);
+        ClaimCodec.writeDimensionClaims(buf, claimsByDimension);
+    }
+
+    /**
+     * Hash of the faction as the client holds it after a compact sync (see FactionStateHash)
+     */
+    static long computeStateHash(Faction faction) {
+        Color factionColor = getFactionColor(faction);
+        return FactionStateHash.of(faction.getID(), faction.getName(), getFormattedName(faction),
+                getFactionTypeOrdinal(faction), factionColor != null ? factionColor.getRGB() : null,
+                getChunkKeysByDimension(faction));
+    }
+
+    /**
+     * Write the compact-format faction header: everything except claims
+     */
+    private static void writeFactionMetadata(PacketByteBuf buf, Faction faction) {
+        buf.writeUuid(faction.getID());                        // Faction ID (two longs)
+        buf.writeString(faction.getName());                    // Faction name
+        buf.writeString(getFormattedName(faction));            // Display name with color
+        buf.writeVarInt(getFactionTypeOrdinal(faction));       // Faction type ordinal
+
+        Color factionColor = getFactionColor(faction);
+        if (factionColor != null) {
+            buf.writeBoolean(true);
+            buf.writeInt(factionColor.getRGB());
+        } else {
+            buf.writeBoolean(false);
+        }
+    }
+
+    /**
+     * Whether the player's client understands the compact channels
+     */
+    private static boolean supportsCompactFormat(ServerPlayerEntity player) {
+        return ServerPlayNetworking.canSend(player, FACTION_DATA_SYNC_COMPACT);
+    }
+
+    /**
+     * Whether the player's client can be sent only the differences to its claim cache.
+     * Not in area-of-interest mode, where the cache cannot be compared with the whole world.
+     */
+    private static boolean supportsResume(ServerPlayerEntity player) {
+        return supportsCompactFormat(player)
+                && ServerPlayNetworking.canSend(player, FACTION_DATA_RESUME)
+                && !supportsInterestSync(player);
+    }
+
+    /**
+     * Whether the player should be synced in area-of-interest mode: the mode is enabled and
+     * their client can receive region syncs. Other clients keep getting every claim.
+     */
+    private static boolean supportsInterestSync(ServerPlayerEntity player) {
+        return InterestManager.isEnabled() && ServerPlayNetworking.canSend(player, REGION_SYNC);
+    }
+
     /**
      * Get formatted faction name with color
      */
@@ -214,7 +796,7 @@ public class JourneyFactionsIntegration {
     }
 
     /**
-     * Convert faction claims to ChunkPos set
+     * Convert faction overworld claims to ChunkPos set (legacy format)
      */
     private static Set<ChunkPos> getChunkPosFromClaims(Faction faction) {
         Set<ChunkPos> chunkPosSet = new HashSet<>();
@@ -223,6 +805,9 @@ public class JourneyFactionsIntegration {
             // Get the claims list and convert to ChunkPos
             List<Claim> claims = faction.getClaims();
             for (Claim claim : claims) {
+                if (!LEGACY_DIMENSION.equals(claim.level)) {
+                    continue;
+                }
                 // Use the public x and z fields directly
                 chunkPosSet.add(new ChunkPos(claim.x, claim.z));
             }
@@ -233,6 +818,36 @@ public class JourneyFactionsIntegration {
         return chunkPosSet;
     }
 
+    /**
+     * Convert faction claims to packed chunk keys (ChunkPos.toLong), keyed by dimension ID
+     */
+    private static Map<String, long[]> getChunkKeysByDimension(Faction faction) {
+        Map<String, ClaimBroadcastBatcher.LongList> chunkKeys = new LinkedHashMap<>();
+        for (Claim claim : faction.getClaims()) {
+            chunkKeys.computeIfAbsent(claim.level, level -> new ClaimBroadcastBatcher.LongList())
+                    .add(ChunkPos.toLong(claim.x, claim.z));
+        }
+        return toArrays(chunkKeys);
+    }
+
+    /**
+     * A faction's claims inside an area, keyed by the area's dimension
+     */
+    private static Map<String, long[]> getChunkKeysIn(Faction faction, InterestArea area) {
+        ClaimBroadcastBatcher.LongList chunkKeys = new ClaimBroadcastBatcher.LongList();
+        for (Claim claim : faction.getClaims()) {
+            long chunkKey = ChunkPos.toLong(claim.x, claim.z);
+            if (area.containsChunk(claim.level, chunkKey)) {
+                chunkKeys.add(chunkKey);
+            }
+        }
+        Map<String, long[]> claimsByDimension = new LinkedHashMap<>();
+        if (chunkKeys.size() > 0) {
+            claimsByDimension.put(area.dimension, chunkKeys.toArray());
+        }
+        return claimsByDimension;
+    }
+
     /**
      * Convert faction to client faction type ordinal
      */
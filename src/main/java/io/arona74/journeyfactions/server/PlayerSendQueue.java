@@ -0,0 +1,210 @@
+package io.arona74.journeyfactions.server;
+
+import io.arona74.journeyfactions.JourneyFactionsMain;
+import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outbound queue for faction packets, one per player. Every faction packet goes through it,
+ * so packets reach a player in the order they were made.
+ * <ul>
+ *   <li>Payloads are encoded once into an immutable {@link Packet} shared by all recipients,
+ *       and wrapped in a fresh buffer per send.</li>
+ *   <li>Each player is sent at most {@link #TICK_BUDGET_BYTES} per tick; the rest waits in the
+ *       queue for the next ticks.</li>
+ *   <li>A queued faction update or metadata update is dropped when a newer one for the same
+ *       faction is queued behind it (see {@link Kind}), unless other packets are queued
+ *       between them.</li>
+ *   <li>If a player's queue grows past {@link #MAX_QUEUED_BYTES}, it is dropped and the
+ *       player gets a fresh full sync instead.</li>
+ * </ul>
+ */
+public class PlayerSendQueue {
+
+    // Bytes sent to one player per tick before packets start to queue
+    static final int TICK_BUDGET_BYTES = 128 * 1024;
+    // Queued bytes per player before the queue is replaced by a full sync
+    static final int MAX_QUEUED_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * What a packet says about a faction, to drop queued packets a newer one makes pointless
+     */
+    public enum Kind {
+        /** No superseding (claim batches, sync payloads) */
+        OTHER,
+        /** Everything about a faction: supersedes its queued updates and metadata updates */
+        FACTION_UPDATE,
+        /** Metadata only: supersedes its queued metadata updates */
+        FACTION_META,
+        /** Deletion: supersedes its queued updates and metadata updates */
+        FACTION_DELETE
+    }
+
+    /**
+     * An encoded packet, immutable and shareable between players
+     */
+    public static final class Packet {
+        final Identifier channel;
+        final byte[] payload;
+        final UUID factionId;
+        final Kind kind;
+
+        private Packet(Identifier channel, byte[] payload, UUID factionId, Kind kind) {
+            this.channel = channel;
+            this.payload = payload;
+            this.factionId = factionId;
+            this.kind = kind;
+        }
+    }
+
+    private static final class PlayerQueue {
+        final Deque<Packet> packets = new ArrayDeque<>();
+        int queuedBytes;
+        int sentThisTick;
+        boolean overflowed;
+    }
+
+    private static final Map<UUID, PlayerQueue> queues = new ConcurrentHashMap<>();
+
+    public static void register() {
+        // Registered after the other tick handlers, so what they produce goes out this tick
+        ServerTickEvents.END_SERVER_TICK.register(PlayerSendQueue::tick);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> queues.clear());
+    }
+
+    /**
+     * Encode a packet once; the buffer is consumed
+     */
+    public static Packet packet(Identifier channel, PacketByteBuf buf) {
+        return factionPacket(channel, buf, null, Kind.OTHER);
+    }
+
+    public static Packet factionPacket(Identifier channel, PacketByteBuf buf, UUID factionId, Kind kind) {
+        byte[] payload = new byte[buf.readableBytes()];
+        buf.readBytes(payload);
+        buf.release();
+        return new Packet(channel, payload, factionId, kind);
+    }
+
+    /**
+     * Send a packet now if the player's queue is empty and this tick's budget allows,
+     * otherwise queue it
+     */
+    public static synchronized void send(ServerPlayerEntity player, Packet packet) {
+        PlayerQueue queue = queues.computeIfAbsent(player.getUuid(), id -> new PlayerQueue());
+        if (queue.overflowed) {
+            return; // A full sync is coming
+        }
+        if (queue.packets.isEmpty() && queue.sentThisTick < TICK_BUDGET_BYTES) {
+            write(player, queue, packet);
+            return;
+        }
+
+        if (packet.kind != Kind.OTHER) {
+            supersede(queue, packet);
+        }
+        if (queue.queuedBytes + packet.payload.length > MAX_QUEUED_BYTES) {
+            JourneyFactionsMain.LOGGER.warn("Faction packet queue of {} overflowed ({} bytes), resyncing instead",
+                    player.getName().getString(), queue.queuedBytes);
+            queue.packets.clear();
+            queue.queuedBytes = 0;
+            queue.overflowed = true;
+            FullSyncStreamer.cancel(player.getUuid()); // Restarted by the full sync
+            return;
+        }
+        queue.packets.add(packet);
+        queue.queuedBytes += packet.payload.length;
+    }
+
+    /**
+     * Bytes waiting in a player's queue, for producers that pace themselves
+     */
+    public static synchronized int getQueuedBytes(ServerPlayerEntity player) {
+        PlayerQueue queue = queues.get(player.getUuid());
+        return queue != null ? queue.queuedBytes : 0;
+    }
+
+    public static synchronized void forget(UUID playerId) {
+        queues.remove(playerId);
+    }
+
+    private static void tick(MinecraftServer server) {
+        if (queues.isEmpty()) {
+            return;
+        }
+        List<ServerPlayerEntity> resyncs = new ArrayList<>();
+        synchronized (PlayerSendQueue.class) {
+            Iterator<Map.Entry<UUID, PlayerQueue>> it = queues.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<UUID, PlayerQueue> entry = it.next();
+                ServerPlayerEntity player = server.getPlayerManager().getPlayer(entry.getKey());
+                if (player == null) {
+                    it.remove();
+                    continue;
+                }
+                PlayerQueue queue = entry.getValue();
+                queue.sentThisTick = 0;
+                if (queue.overflowed) {
+                    queue.overflowed = false;
+                    resyncs.add(player);
+                    continue;
+                }
+                while (!queue.packets.isEmpty() && queue.sentThisTick < TICK_BUDGET_BYTES) {
+                    Packet packet = queue.packets.poll();
+                    queue.queuedBytes -= packet.payload.length;
+                    write(player, queue, packet);
+                }
+            }
+        }
+
+        // Outside the lock: the full sync sends through this queue again
+        for (ServerPlayerEntity player : resyncs) {
+            JourneyFactionsIntegration.resyncPlayer(player);
+        }
+    }
+
+    /**
+     * Drop the faction's queued packets that {@code packet} makes pointless. Only packets
+     * behind the last queued {@link Kind#OTHER} packet are dropped: a claim batch or sync
+     * payload may build on them (a batch names the claim version it applies to), and the
+     * replacement goes to the tail, behind it.
+     */
+    private static void supersede(PlayerQueue queue, Packet packet) {
+        Iterator<Packet> it = queue.packets.descendingIterator();
+        while (it.hasNext()) {
+            Packet queued = it.next();
+            if (queued.kind == Kind.OTHER) {
+                break;
+            }
+            if (!packet.factionId.equals(queued.factionId)) {
+                continue;
+            }
+            boolean superseded = queued.kind == Kind.FACTION_META
+                    || (queued.kind == Kind.FACTION_UPDATE && packet.kind != Kind.FACTION_META);
+            if (superseded) {
+                it.remove();
+                queue.queuedBytes -= queued.payload.length;
+            }
+        }
+    }
+
+    private static void write(ServerPlayerEntity player, PlayerQueue queue, Packet packet) {
+        ServerPlayNetworking.send(player, packet.channel, new PacketByteBuf(Unpooled.wrappedBuffer(packet.payload)));
+        queue.sentThisTick += packet.payload.length;
+    }
+}
@@ -0,0 +1,78 @@
+package io.arona74.journeyfactions.server;
+
+import io.arona74.journeyfactions.JourneyFactionsMain;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Server-side settings, read from config/journeyfactions-server.properties. The file is
+ * written with the defaults on first start.
+ */
+public class ServerConfig {
+
+    private static final String FILE_NAME = "journeyfactions-server.properties";
+
+    /**
+     * Chunks around each player whose claims are synced to them (area-of-interest mode).
+     * 0 disables the mode: every client gets every claim.
+     */
+    public static int interestRadiusChunks = 0;
+
+    /** How often players are checked for having moved into new regions, in ticks */
+    public static int interestUpdateIntervalTicks = 10;
+
+    public static void load() {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+        Properties properties = new Properties();
+
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                JourneyFactionsMain.LOGGER.error("Failed to read " + FILE_NAME + ", using defaults", e);
+            }
+        }
+
+        interestRadiusChunks = Math.max(0, getInt(properties, "interestRadiusChunks", interestRadiusChunks));
+        interestUpdateIntervalTicks = Math.max(1, getInt(properties, "interestUpdateIntervalTicks", interestUpdateIntervalTicks));
+
+        if (!Files.exists(path)) {
+            save(path);
+        }
+        JourneyFactionsMain.LOGGER.info("Area-of-interest sync: {}", interestRadiusChunks > 0
+                ? interestRadiusChunks + " chunks around each player"
+                : "disabled");
+    }
+
+    private static void save(Path path) {
+        Properties properties = new Properties();
+        properties.setProperty("interestRadiusChunks", Integer.toString(interestRadiusChunks));
+        properties.setProperty("interestUpdateIntervalTicks", Integer.toString(interestUpdateIntervalTicks));
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "JourneyFactions server settings\n"
+                    + "interestRadiusChunks: only sync claims this many chunks around each player (0 = sync every claim)\n"
+                    + "interestUpdateIntervalTicks: how often player positions are checked for region changes");
+        } catch (IOException e) {
+            JourneyFactionsMain.LOGGER.error("Failed to write " + FILE_NAME, e);
+        }
+    }
+
+    private static int getInt(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            JourneyFactionsMain.LOGGER.warn("Invalid value '{}' for {} in {}, using {}", value, key, FILE_NAME, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.arona74.journeyfactions.util;
+
+import io.arona74.journeyfactions.JourneyFactionsMain;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deferred work queue driven by game ticks. The owner calls {@link #tick()} once per tick
+ * (server or client) and due tasks run on that thread, in scheduling order.
+ * Tasks are keyed: scheduling a key that is already pending replaces its task but keeps
+ * the original deadline, so a burst of requests for the same thing runs once and on time.
+ */
+public class TickScheduler {
+
+    private final Map<Object, PendingTask> pending = new LinkedHashMap<>();
+    private long currentTick = 0;
+
+    private static final class PendingTask {
+        final long dueTick;
+        Runnable task;
+
+        PendingTask(long dueTick, Runnable task) {
+            this.dueTick = dueTick;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Run {@code task} after {@code delayTicks} ticks, unless {@code key} is already pending.
+     * @return false if the task was merged into an already pending one
+     */
+    public synchronized boolean schedule(Object key, int delayTicks, Runnable task) {
+        PendingTask existing = pending.get(key);
+        if (existing != null) {
+            existing.task = task;
+            return false;
+        }
+        pending.put(key, new PendingTask(currentTick + Math.max(delayTicks, 1), task));
+        return true;
+    }
+
+    public synchronized void cancel(Object key) {
+        pending.remove(key);
+    }
+
+    public synchronized void clear() {
+        pending.clear();
+    }
+
+    public synchronized boolean isPending(Object key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * Advance one tick and run every task that is due
+     */
+    public void tick() {
+        List<Runnable> due;
+        synchronized (this) {
+            currentTick++;
+            if (pending.isEmpty()) {
+                return;
+            }
+            due = new ArrayList<>();
+            Iterator<PendingTask> it = pending.values().iterator();
+            while (it.hasNext()) {
+                PendingTask task = it.next();
+                if (task.dueTick <= currentTick) {
+                    due.add(task.task);
+                    it.remove();
+                }
+            }
+        }
+
+        // Run outside the lock so tasks can schedule follow-up work
+        for (Runnable task : due) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                JourneyFactionsMain.LOGGER.error("Error running scheduled task", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.arona74.journeyfactions.journeymap;
+
+import journeymap.client.api.model.MapPolygon;
+import journeymap.client.api.model.MapPolygonWithHoles;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ClaimContourTracer} on shapes with known answers (polygon, hole and corner counts),
+ * and on random shapes, where the outlines must cover exactly the claimed area along chunk
+ * edges.
+ */
+class ClaimContourTracerTest {
+
+    private static final int Y = 70;
+
+    @Test
+    void singleChunkIsOneSquare() {
+        expect(grid("#"), 1, 0, 4);
+    }
+
+    @Test
+    void donutHasOneHole() {
+        expect(grid(
+            "###",
+            "#.#",
+            "###"), 1, 1, 8);
+    }
+
+    @Test
+    void islandInHoleIsItsOwnPolygon() {
+        expect(grid(
+            "#####",
+            "#...#",
+            "#.#.#",
+            "#...#",
+            "#####"), 2, 1, 12);
+    }
+
+    @Test
+    void checkerboardChunksStaySeparate() {
+        expect(grid(
+            "#.#.",
+            ".#.#",
+            "#.#.",
+            ".#.#"), 8, 0, 32);
+    }
+
+    @Test
+    void diagonalChunksStaySeparate() {
+        expect(grid(
+            "#...",
+            ".#..",
+            "..#.",
+            "...#"), 4, 0, 16);
+    }
+
+    @Test
+    void holePinchedAtCornerIsOneHole() {
+        expect(grid(
+            "####",
+            "#..#",
+            "#.##",
+            "##.#",
+            ".###"), 1, 1, 16);
+    }
+
+    @Test
+    void collinearEdgesAreMerged() {
+        expect(grid(
+            "#...",
+            "#...",
+            "####"), 1, 0, 6);
+    }
+
+    @Test
+    void randomShapesCoverTheirClaims() {
+        Random random = new Random(42L);
+        for (int shape = 0; shape < 200; shape++) {
+            Set<Long> keys = new HashSet<>();
+            int size = 2 + random.nextInt(20);
+            int originX = random.nextInt(2000) - 1000;
+            int originZ = random.nextInt(2000) - 1000;
+            for (int x = 0; x < size; x++) {
+                for (int z = 0; z < size; z++) {
+                    if (random.nextInt(100) < 65) {
+                        keys.add(ChunkPos.toLong(originX + x, originZ + z));
+                    }
+                }
+            }
+            if (keys.isEmpty()) {
+                continue;
+            }
+            long[] claims = keys.stream().mapToLong(Long::longValue).toArray();
+
+            long area = 0;
+            for (MapPolygonWithHoles polygon : ClaimContourTracer.trace(claims, Y)) {
+                long hullArea = area(polygon.hull);
+                assertTrue(hullArea > 0, "hull winds the wrong way");
+                assertOnChunkGrid(polygon.hull);
+                area += hullArea;
+                if (polygon.holes != null) {
+                    for (MapPolygon hole : polygon.holes) {
+                        long holeArea = area(hole);
+                        assertTrue(holeArea < 0, "hole winds the wrong way");
+                        assertOnChunkGrid(hole);
+                        area += holeArea;
+                    }
+                }
+            }
+            assertEquals((long) claims.length * 16 * 16, area, "area of shape " + shape);
+        }
+    }
+
+    private static void expect(long[] keys, int polygons, int holes, int vertices) {
+        List<MapPolygonWithHoles> result = ClaimContourTracer.trace(keys, Y);
+        int holeCount = 0;
+        int vertexCount = 0;
+        long area = 0;
+        for (MapPolygonWithHoles polygon : result) {
+            vertexCount += polygon.hull.getPoints().size();
+            area += area(polygon.hull);
+            if (polygon.holes != null) {
+                for (MapPolygon hole : polygon.holes) {
+                    holeCount++;
+                    vertexCount += hole.getPoints().size();
+                    area += area(hole);
+                }
+            }
+        }
+        assertEquals(polygons, result.size(), "polygons");
+        assertEquals(holes, holeCount, "holes");
+        assertEquals(vertices, vertexCount, "vertices");
+        assertEquals((long) keys.length * 16 * 16, area, "area");
+    }
+
+    private static void assertOnChunkGrid(MapPolygon polygon) {
+        for (BlockPos point : polygon.getPoints()) {
+            assertEquals(0, Math.floorMod(point.getX(), 16), "x of " + point);
+            assertEquals(0, Math.floorMod(point.getZ(), 16), "z of " + point);
+            assertEquals(Y, point.getY(), "y of " + point);
+        }
+    }
+
+    /**
+     * Signed shoelace area in blocks: positive for outer rings, negative for holes
+     */
+    private static long area(MapPolygon polygon) {
+        List<BlockPos> points = polygon.getPoints();
+        long twice = 0;
+        for (int i = 0; i < points.size(); i++) {
+            BlockPos a = points.get(i);
+            BlockPos b = points.get((i + 1) % points.size());
+            twice += (long) a.getX() * b.getZ() - (long) b.getX() * a.getZ();
+        }
+        return twice / 2;
+    }
+
+    private static long[] grid(String... rows) {
+        List<Long> keys = new ArrayList<>();
+        for (int z = 0; z < rows.length; z++) {
+            for (int x = 0; x < rows[z].length(); x++) {
+                if (rows[z].charAt(x) == '#') {
+                    keys.add(ChunkPos.toLong(x - 2, z - 2)); // Straddle the origin
+                }
+            }
+        }
+        return keys.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,128 @@
+package io.arona74.journeyfactions.journeymap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link OverlayBuildQueue} driven the way {@link FactionOverlayManager} drives it once per
+ * tick, against a fake clock where every overlay costs a fixed time: no pass may hold the main
+ * thread for more than the refresh budget plus one region, and every region must be built
+ * exactly once, in order.
+ */
+class OverlayBuildQueueTest {
+
+    private static final long BUDGET = FactionOverlayManager.REFRESH_BUDGET_NANOS;
+    private static final long REGION_COST = 700_000L;
+    private static final long FINISH_COST = 300_000L;
+
+    private long now;
+    private final Deque<GeometryWorker.Result> results = new ArrayDeque<>();
+    private final List<String> events = new ArrayList<>();
+    private Set<String> stale = Set.of();
+
+    private final OverlayBuildQueue queue = new OverlayBuildQueue(results::poll, new OverlayBuildQueue.Target() {
+        @Override
+        public boolean begin(GeometryWorker.Result result) {
+            return !stale.contains(result.factionId);
+        }
+
+        @Override
+        public void build(GeometryWorker.Result result, FactionGeometry.Region region) {
+            now += REGION_COST;
+            events.add(result.factionId + ":" + region.index);
+        }
+
+        @Override
+        public void finish(GeometryWorker.Result result) {
+            now += FINISH_COST;
+            events.add(result.factionId + ":done");
+        }
+    }, () -> now);
+
+    @Test
+    void passesStayWithinBudget() {
+        results.add(result("a", 40));
+        results.add(result("b", 1));
+        results.add(result("c", 25));
+
+        long slowest = 0;
+        int passes = 0;
+        int finished = 0;
+        while (!results.isEmpty() || !queue.isIdle()) {
+            long start = now;
+            finished += queue.run(start + BUDGET);
+            slowest = Math.max(slowest, now - start);
+            passes++;
+            now += 50_000_000L; // Next tick
+        }
+
+        assertEquals(3, finished);
+        assertTrue(slowest <= BUDGET + Math.max(REGION_COST, FINISH_COST), "slowest pass took " + slowest + " ns");
+        assertTrue(passes >= (66 * REGION_COST) / BUDGET, "only " + passes + " passes");
+        assertEquals(expected("a", 40, "b", 1, "c", 25), events);
+    }
+
+    @Test
+    void latePassStillBuildsOneRegion() {
+        results.add(result("a", 3));
+        queue.run(now - 1);
+        assertEquals(List.of("a:0"), events);
+        assertFalse(queue.isIdle());
+        assertTrue(queue.isApplying("a", 1, new ChunkBounds(0, 0, 0, 0)));
+    }
+
+    @Test
+    void staleResultsAreDropped() {
+        stale = Set.of("b");
+        results.add(result("a", 2));
+        results.add(result("b", 2));
+        results.add(result("c", 1));
+        assertEquals(2, queue.run(now + BUDGET));
+        assertEquals(expected("a", 2, "c", 1), events);
+    }
+
+    @Test
+    void cancelStopsTheFactionBeingApplied() {
+        results.add(result("a", 20));
+        results.add(result("b", 2));
+        queue.run(now + BUDGET);
+        int built = events.size();
+        assertTrue(built > 0 && built < 20);
+
+        queue.cancel("a");
+        assertTrue(queue.isIdle());
+        queue.run(now + BUDGET);
+        assertEquals(expected("b", 2), events.subList(built, events.size()));
+    }
+
+    private static GeometryWorker.Result result(String factionId, int regionCount) {
+        List<FactionGeometry.Region> regions = new ArrayList<>();
+        for (int i = 0; i < regionCount; i++) {
+            regions.add(new FactionGeometry.Region(null, new ChunkBounds(i, 0, i, 0), null, i, 0));
+        }
+        return new GeometryWorker.Result(factionId, null, 1, new ChunkBounds(-64, -64, 64, 64), regionCount, regions);
+    }
+
+    /**
+     * Events of whole results applied in order: faction id and region count pairs
+     */
+    private static List<String> expected(Object... factionsAndCounts) {
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < factionsAndCounts.length; i += 2) {
+            for (int region = 0; region < (Integer) factionsAndCounts[i + 1]; region++) {
+                events.add(factionsAndCounts[i] + ":" + region);
+            }
+            events.add(factionsAndCounts[i] + ":done");
+        }
+        return events;
+    }
+}